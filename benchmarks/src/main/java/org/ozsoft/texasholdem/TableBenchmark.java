@@ -0,0 +1,152 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.ozsoft.texasholdem;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ozsoft.texasholdem.bots.DummyBot;
+
+/**
+ * Benchmarks playing a full hand at a table of bots that always check or call,
+ * so every hand goes to the showdown. <br />
+ * <br />
+ *
+ * In the game's package, since {@link Table#playHand()} is not public.
+ *
+ * @author Oscar Stigter
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableBenchmark {
+
+    /** The size of the big blind. */
+    private static final int BIG_BLIND = 10;
+
+    /** The starting cash per player; enough to never go broke. */
+    private static final int STARTING_CASH = 100000000;
+
+    /** The number of players. */
+    @Param({ "2", "6", "10" })
+    public int noOfPlayers;
+
+    /** The table type. */
+    @Param({ "FIXED_LIMIT", "NO_LIMIT" })
+    public TableType tableType;
+
+    /** The table. */
+    private Table table;
+
+    /** The original standard output. */
+    private PrintStream stdout;
+
+    /**
+     * Silences the standard output, to which the table logs the hole cards.
+     */
+    @Setup(Level.Trial)
+    public void silence() {
+        stdout = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+
+            /** {@inheritDoc} */
+            @Override
+            public void write(int b) {
+                // Discard.
+            }
+
+        }));
+    }
+
+    /**
+     * Restores the standard output.
+     */
+    @TearDown(Level.Trial)
+    public void restore() {
+        System.setOut(stdout);
+    }
+
+    /**
+     * Seats the players at a new table.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        table = new Table(tableType, BIG_BLIND);
+        for (int i = 0; i < noOfPlayers; i++) {
+            table.addPlayer(new Player("Player " + i, STARTING_CASH, new DummyBot()));
+        }
+        table.start(new PrintWriter(new NullWriter()));
+    }
+
+    /**
+     * Plays a single hand.
+     *
+     * @return The table.
+     */
+    @Benchmark
+    public Table playHand() {
+        table.playHand();
+        return table;
+    }
+
+    /**
+     * Writer discarding all output.
+     */
+    private static class NullWriter extends Writer {
+
+        /** {@inheritDoc} */
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            // Discard.
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void flush() {
+            // Nothing to flush.
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() {
+            // Nothing to close.
+        }
+
+    }
+
+}
@@ -0,0 +1,110 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.ozsoft.texasholdem.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ozsoft.texasholdem.AiUtil;
+import org.ozsoft.texasholdem.CachePolicy;
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.EvaluationCache;
+
+/**
+ * Benchmarks the flop and turn evaluation of {@link AiUtil}, with and without
+ * the evaluation cache.
+ *
+ * @author Oscar Stigter
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AiUtilBenchmark {
+
+    /** Whether the evaluation cache is used. */
+    @Param({ "false", "true" })
+    public boolean cached;
+
+    /** The random hole cards plus flop. */
+    private Card[][] flops;
+
+    /** The random hole cards plus flop and turn. */
+    private Card[][] turns;
+
+    /** The index of the next hand. */
+    private int index;
+
+    /**
+     * Generates the random hands and configures the cache.
+     */
+    @Setup
+    public void setUp() {
+        flops = new Card[BenchmarkUtils.NO_OF_SAMPLES][];
+        turns = new Card[BenchmarkUtils.NO_OF_SAMPLES][];
+        for (int i = 0; i < BenchmarkUtils.NO_OF_SAMPLES; i++) {
+            flops[i] = BenchmarkUtils.randomCards(5);
+            turns[i] = BenchmarkUtils.randomCards(6);
+        }
+        index = 0;
+        AiUtil.setCache(cached ? new EvaluationCache(AiUtil.DEFAULT_CACHE_CAPACITY, CachePolicy.LRU) : null);
+    }
+
+    /**
+     * Restores the default cache.
+     */
+    @TearDown
+    public void tearDown() {
+        AiUtil.setCache(new EvaluationCache(AiUtil.DEFAULT_CACHE_CAPACITY, CachePolicy.LRU));
+    }
+
+    /**
+     * Evaluates hole cards plus flop.
+     *
+     * @return The score.
+     */
+    @Benchmark
+    public double flopEval() {
+        return AiUtil.flopEval(flops[index++ & BenchmarkUtils.SAMPLE_MASK]);
+    }
+
+    /**
+     * Evaluates hole cards plus flop and turn.
+     *
+     * @return The score.
+     */
+    @Benchmark
+    public double turnEval() {
+        return AiUtil.turnEval(turns[index++ & BenchmarkUtils.SAMPLE_MASK]);
+    }
+
+}
@@ -0,0 +1,71 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.ozsoft.texasholdem.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler (allocation rate per operation)
+ * and writes the results as JSON, so runs of different commits can be
+ * compared. <br />
+ * <br />
+ *
+ * Usage: <code>java -jar target/benchmarks.jar [file [regexp]]</code>, with the
+ * file defaulting to <code>jmh-result.json</code> and the regular expression
+ * selecting the benchmarks to all of them (e.g. <code>TableBenchmark</code>
+ * to run only those). For the full JMH command line, run
+ * <code>org.openjdk.jmh.Main</code> instead.
+ *
+ * @author Oscar Stigter
+ */
+public class BenchmarkRunner {
+
+    /** The default result file. */
+    private static final String DEFAULT_FILE = "jmh-result.json";
+
+    /** The default benchmark selection (all benchmarks of the game). */
+    private static final String DEFAULT_INCLUDE = "org\\.ozsoft\\.texasholdem\\..*Benchmark";
+
+    /**
+     * The application's entry point.
+     *
+     * @param args
+     *            The command line arguments.
+     *
+     * @throws RunnerException
+     *             If the benchmarks could not be run.
+     */
+    public static void main(String[] args) throws RunnerException {
+        String file = (args.length > 0) ? args[0] : DEFAULT_FILE;
+        String include = (args.length > 1) ? args[1] : DEFAULT_INCLUDE;
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(file)
+                .build();
+        new Runner(options).run();
+    }
+
+}
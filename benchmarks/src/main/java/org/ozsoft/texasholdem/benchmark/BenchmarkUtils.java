@@ -0,0 +1,68 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.ozsoft.texasholdem.benchmark;
+
+import java.util.Random;
+
+import org.ozsoft.texasholdem.Card;
+
+/**
+ * Utility methods shared by the benchmarks.
+ *
+ * @author Oscar Stigter
+ */
+public abstract class BenchmarkUtils {
+
+    /** The number of random samples per benchmark (a power of 2). */
+    public static final int NO_OF_SAMPLES = 1024;
+
+    /** Mask to cycle through the samples. */
+    public static final int SAMPLE_MASK = NO_OF_SAMPLES - 1;
+
+    /** The seed of the random samples, so all runs use the same samples. */
+    /* package */ static final long SEED = 20091127L;
+
+    /** Random number generator for the samples. */
+    private static final Random RANDOM = new Random(SEED);
+
+    /**
+     * Returns a number of distinct random cards.
+     *
+     * @param noOfCards
+     *            The number of cards.
+     *
+     * @return The cards.
+     */
+    public static Card[] randomCards(int noOfCards) {
+        int[] deck = new int[Card.NO_OF_RANKS * Card.NO_OF_SUITS];
+        for (int i = 0; i < deck.length; i++) {
+            deck[i] = i;
+        }
+        Card[] cards = new Card[noOfCards];
+        for (int i = 0; i < noOfCards; i++) {
+            int j = i + RANDOM.nextInt(deck.length - i);
+            int card = deck[j];
+            deck[j] = deck[i];
+            deck[i] = card;
+            cards[i] = Card.of(card);
+        }
+        return cards;
+    }
+
+}
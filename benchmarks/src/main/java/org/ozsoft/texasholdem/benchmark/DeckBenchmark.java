@@ -0,0 +1,142 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.ozsoft.texasholdem.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ozsoft.texasholdem.Deck;
+
+/**
+ * Benchmarks shuffling and dealing a deck.
+ *
+ * @author Oscar Stigter
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeckBenchmark {
+
+    /**
+     * Shuffles the deck. <br />
+     * <br />
+     *
+     * Only an eagerly shuffled deck is measured; a lazy shuffle merely resets
+     * the deck and draws the cards while dealing (see
+     * {@link #shuffleAndDeal(DealState, Blackhole)}).
+     *
+     * @param state
+     *            The deck.
+     *
+     * @return The deck.
+     */
+    @Benchmark
+    public Deck shuffle(ShuffleState state) {
+        state.deck.shuffle();
+        return state.deck;
+    }
+
+    /**
+     * Shuffles the deck and deals the hole cards and the board of a hand.
+     *
+     * @param state
+     *            The deck and the number of players.
+     * @param blackhole
+     *            The sink for the dealt cards.
+     */
+    @Benchmark
+    public void shuffleAndDeal(DealState state, Blackhole blackhole) {
+        Deck deck = state.deck;
+        deck.shuffle();
+        for (int i = 0; i < state.noOfPlayers; i++) {
+            blackhole.consume(deck.deal(2));
+        }
+        blackhole.consume(deck.deal(5));
+    }
+
+    /**
+     * An eagerly shuffled deck.
+     */
+    @State(Scope.Thread)
+    public static class ShuffleState {
+
+        /** Whether to use a seeded simulation RNG instead of a SecureRandom. */
+        @Param({ "false", "true" })
+        public boolean seeded;
+
+        /** The deck. */
+        private Deck deck;
+
+        /**
+         * Creates the deck.
+         */
+        @Setup
+        public void setUp() {
+            deck = seeded ? new Deck(BenchmarkUtils.SEED) : new Deck();
+            deck.setLazy(false);
+        }
+
+    }
+
+    /**
+     * A deck to deal a hand from.
+     */
+    @State(Scope.Thread)
+    public static class DealState {
+
+        /** The number of players to deal a hand to. */
+        @Param({ "2", "6", "10" })
+        public int noOfPlayers;
+
+        /** Whether to use a seeded simulation RNG instead of a SecureRandom. */
+        @Param({ "false", "true" })
+        public boolean seeded;
+
+        /** Whether to draw the cards lazily when dealt. */
+        @Param({ "false", "true" })
+        public boolean lazy;
+
+        /** The deck. */
+        private Deck deck;
+
+        /**
+         * Creates the deck.
+         */
+        @Setup
+        public void setUp() {
+            deck = seeded ? new Deck(BenchmarkUtils.SEED) : new Deck();
+            deck.setLazy(lazy);
+        }
+
+    }
+
+}
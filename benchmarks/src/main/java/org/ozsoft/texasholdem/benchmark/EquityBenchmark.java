@@ -0,0 +1,93 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package org.ozsoft.texasholdem.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.equity.EquityCalculator;
+import org.ozsoft.texasholdem.equity.EquityResult;
+
+/**
+ * Benchmarks the exhaustive {@link EquityCalculator} on random heads-up hands,
+ * preflop (1,712,304 boards) and on the flop (990 boards).
+ *
+ * @author Oscar Stigter
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EquityBenchmark {
+
+    /** The number of known board cards. */
+    @Param({ "0", "3" })
+    public int boardSize;
+
+    /** The calculator, using the common fork-join pool. */
+    private final EquityCalculator calculator = new EquityCalculator();
+
+    /** The random hole cards per sample. */
+    private Card[][][] holeCards;
+
+    /** The random board per sample. */
+    private Card[][] boards;
+
+    /** The index of the next sample. */
+    private int index;
+
+    /**
+     * Generates the random hands.
+     */
+    @Setup
+    public void setUp() {
+        holeCards = new Card[BenchmarkUtils.NO_OF_SAMPLES][][];
+        boards = new Card[BenchmarkUtils.NO_OF_SAMPLES][];
+        for (int i = 0; i < BenchmarkUtils.NO_OF_SAMPLES; i++) {
+            Card[] cards = BenchmarkUtils.randomCards(4 + boardSize);
+            holeCards[i] = new Card[][] { { cards[0], cards[1] }, { cards[2], cards[3] } };
+            boards[i] = new Card[boardSize];
+            System.arraycopy(cards, 4, boards[i], 0, boardSize);
+        }
+        index = 0;
+    }
+
+    /**
+     * Calculates the equity of a heads-up hand.
+     *
+     * @return The result.
+     */
+    @Benchmark
+    public EquityResult calculate() {
+        int i = index++ & BenchmarkUtils.SAMPLE_MASK;
+        return calculator.calculate(holeCards[i], boards[i]);
+    }
+
+}
@@ -0,0 +1,142 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ozsoft.texasholdem.CardSet;
+import org.ozsoft.texasholdem.Hand;
+import org.ozsoft.texasholdem.HandEvaluatorType;
+import org.ozsoft.texasholdem.HandValue;
+import org.ozsoft.texasholdem.LookupHandEvaluator;
+
+/**
+ * Benchmarks the hand evaluators on random hands.
+ *
+ * @author Oscar Stigter
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandEvaluatorBenchmark {
+
+    /**
+     * Evaluates a hand through {@link HandValue}, as done at the showdown.
+     *
+     * @param state
+     *            The random hands.
+     *
+     * @return The hand value.
+     */
+    @Benchmark
+    public int handValue(HandState state) {
+        Hand hand = state.hands[state.index++ & BenchmarkUtils.SAMPLE_MASK];
+        return new HandValue(hand, state.evaluatorType).getValue();
+    }
+
+    /**
+     * Evaluates a card set with the allocation-free lookup evaluator.
+     *
+     * @param state
+     *            The random card sets.
+     *
+     * @return The hand value.
+     */
+    @Benchmark
+    public int cardSet(CardSetState state) {
+        return LookupHandEvaluator.evaluate(state.cardSets[state.index++ & BenchmarkUtils.SAMPLE_MASK]);
+    }
+
+    /**
+     * Random hands for a hand evaluator.
+     */
+    @State(Scope.Thread)
+    public static class HandState {
+
+        /** The hand evaluator. */
+        @Param({ "CLASSIC", "LOOKUP_TABLE" })
+        public HandEvaluatorType evaluatorType;
+
+        /** The number of cards per hand. */
+        @Param({ "5", "7" })
+        public int noOfCards;
+
+        /** The random hands. */
+        private Hand[] hands;
+
+        /** The index of the next hand. */
+        private int index;
+
+        /**
+         * Generates the random hands.
+         */
+        @Setup
+        public void setUp() {
+            hands = new Hand[BenchmarkUtils.NO_OF_SAMPLES];
+            for (int i = 0; i < hands.length; i++) {
+                hands[i] = new Hand(BenchmarkUtils.randomCards(noOfCards));
+            }
+            index = 0;
+        }
+
+    }
+
+    /**
+     * Random hands as card sets.
+     */
+    @State(Scope.Thread)
+    public static class CardSetState {
+
+        /** The number of cards per hand. */
+        @Param({ "5", "7" })
+        public int noOfCards;
+
+        /** The random card sets. */
+        private long[] cardSets;
+
+        /** The index of the next card set. */
+        private int index;
+
+        /**
+         * Generates the random card sets.
+         */
+        @Setup
+        public void setUp() {
+            cardSets = new long[BenchmarkUtils.NO_OF_SAMPLES];
+            for (int i = 0; i < cardSets.length; i++) {
+                cardSets[i] = CardSet.of(BenchmarkUtils.randomCards(noOfCards));
+            }
+            index = 0;
+        }
+
+    }
+
+}
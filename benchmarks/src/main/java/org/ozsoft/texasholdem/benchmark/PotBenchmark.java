@@ -0,0 +1,108 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.ozsoft.texasholdem.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ozsoft.texasholdem.Player;
+import org.ozsoft.texasholdem.Pot;
+import org.ozsoft.texasholdem.bots.DummyBot;
+
+/**
+ * Benchmarks building side pots, with every player going all-in for a
+ * different amount.
+ *
+ * @author Oscar Stigter
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PotBenchmark {
+
+    /** The number of players. */
+    @Param({ "2", "6", "10" })
+    public int noOfPlayers;
+
+    /** The players. */
+    private Player[] players;
+
+    /**
+     * Creates the players.
+     */
+    @Setup
+    public void setUp() {
+        players = new Player[noOfPlayers];
+        for (int i = 0; i < noOfPlayers; i++) {
+            players[i] = new Player("Player " + i, 1000, new DummyBot());
+        }
+    }
+
+    /**
+     * Lets the players contribute increasing all-in amounts, splitting the
+     * pots as the table does.
+     *
+     * @return The pots.
+     */
+    @Benchmark
+    public List<Pot> splitPots() {
+        List<Pot> pots = new ArrayList<Pot>();
+        for (int i = noOfPlayers - 1; i >= 0; i--) {
+            // Contribute in reverse, so each player's all-in splits the pots.
+            int amount = (i + 1) * 100;
+            Player player = players[i];
+            for (Pot pot : pots) {
+                if (amount >= pot.getBet()) {
+                    pot.addContributer(player);
+                    amount -= pot.getBet();
+                } else {
+                    pots.add(pot.split(player, amount));
+                    amount = 0;
+                    break;
+                }
+            }
+            if (amount > 0) {
+                Pot pot = new Pot(amount);
+                pot.addContributer(player);
+                pots.add(pot);
+            }
+        }
+        int total = 0;
+        for (Pot pot : pots) {
+            total += pot.getValue();
+        }
+        return (total > 0) ? pots : null;
+    }
+
+}
@@ -0,0 +1,134 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.Player;
+import org.ozsoft.texasholdem.actions.ActionType;
+import org.ozsoft.texasholdem.bots.DummyBot;
+import org.ozsoft.texasholdem.net.ClientConnector;
+import org.ozsoft.texasholdem.net.NetServer;
+import org.ozsoft.texasholdem.net.RemoteClient;
+
+/**
+ * Benchmarks a remote client over a loopback connection.
+ *
+ * @author Oscar Stigter
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RemoteClientBenchmark {
+
+    /** The number of events sent between two synchronizing act requests. */
+    private static final int EVENTS_PER_ACT = 1000;
+
+    /** The allowed actions. */
+    private static final int ALLOWED_ACTIONS = ActionType.CHECK.getMask() | ActionType.BET.getMask()
+            | ActionType.FOLD.getMask();
+
+    /** The board. */
+    private static final Card[] BOARD = BenchmarkUtils.randomCards(3);
+
+    /** The server. */
+    private NetServer server;
+
+    /** The bot side of the connection. */
+    private ClientConnector connector;
+
+    /** The server side of the connection. */
+    private RemoteClient client;
+
+    /** The player sent with the events. */
+    private Player player;
+
+    /** The number of events sent. */
+    private int noOfEvents;
+
+    /**
+     * Connects a bot over the loopback interface.
+     *
+     * @throws IOException
+     *             If the connection failed.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        server = new NetServer(0);
+        connector = new ClientConnector(new DummyBot());
+        connector.connect("localhost", server.getPort(), "Bot");
+        client = server.accept(10000L);
+        player = new Player("Player", 1000, null);
+        noOfEvents = 0;
+    }
+
+    /**
+     * Disconnects the bot.
+     */
+    @TearDown
+    public void tearDown() {
+        connector.close();
+        server.close();
+    }
+
+    /**
+     * Requests the bot to act and waits for the response (round trip).
+     *
+     * @return The action code.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long act() {
+        return client.act(10, 0, ALLOWED_ACTIONS, BOARD, 30, false);
+    }
+
+    /**
+     * Sends a player update (a single changed field), synchronizing with an
+     * act request every {@link #EVENTS_PER_ACT} events so the measured rate
+     * includes the processing by the bot.
+     *
+     * @return The number of events sent.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int events() {
+        player.setBet(noOfEvents & 0xff);
+        client.playerUpdated(player);
+        if (++noOfEvents % EVENTS_PER_ACT == 0) {
+            client.act(10, 0, ALLOWED_ACTIONS, BOARD, 30, false);
+        }
+        return noOfEvents;
+    }
+
+}
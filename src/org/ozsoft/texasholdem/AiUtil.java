@@ -4,6 +4,7 @@ import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 
+import org.ozsoft.texasholdem.equity.PreflopEquityTable;
 import org.ozsoft.texasholdem.util.PokerUtils;
 
 public class AiUtil {
@@ -12,6 +13,17 @@ public class AiUtil {
 	private static final double flopRate = 0.1; 
 	private static final double riverRate = 0.05; 
 	
+	//Minimum preflop strength (fraction of weaker starting hands) to play or to bet a hand;
+	//the top 52% and 18% of the hands, like the Chen scores 4 and 7 of cutoff(0)
+	private static final double preflopCallStrength = 0.48;
+	private static final double preflopBetStrength = 0.82;
+	
+	//Default capacity of the evaluation cache (number of flop/turn states)
+	public static final int DEFAULT_CACHE_CAPACITY = 100000;
+	
+	//Cache of flopEval/turnEval results, keyed by the canonical hand (null = disabled)
+	private static volatile EvaluationCache cache = new EvaluationCache(DEFAULT_CACHE_CAPACITY, CachePolicy.LRU);
+	
 	public static String printCards(Card[] cards) {
 		String s = "";
 		for (Card c: cards) {
@@ -20,42 +32,62 @@ public class AiUtil {
 		return s;
 	}
 	
+	/**Returns the cache used by eval, flopEval and turnEval (null if disabled)
+	 */
+	public static EvaluationCache getCache() {
+		return cache;
+	}
+	
+	/**Sets the cache used by eval, flopEval and turnEval
+	 * @param evaluationCache: the cache, or null to disable caching
+	 */
+	public static void setCache(EvaluationCache evaluationCache) {
+		cache = evaluationCache;
+	}
+	
 	/**Input: two hole cards and three flop cards
 	 * Output: the expectation of the final value of the current hand
 	 */
 	public static double flopEval(Card[] flopCards) {
-		Hand knownHand = new Hand(flopCards);
-		HandEvaluator knownEval = new HandEvaluator(knownHand);
-		double knownScore = getValue(knownEval);
-		
-		Card[] cards = new Card[7];
-		for (int i=0;i<5;i++) {
-			cards[i] = flopCards[i];
+		long holeCards = getHoleCards(flopCards);
+		return flopEval(holeCards, CardSet.of(flopCards) & ~holeCards);
+	}
+	
+	/**Same as flopEval(Card[]), but based on card sets
+	 * @param holeCards: the two hole cards
+	 * @param board: the three flop cards
+	 */
+	public static double flopEval(long holeCards, long board) {
+		EvaluationCache evaluationCache = cache;
+		if (evaluationCache==null) {
+			return computeFlopEval(holeCards, holeCards | board);
+		}
+		// Suit-isomorphic hands have the same value, so share one entry
+		long key = new CanonicalHand(holeCards, board).getIndex();
+		double score = evaluationCache.get(key);
+		if (Double.isNaN(score)) {
+			score = computeFlopEval(holeCards, holeCards | board);
+			evaluationCache.put(key, score);
 		}
+		return score;
+	}
+	
+	private static double computeFlopEval(long holeCards, long knownCards) {
+		IncrementalHandEvaluator evaluator = new IncrementalHandEvaluator(knownCards);
+		double knownScore = getValue(evaluator.evaluate(), holeCards, knownCards);
+		
 		double futureScore = 0;
 		int count = 0;
-		for (int s1=0; s1<4; s1++) {
-			for (int r1=0; r1<13; r1++){
-				Card new1 = new Card(r1,s1);
-				if (repeat(cards,new1)) {}
-				else {
-					cards[5] = new1;
-					for (int s2=0; s2<4; s2++) {
-						for (int r2=0; r2<13; r2++){
-							Card new2 = new Card(r2,s2);
-							if (repeat(cards,new2)) {}
-							else {
-								cards[6] = new2;
-								Hand testHand = new Hand(cards);
-								HandEvaluator eval = new HandEvaluator(testHand);
-								if (getValue(eval)>knownScore) {
-									futureScore += getValue(eval);
-									count += 1;
-								}
-							}
-						}
-					}
-				}
+		// Every unordered pair of live cards once (same average as all ordered pairs)
+		CardCombinations runouts = new CardCombinations(knownCards, 2);
+		while (runouts.next()) {
+			long runout = runouts.getCards();
+			int card1 = Long.numberOfTrailingZeros(runout);
+			int card2 = 63 - Long.numberOfLeadingZeros(runout);
+			double value = getValue(evaluator.evaluate(card1, card2), holeCards, knownCards | runout);
+			if (value>knownScore) {
+				futureScore += value;
+				count += 1;
 			}
 		}
 		double score = count==0?knownScore:((1-flopRate)*knownScore + flopRate*futureScore/count);
@@ -66,62 +98,75 @@ public class AiUtil {
 	 * Output: the expectation of the final value of the current hand
 	 */
 	public static double turnEval(Card[] flopCards) {
-		Hand knownHand = new Hand(flopCards);
-		HandEvaluator knownEval = new HandEvaluator(knownHand);
-		double knownScore = getValue(knownEval);
-		
-		Card[] cards = new Card[7];
-		for (int i=0;i<6;i++) {
-			cards[i] = flopCards[i];
+		long holeCards = getHoleCards(flopCards);
+		return turnEval(holeCards, CardSet.of(flopCards) & ~holeCards);
+	}
+	
+	/**Same as turnEval(Card[]), but based on card sets
+	 * @param holeCards: the two hole cards
+	 * @param board: the three flop cards and the turn card
+	 */
+	public static double turnEval(long holeCards, long board) {
+		EvaluationCache evaluationCache = cache;
+		if (evaluationCache==null) {
+			return computeTurnEval(holeCards, holeCards | board);
+		}
+		long key = new CanonicalHand(holeCards, board).getIndex();
+		double score = evaluationCache.get(key);
+		if (Double.isNaN(score)) {
+			score = computeTurnEval(holeCards, holeCards | board);
+			evaluationCache.put(key, score);
 		}
+		return score;
+	}
+	
+	private static double computeTurnEval(long holeCards, long knownCards) {
+		IncrementalHandEvaluator evaluator = new IncrementalHandEvaluator(knownCards);
+		double knownScore = getValue(evaluator.evaluate(), holeCards, knownCards);
+		
 		double futureScore = 0;
 		int count = 0;
-		for (int s2=0; s2<4; s2++) {
-			for (int r2=0; r2<13; r2++){
-				Card new2 = new Card(r2,s2);
-				if (repeat(cards,new2)) {}
-				else {
-					cards[6] = new2;
-					Hand testHand = new Hand(cards);
-					HandEvaluator eval = new HandEvaluator(testHand);
-					if (getValue(eval)>knownScore) {
-						futureScore += getValue(eval);
-						count += 1;
-					}
-				}
+		CardCombinations runouts = new CardCombinations(knownCards, 1);
+		while (runouts.next()) {
+			long runout = runouts.getCards();
+			double value = getValue(evaluator.evaluate(Long.numberOfTrailingZeros(runout)), holeCards, knownCards | runout);
+			if (value>knownScore) {
+				futureScore += value;
+				count += 1;
 			}
-		}	
+		}
 		double score = count==0?knownScore:((1-riverRate)*knownScore + riverRate*futureScore/count);
 		return score;
 	}
 	
-	//Check if Card c is in Card[] cards
-	public static boolean repeat(Card[] cards, Card c) {
-		int suit = c.getSuit();
-		int rank = c.getRank();
-		for (Card card:cards) {
-			if ((card!=null)&&card.getSuit()==suit && card.getRank()==rank)
-				return true;
-		}
-		return false;
-	}
-	
 	/**The overall eval function for a hand at pre-flop, flop, turn and river
 	 * @param cards: community cards + hole cards
 	 * @return the evaluated value of the hand
 	 */
 	public static double eval(Card[] cards) {
-		int len = cards.length;
-		if(len==2) {
-			return PokerUtils.getChenScore(cards);
+		if (cards.length<2) {
+			return 0;
+		}
+		long holeCards = getHoleCards(cards);
+		return eval(holeCards, CardSet.of(cards) & ~holeCards);
+	}
+	
+	/**Same as eval(Card[]), but based on card sets
+	 * @param holeCards: the two hole cards
+	 * @param board: the community cards
+	 * @return the evaluated value of the hand
+	 */
+	public static double eval(long holeCards, long board) {
+		int len = CardSet.size(board);
+		if(len==0) {
+			return PokerUtils.getChenScore(getCard(holeCards, 0), getCard(holeCards, 1));
+		} else if(len==3) {
+			return flopEval(holeCards, board);
+		} else if(len==4) {
+			return turnEval(holeCards, board);
 		} else if(len==5) {
-			return flopEval(cards);
-		} else if(len==6) {
-			return turnEval(cards);
-		} else if(len==7) {
-			Hand testHand = new Hand(cards);
-			HandEvaluator eval = new HandEvaluator(testHand);
-			return getValue(eval);
+			long allCards = holeCards | board;
+			return getValue(LookupHandEvaluator.evaluate(allCards), holeCards, allCards);
 		} else {
 			return 0;
 		}
@@ -148,12 +193,24 @@ public class AiUtil {
 	 * @return
 	 */
 	public static int level(Card[] cards) {
+		long holeCards = getHoleCards(cards);
+		return level(holeCards, CardSet.of(cards) & ~holeCards);
+	}
+	
+	/**Same as level(Card[]), but based on card sets
+	 * @param holeCards: the two hole cards
+	 * @param board: the community cards
+	 */
+	public static int level(long holeCards, long board) {
+		if (board==CardSet.EMPTY) {
+			return preflopLevel(holeCards);
+		}
 		double[] w0 = new double[] {0,0,0};
 		double[] w1 = new double[] {0,0,0};
 		Perceptron p1 = new Perceptron(w0[0],new double[] {w0[1],w0[2]});
 		Perceptron p2 = new Perceptron(w1[0],new double[] {w1[1],w1[2]});
-		double whole = eval(cards);
-		double hole = eval(new Card[] {cards[0],cards[1]});
+		double whole = eval(holeCards, board);
+		double hole = eval(holeCards, CardSet.EMPTY);
 		if (p1.Output(new double[] {hole,whole})==0) {
 			return 0;
 		} else if(p2.Output(new double[] {hole,whole})==1) {
@@ -163,6 +220,33 @@ public class AiUtil {
 		}
 	}
 	
+	/**Returns how good two hole cards are according to the preflop equity table
+	 * 0 = bad, 1 = decent, 2 = good
+	 */
+	private static int preflopLevel(long holeCards) {
+		double strength = PreflopEquityTable.getStrength(getCard(holeCards, 0), getCard(holeCards, 1), 1);
+		if (strength>=preflopBetStrength) {
+			return 2;
+		} else if (strength>=preflopCallStrength) {
+			return 1;
+		} else {
+			return 0;
+		}
+	}
+	
+	/**Returns the first two cards (the hole cards) as a card set
+	 */
+	private static long getHoleCards(Card[] cards) {
+		return CardSet.of(cards[0]) | CardSet.of(cards[1]);
+	}
+	
+	/**Returns the lowest (0) or highest (1) card of two hole cards
+	 */
+	private static Card getCard(long holeCards, int which) {
+		int index = which==0 ? Long.numberOfTrailingZeros(holeCards) : 63 - Long.numberOfLeadingZeros(holeCards);
+		return Card.of(index);
+	}
+	
 	public static Perceptron cutoffLearning (String filename) {
 		Perceptron p = new Perceptron(0,new double[] {0,0});
 		try(BufferedReader br = new BufferedReader(new FileReader(filename))) {
@@ -178,7 +262,7 @@ public class AiUtil {
 		    	int y = Integer.parseInt(thisline[len-1]);
 		    	Card[] cards = new Card[len-1];
 		    	for (int j=0; j<len-1; j++) {
-		    		cards[j] = new Card(thisline[j]);
+		    		cards[j] = Card.parse(thisline[j]);
 		    	}
 		    	
 		    	double whole = eval(cards);
@@ -202,13 +286,57 @@ public class AiUtil {
 		return eval.getType().getValue()*eval.containsTopP;
 	}
 	
+	/**Same as getValue(HandEvaluator), but based on a hand value from the LookupHandEvaluator
+	 * @param value: the hand value of all cards
+	 * @param holeCards: the hole cards as a card set
+	 * @param cards: all cards (hole cards included) as a card set
+	 * @return the evaluated value of the hand
+	 */
+	public static double getValue(int value, long holeCards, long cards) {
+		return LookupHandEvaluator.getType(value).getValue()*containsTopPair(holeCards, cards);
+	}
+	
+	/**Returns 2 if the hole cards make the top pair (or the triple) of the hand, otherwise 1
+	 * Same as HandEvaluator.containsTopP, but computed from card sets
+	 */
+	private static int containsTopPair(long holeCards, long cards) {
+		int holeRanks = 0;
+		for (long mask = holeCards; mask != 0; mask &= mask - 1) {
+			holeRanks |= 1 << (Long.numberOfTrailingZeros(mask) / Card.NO_OF_SUITS);
+		}
+		int pairRanks = 0;
+		int tripleRanks = 0;
+		int otherRanks = 0;
+		for (int rank=0; rank<Card.NO_OF_RANKS; rank++) {
+			int count = Long.bitCount((cards >>> (rank * Card.NO_OF_SUITS)) & 0xF);
+			if (count==2) {
+				pairRanks |= 1 << rank;
+			} else if (count==3) {
+				tripleRanks |= 1 << rank;
+			}
+			if (count>0 && (holeRanks & (1 << rank))==0) {
+				otherRanks |= 1 << rank;
+			}
+		}
+		// A second (lower) triple counts as a pair
+		int tripleRank = Integer.highestOneBit(tripleRanks);
+		pairRanks |= tripleRanks & ~tripleRank;
+		if (pairRanks!=0) {
+			// Top pair: one of the hole cards, and no higher card on the board
+			int pairRank = Integer.highestOneBit(pairRanks);
+			return ((holeRanks & pairRank)!=0 && otherRanks<(pairRank << 1)) ? 2 : 1;
+		} else {
+			return (holeRanks & tripleRank)!=0 ? 2 : 1;
+		}
+	}
+	
 	public static void main(String args[]) {
 		Card[] cards = new Card [5];
-		cards[0] = new Card("Ts");
-		cards[1] = new Card("Tc");
-		cards[2] = new Card("As");
-		cards[3] = new Card("Ac");
-		cards[4] = new Card("4d");
+		cards[0] = Card.parse("Ts");
+		cards[1] = Card.parse("Tc");
+		cards[2] = Card.parse("As");
+		cards[3] = Card.parse("Ac");
+		cards[4] = Card.parse("4d");
 		
 		System.out.printf("flop score: %.4f\n",flopEval(cards));
 		Hand testHand = new Hand(cards);
@@ -219,7 +347,7 @@ public class AiUtil {
 		for (int i=0; i<5; i++) {
 			cards2[i] = cards[i];
 		}
-		cards2[5] = new Card("2s");
+		cards2[5] = Card.parse("2s");
 		
 		//System.out.printf("turn score: %.4f\n",turnEval(cards2));
 		Perceptron haha = cutoffLearning("ShortStack_data12.txt");
@@ -0,0 +1,274 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.ozsoft.texasholdem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.ozsoft.texasholdem.bots.AiBot;
+import org.ozsoft.texasholdem.bots.DummyBot;
+import org.ozsoft.texasholdem.util.SplitMixRandom;
+
+/**
+ * Headless arena playing a number of hands between bots. <br />
+ * <br />
+ *
+ * The hands are played on a regular {@link Table}, but without GUI, hand log
+ * or console output, so millions of hands can be played in minutes. Each hand
+ * is played as a cash game hand: before every hand all players get their
+ * starting cash back, and the amount won or lost is recorded in big blinds.
+ * The dealer button rotates as usual, and the cards are shuffled with a fast
+ * simulation random number generator. <br />
+ * <br />
+ *
+ * Example:
+ *
+ * <pre>
+ * Arena arena = new Arena(TableType.FIXED_LIMIT, 10, 1000);
+ * arena.addBot("Ai", new AiBot(25, 25));
+ * arena.addBot("Dummy", new DummyBot());
+ * ArenaResult result = arena.run(1000000L);
+ * </pre>
+ *
+ * @author Oscar Stigter
+ */
+public class Arena {
+
+    /** The default number of hands. */
+    private static final long DEFAULT_NO_OF_HANDS = 100000L;
+
+    /** The default size of the big blind. */
+    private static final int DEFAULT_BIG_BLIND = 10;
+
+    /** The default starting cash per hand (100 big blinds). */
+    private static final int DEFAULT_STARTING_CASH = 100 * DEFAULT_BIG_BLIND;
+
+    /** Table type (betting structure). */
+    private final TableType tableType;
+
+    /** The size of the big blind. */
+    private final int bigBlind;
+
+    /** The starting cash per player per hand. */
+    private final int startingCash;
+
+    /** The players. */
+    private final List<Player> players;
+
+    /** The spectators. */
+    private final List<Client> spectators;
+
+    /** Whether the hands are dealt from a seed. */
+    private boolean seeded;
+
+    /** The seed. */
+    private long seed;
+
+    /** The time limit per decision in milliseconds (0 for none). */
+    private long actionTimeout = 0L;
+
+    /** The time bank per player in milliseconds. */
+    private long timeBank = 0L;
+
+    /**
+     * Constructor.
+     *
+     * @param tableType
+     *            The table type (betting structure).
+     * @param bigBlind
+     *            The size of the big blind.
+     * @param startingCash
+     *            The starting cash per player per hand.
+     *
+     * @throws IllegalArgumentException
+     *             If the table type is null, the big blind is not positive, or
+     *             the starting cash is less than the big blind.
+     */
+    public Arena(TableType tableType, int bigBlind, int startingCash) {
+        if (tableType == null) {
+            throw new IllegalArgumentException("Null table type");
+        }
+        if (bigBlind < 2) {
+            throw new IllegalArgumentException("Invalid big blind: " + bigBlind);
+        }
+        if (startingCash < bigBlind) {
+            throw new IllegalArgumentException("Invalid starting cash: " + startingCash);
+        }
+        this.tableType = tableType;
+        this.bigBlind = bigBlind;
+        this.startingCash = startingCash;
+        players = new ArrayList<Player>();
+        spectators = new ArrayList<Client>();
+    }
+
+    /**
+     * Makes the runs reproducible: hand <i>n</i> of every run is dealt from
+     * seed <code>seed + n</code> (see {@link Table#setSeed(long)}). Also useful
+     * to play two bots against the same cards.
+     *
+     * @param seed
+     *            The seed.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        seeded = true;
+    }
+
+    /**
+     * Limits the time per decision (see
+     * {@link Table#setTimeLimits(long, long)}), so a slow or hung bot cannot
+     * stall the match.
+     *
+     * @param actionTimeout
+     *            The time limit per decision in milliseconds, or 0 for no
+     *            limit.
+     * @param timeBank
+     *            The time bank per player in milliseconds.
+     *
+     * @throws IllegalArgumentException
+     *             If the time limit or time bank is negative.
+     */
+    public void setTimeLimits(long actionTimeout, long timeBank) {
+        if (actionTimeout < 0L) {
+            throw new IllegalArgumentException("Invalid action timeout: " + actionTimeout);
+        }
+        if (timeBank < 0L) {
+            throw new IllegalArgumentException("Invalid time bank: " + timeBank);
+        }
+        this.actionTimeout = actionTimeout;
+        this.timeBank = timeBank;
+    }
+
+    /**
+     * Adds a bot (or any other client that does not block).
+     *
+     * @param name
+     *            The player's name.
+     * @param client
+     *            The client.
+     *
+     * @throws IllegalArgumentException
+     *             If the name or client is null.
+     */
+    public void addBot(String name, Client client) {
+        if (name == null) {
+            throw new IllegalArgumentException("Null name");
+        }
+        if (client == null) {
+            throw new IllegalArgumentException("Null client");
+        }
+        players.add(new Player(name, startingCash, client));
+    }
+
+    /**
+     * Adds a spectator, e.g. a logger or a GUI. A spectator that is slower
+     * than the bots should be wrapped in an {@link AsyncClient}.
+     *
+     * @param spectator
+     *            The spectator.
+     *
+     * @throws IllegalArgumentException
+     *             If the spectator is null.
+     */
+    public void addSpectator(Client spectator) {
+        if (spectator == null) {
+            throw new IllegalArgumentException("Null spectator");
+        }
+        spectators.add(spectator);
+    }
+
+    /**
+     * Plays a number of hands.
+     *
+     * @param noOfHands
+     *            The number of hands.
+     *
+     * @return The result.
+     *
+     * @throws IllegalArgumentException
+     *             If the number of hands is negative.
+     * @throws IllegalStateException
+     *             If there are less than two players.
+     */
+    public ArenaResult run(long noOfHands) {
+        if (noOfHands < 0L) {
+            throw new IllegalArgumentException("Invalid number of hands: " + noOfHands);
+        }
+        int noOfPlayers = players.size();
+        if (noOfPlayers < 2) {
+            throw new IllegalStateException("At least two players required");
+        }
+
+        Table table = new Table(tableType, bigBlind);
+        table.setTimeLimits(actionTimeout, timeBank);
+        String[] names = new String[noOfPlayers];
+        int[] timeouts = new int[noOfPlayers];
+        for (int i = 0; i < noOfPlayers; i++) {
+            Player player = players.get(i);
+            player.setCash(startingCash);
+            table.addPlayer(player);
+            names[i] = player.getName();
+            timeouts[i] = -player.getNoOfTimeouts();
+        }
+        for (Client spectator : spectators) {
+            table.addSpectator(spectator);
+        }
+        // Fast shuffles; reproducible if a seed was set.
+        table.setSeed(seeded ? seed : new SplitMixRandom().nextLong());
+        table.start(null);
+
+        double[] totals = new double[noOfPlayers];
+        double[] sumsOfSquares = new double[noOfPlayers];
+        long startTime = System.nanoTime();
+        for (long hand = 0L; hand < noOfHands; hand++) {
+            table.playHand();
+            for (int i = 0; i < noOfPlayers; i++) {
+                Player player = players.get(i);
+                double won = (double) (player.getCash() - startingCash) / bigBlind;
+                totals[i] += won;
+                sumsOfSquares[i] += won * won;
+                player.setCash(startingCash);
+            }
+        }
+        long duration = System.nanoTime() - startTime;
+        for (int i = 0; i < noOfPlayers; i++) {
+            timeouts[i] += players.get(i).getNoOfTimeouts();
+        }
+        return new ArenaResult(names, noOfHands, duration, totals, sumsOfSquares, timeouts);
+    }
+
+    /**
+     * The application's entry point. <br />
+     * <br />
+     *
+     * Plays a Heads Up match between the AI bot and the dummy bot.
+     *
+     * @param args
+     *            The command line arguments: the number of hands (optional).
+     */
+    public static void main(String[] args) {
+        long noOfHands = (args.length > 0) ? Long.parseLong(args[0]) : DEFAULT_NO_OF_HANDS;
+        Arena arena = new Arena(TableType.FIXED_LIMIT, DEFAULT_BIG_BLIND, DEFAULT_STARTING_CASH);
+        arena.addBot("Ai", new AiBot(25, 25));
+        arena.addBot("Dummy", new DummyBot());
+        ArenaResult result = arena.run(noOfHands);
+        System.out.println(result);
+    }
+
+}
@@ -0,0 +1,206 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.ozsoft.texasholdem;
+
+/**
+ * The result of an {@link Arena} run. <br />
+ * <br />
+ *
+ * For each player the amount won per hand is measured in big blinds; the
+ * results are reported as the win rate in big blinds per 100 hands (bb/100)
+ * together with the variance, so the significance of a difference between
+ * two bots can be judged. The players are indexed in the order in which they
+ * were added to the arena.
+ *
+ * @author Oscar Stigter
+ */
+public class ArenaResult {
+
+    /** The player names. */
+    private final String[] names;
+
+    /** The number of hands played. */
+    private final long noOfHands;
+
+    /** The duration in nanoseconds. */
+    private final long duration;
+
+    /** The total amount won per player, in big blinds. */
+    private final double[] totals;
+
+    /** The sum of the squared amounts won per hand per player. */
+    private final double[] sumsOfSquares;
+
+    /** The number of decisions that timed out per player. */
+    private final int[] timeouts;
+
+    /**
+     * Constructor.
+     *
+     * @param names
+     *            The player names.
+     * @param noOfHands
+     *            The number of hands played.
+     * @param duration
+     *            The duration in nanoseconds.
+     * @param totals
+     *            The total amount won per player, in big blinds.
+     * @param sumsOfSquares
+     *            The sum of the squared amounts won per hand per player.
+     * @param timeouts
+     *            The number of decisions that timed out per player.
+     */
+    /* package */ ArenaResult(String[] names, long noOfHands, long duration, double[] totals, double[] sumsOfSquares,
+            int[] timeouts) {
+        this.names = names;
+        this.noOfHands = noOfHands;
+        this.duration = duration;
+        this.totals = totals;
+        this.sumsOfSquares = sumsOfSquares;
+        this.timeouts = timeouts;
+    }
+
+    /**
+     * Returns the number of players.
+     *
+     * @return The number of players.
+     */
+    public int getNoOfPlayers() {
+        return names.length;
+    }
+
+    /**
+     * Returns the name of a player.
+     *
+     * @param player
+     *            The player index.
+     *
+     * @return The name.
+     */
+    public String getName(int player) {
+        return names[player];
+    }
+
+    /**
+     * Returns the number of hands played.
+     *
+     * @return The number of hands.
+     */
+    public long getNoOfHands() {
+        return noOfHands;
+    }
+
+    /**
+     * Returns the duration of the run.
+     *
+     * @return The duration in milliseconds.
+     */
+    public long getDuration() {
+        return duration / 1000000L;
+    }
+
+    /**
+     * Returns the number of hands played per second.
+     *
+     * @return The number of hands per second.
+     */
+    public double getHandsPerSecond() {
+        return (duration > 0L) ? noOfHands * 1.0e9 / duration : 0.0;
+    }
+
+    /**
+     * Returns the win rate of a player.
+     *
+     * @param player
+     *            The player index.
+     *
+     * @return The win rate in big blinds per 100 hands.
+     */
+    public double getBigBlindsPer100(int player) {
+        return (noOfHands > 0L) ? totals[player] * 100.0 / noOfHands : 0.0;
+    }
+
+    /**
+     * Returns the variance of the amount a player wins per hand.
+     *
+     * @param player
+     *            The player index.
+     *
+     * @return The variance in big blinds squared per hand.
+     */
+    public double getVariance(int player) {
+        if (noOfHands < 2L) {
+            return 0.0;
+        }
+        double variance = (sumsOfSquares[player] - totals[player] * totals[player] / noOfHands) / (noOfHands - 1L);
+        return Math.max(variance, 0.0);
+    }
+
+    /**
+     * Returns the standard deviation of a player's results over 100 hands.
+     *
+     * @param player
+     *            The player index.
+     *
+     * @return The standard deviation in big blinds per 100 hands.
+     */
+    public double getStandardDeviation(int player) {
+        return Math.sqrt(getVariance(player) * 100.0);
+    }
+
+    /**
+     * Returns the standard error of a player's win rate.
+     *
+     * @param player
+     *            The player index.
+     *
+     * @return The standard error in big blinds per 100 hands.
+     */
+    public double getStandardError(int player) {
+        return (noOfHands > 0L) ? Math.sqrt(getVariance(player) / noOfHands) * 100.0 : 0.0;
+    }
+
+    /**
+     * Returns the number of decisions of a player that timed out.
+     *
+     * @param player
+     *            The player's index.
+     *
+     * @return The number of timeouts.
+     */
+    public int getNoOfTimeouts(int player) {
+        return timeouts[player];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d hands in %d ms (%.0f hands/s)", noOfHands, getDuration(), getHandsPerSecond()));
+        for (int i = 0; i < names.length; i++) {
+            sb.append(String.format(", %s: %.2f bb/100 (+/- %.2f, SD %.1f bb/100)", names[i], getBigBlindsPer100(i),
+                    getStandardError(i), getStandardDeviation(i)));
+            if (timeouts[i] > 0) {
+                sb.append(String.format(" [%d timeouts]", timeouts[i]));
+            }
+        }
+        return sb.toString();
+    }
+
+}
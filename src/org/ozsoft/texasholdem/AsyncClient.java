@@ -0,0 +1,538 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.ozsoft.texasholdem.actions.Action;
+
+/**
+ * Client decorator delivering the table events asynchronously, so a slow
+ * client (e.g. a spectator, logger or GUI) never stalls the table. <br />
+ * <br />
+ * 
+ * All events are put in a bounded mailbox, which is drained by a dedicated
+ * thread calling the wrapped client. When the mailbox is full, the
+ * {@link BackpressurePolicy} decides whether the table blocks, or older
+ * informational events are coalesced or dropped. The events that start a
+ * hand or join a table are never dropped. <br />
+ * <br />
+ * 
+ * Requests to act remain synchronous: {@link #act} first waits until all
+ * pending events have been delivered, so the client always decides on an
+ * up-to-date view of the table. <br />
+ * <br />
+ * 
+ * The players and cards passed with an event are delivered as read-only
+ * snapshots (see {@link Player#getPrivateSnapshot()}), so a delayed event
+ * still shows the state at the time of the event.
+ * 
+ * @author Oscar Stigter
+ */
+public class AsyncClient implements Client {
+    
+    /** The default mailbox capacity. */
+    public static final int DEFAULT_CAPACITY = 256;
+    
+    /** Event type: message received. */
+    private static final int MESSAGE_RECEIVED = 0;
+    
+    /** Event type: joined table. */
+    private static final int JOINED_TABLE = 1;
+    
+    /** Event type: hand started. */
+    private static final int HAND_STARTED = 2;
+    
+    /** Event type: actor rotated. */
+    private static final int ACTOR_ROTATED = 3;
+    
+    /** Event type: player updated. */
+    private static final int PLAYER_UPDATED = 4;
+    
+    /** Event type: board updated. */
+    private static final int BOARD_UPDATED = 5;
+    
+    /** Event type: player acted. */
+    private static final int PLAYER_ACTED = 6;
+    
+    /** The number of the next delivery thread. */
+    private static final AtomicInteger threadNumber = new AtomicInteger(1);
+    
+    /** The wrapped client. */
+    private final Client client;
+    
+    /** The maximum number of pending events. */
+    private final int capacity;
+    
+    /** The policy for a full mailbox. */
+    private final BackpressurePolicy policy;
+    
+    /** The pending events (oldest first). */
+    private final LinkedList<Event> mailbox;
+    
+    /** The delivery thread. */
+    private final Thread thread;
+    
+    /** Whether an event is being delivered. */
+    private boolean isDelivering = false;
+    
+    /** Whether the client is closed. */
+    private boolean isClosed = false;
+    
+    /** The number of coalesced events. */
+    private long coalescedEvents = 0L;
+    
+    /** The number of dropped events. */
+    private long droppedEvents = 0L;
+    
+    /**
+     * Constructor with the default capacity, blocking when full.
+     * 
+     * @param client
+     *            The client to deliver the events to.
+     */
+    public AsyncClient(Client client) {
+        this(client, DEFAULT_CAPACITY, BackpressurePolicy.BLOCK);
+    }
+    
+    /**
+     * Constructor with a daemon delivery thread.
+     * 
+     * @param client
+     *            The client to deliver the events to.
+     * @param capacity
+     *            The maximum number of pending events.
+     * @param policy
+     *            The policy for a full mailbox.
+     */
+    public AsyncClient(Client client, int capacity, BackpressurePolicy policy) {
+        this(client, capacity, policy, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "AsyncClient-" + threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+    
+    /**
+     * Constructor with a specific factory for the delivery thread, e.g. for
+     * virtual threads.
+     * 
+     * @param client
+     *            The client to deliver the events to.
+     * @param capacity
+     *            The maximum number of pending events.
+     * @param policy
+     *            The policy for a full mailbox.
+     * @param threadFactory
+     *            The factory for the delivery thread.
+     * 
+     * @throws IllegalArgumentException
+     *             If the client, policy or thread factory is null, or the
+     *             capacity is not positive.
+     */
+    public AsyncClient(Client client, int capacity, BackpressurePolicy policy, ThreadFactory threadFactory) {
+        if (client == null) {
+            throw new IllegalArgumentException("Null client");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("Null policy");
+        }
+        if (threadFactory == null) {
+            throw new IllegalArgumentException("Null thread factory");
+        }
+        this.client = client;
+        this.capacity = capacity;
+        this.policy = policy;
+        mailbox = new LinkedList<Event>();
+        thread = threadFactory.newThread(new Runnable() {
+            @Override
+            public void run() {
+                deliverEvents();
+            }
+        });
+        thread.start();
+    }
+    
+    /**
+     * Returns the wrapped client.
+     * 
+     * @return The wrapped client.
+     */
+    public Client getClient() {
+        return client;
+    }
+    
+    /**
+     * Returns the maximum number of pending events.
+     * 
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    /**
+     * Returns the policy for a full mailbox.
+     * 
+     * @return The policy.
+     */
+    public BackpressurePolicy getPolicy() {
+        return policy;
+    }
+    
+    /**
+     * Returns the number of pending events.
+     * 
+     * @return The number of pending events.
+     */
+    public synchronized int getNoOfPendingEvents() {
+        return mailbox.size();
+    }
+    
+    /**
+     * Returns the number of events replaced by a newer event.
+     * 
+     * @return The number of coalesced events.
+     */
+    public synchronized long getNoOfCoalescedEvents() {
+        return coalescedEvents;
+    }
+    
+    /**
+     * Returns the number of events dropped because the mailbox was full.
+     * 
+     * @return The number of dropped events.
+     */
+    public synchronized long getNoOfDroppedEvents() {
+        return droppedEvents;
+    }
+    
+    /**
+     * Waits until all pending events have been delivered.
+     * 
+     * @throws IllegalStateException
+     *             If interrupted while waiting.
+     */
+    public synchronized void flush() {
+        while (isDelivering || !mailbox.isEmpty()) {
+            await();
+        }
+    }
+    
+    /**
+     * Closes this client. The pending events are still delivered, after which
+     * the delivery thread ends; new events are ignored.
+     */
+    public synchronized void close() {
+        isClosed = true;
+        notifyAll();
+    }
+    
+    /**
+     * Indicates whether this client is closed.
+     * 
+     * @return True if closed, otherwise false.
+     */
+    public synchronized boolean isClosed() {
+        return isClosed;
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public void messageReceived(final String message) {
+        post(new Event(MESSAGE_RECEIVED, null) {
+            @Override
+            public void deliver() {
+                client.messageReceived(message);
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void joinedTable(final TableType type, final int bigBlind, List<Player> players) {
+        final List<Player> playersCopy = new ArrayList<Player>(players.size());
+        for (Player player : players) {
+            playersCopy.add(player.getPrivateSnapshot());
+        }
+        post(new Event(JOINED_TABLE, null) {
+            @Override
+            public void deliver() {
+                client.joinedTable(type, bigBlind, playersCopy);
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void handStarted(Player dealer) {
+        final Player snapshot = dealer.getPrivateSnapshot();
+        post(new Event(HAND_STARTED, null) {
+            @Override
+            public void deliver() {
+                client.handStarted(snapshot);
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void actorRotated(Player actor) {
+        final Player snapshot = actor.getPrivateSnapshot();
+        post(new Event(ACTOR_ROTATED, null) {
+            @Override
+            public void deliver() {
+                client.actorRotated(snapshot);
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void playerUpdated(Player player) {
+        final Player snapshot = player.getPrivateSnapshot();
+        post(new Event(PLAYER_UPDATED, player.getName()) {
+            @Override
+            public void deliver() {
+                client.playerUpdated(snapshot);
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void boardUpdated(List<Card> cards, final int bet, final int pot) {
+        final List<Card> cardsCopy = new ArrayList<Card>(cards);
+        post(new Event(BOARD_UPDATED, null) {
+            @Override
+            public void deliver() {
+                client.boardUpdated(cardsCopy, bet, pot);
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void playerActed(Player player) {
+        final Player snapshot = player.getPrivateSnapshot();
+        post(new Event(PLAYER_ACTED, null) {
+            @Override
+            public void deliver() {
+                client.playerActed(snapshot);
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Action act(int minBet, int currentBet, Set<Action> allowedActions, Card[] commuCards, int pot, boolean dealer) {
+        flush();
+        return client.act(minBet, currentBet, allowedActions, commuCards, pot, dealer);
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public long act(int minBet, int currentBet, int allowedActions, Card[] commuCards, int pot, boolean dealer) {
+        flush();
+        return client.act(minBet, currentBet, allowedActions, commuCards, pot, dealer);
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public long act(GameState state) {
+        flush();
+        return client.act(state);
+    }
+    
+    /**
+     * Puts an event in the mailbox, applying the backpressure policy.
+     * 
+     * @param event
+     *            The event.
+     * 
+     * @throws IllegalStateException
+     *             If interrupted while waiting for space in the mailbox.
+     */
+    private synchronized void post(Event event) {
+        if (isClosed) {
+            return;
+        }
+        if (policy == BackpressurePolicy.COALESCE && event.isCoalescable() && removePending(event)) {
+            coalescedEvents++;
+        } else if (mailbox.size() >= capacity && policy != BackpressurePolicy.BLOCK && removeOldestDroppable()) {
+            droppedEvents++;
+        }
+        while (mailbox.size() >= capacity) {
+            await();
+        }
+        mailbox.addLast(event);
+        notifyAll();
+    }
+    
+    /**
+     * Removes a pending event with the same type and player as another event.
+     * 
+     * @param event
+     *            The other event.
+     * 
+     * @return True if an event was removed, otherwise false.
+     */
+    private boolean removePending(Event event) {
+        Iterator<Event> it = mailbox.iterator();
+        while (it.hasNext()) {
+            Event pending = it.next();
+            if (pending.type == event.type
+                    && (pending.playerName == null ? event.playerName == null : pending.playerName.equals(event.playerName))) {
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Removes the oldest pending event that may be dropped.
+     * 
+     * @return True if an event was removed, otherwise false.
+     */
+    private boolean removeOldestDroppable() {
+        Iterator<Event> it = mailbox.iterator();
+        while (it.hasNext()) {
+            if (it.next().isDroppable()) {
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Waits for a change of the mailbox. Must be called while holding the
+     * lock.
+     * 
+     * @throws IllegalStateException
+     *             If interrupted while waiting.
+     */
+    private void await() {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for client", e);
+        }
+    }
+    
+    /**
+     * Delivers the events to the wrapped client until closed (executed by the
+     * delivery thread).
+     */
+    private void deliverEvents() {
+        while (true) {
+            Event event;
+            synchronized (this) {
+                while (mailbox.isEmpty() && !isClosed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        // Ignore.
+                    }
+                }
+                if (mailbox.isEmpty()) {
+                    return;
+                }
+                event = mailbox.removeFirst();
+                isDelivering = true;
+                notifyAll();
+            }
+            try {
+                event.deliver();
+            } catch (RuntimeException e) {
+                // Keep delivering; a failing client must not block the table.
+                e.printStackTrace();
+            } finally {
+                synchronized (this) {
+                    isDelivering = false;
+                    notifyAll();
+                }
+            }
+        }
+    }
+    
+    /**
+     * A pending event.
+     */
+    private static abstract class Event {
+        
+        /** The event type. */
+        private final int type;
+        
+        /** The name of the updated player, or null if not a player update. */
+        private final String playerName;
+        
+        /**
+         * Constructor.
+         * 
+         * @param type
+         *            The event type.
+         * @param playerName
+         *            The name of the updated player, or null.
+         */
+        public Event(int type, String playerName) {
+            this.type = type;
+            this.playerName = playerName;
+        }
+        
+        /**
+         * Indicates whether this event may be replaced by a newer event of
+         * the same type and player.
+         * 
+         * @return True if coalescable, otherwise false.
+         */
+        public boolean isCoalescable() {
+            return type == PLAYER_UPDATED || type == BOARD_UPDATED;
+        }
+        
+        /**
+         * Indicates whether this event is informational and may be dropped.
+         * 
+         * @return True if droppable, otherwise false.
+         */
+        public boolean isDroppable() {
+            return type != JOINED_TABLE && type != HAND_STARTED;
+        }
+        
+        /**
+         * Delivers this event to the wrapped client.
+         */
+        public abstract void deliver();
+        
+    }
+    
+}
@@ -0,0 +1,63 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+/**
+ * Policies of an {@link AsyncClient} for a full mailbox.
+ * 
+ * @author Oscar Stigter
+ */
+public enum BackpressurePolicy {
+    
+    /** Blocks the table until the client has caught up; never loses events. */
+    BLOCK("Block"),
+    
+    /**
+     * Replaces a pending update of the board or of the same player by the
+     * newer one, dropping the oldest informational event if still full.
+     */
+    COALESCE("Coalesce"),
+    
+    /** Drops the oldest pending informational event. */
+    DROP_OLDEST("Drop oldest"),
+    
+    ;
+    
+    /** Display name. */
+    private String name;
+    
+    /**
+     * Constructor.
+     * 
+     * @param name
+     *            The display name.
+     */
+    BackpressurePolicy(String name) {
+        this.name = name;
+    }
+    
+    /**
+     * Returns the display name.
+     * 
+     * @return The display name.
+     */
+    public String getName() {
+        return name;
+    }
+
+}
@@ -0,0 +1,332 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+/**
+ * Hole cards and board in canonical form under suit permutation. <br />
+ * <br />
+ *
+ * Suits are strategically equivalent, so hands that only differ by a
+ * renaming of the suits (e.g. AhKh on 2h7cJs and AsKs on 2s7dJc) have the
+ * same value, equity, etc. Such hands get the same canonical form and index,
+ * so expensive per-hand results can be computed once per equivalence class:
+ * the 22,100 flops collapse to 1,755 classes, and hole cards plus flop to
+ * 1,286,792 classes. <br />
+ * <br />
+ *
+ * The canonical form is found by sorting the suits by the ranks of their hole
+ * cards, then by the ranks of their board cards; the suit with the most
+ * significant cards becomes Spades, the next Hearts, etc. The permutation
+ * used is kept, so results that depend on specific suits can be mapped back.
+ * <br />
+ * <br />
+ *
+ * <b>NOTE:</b> This class is implemented with the focus on performance (instead of clean design).
+ *
+ * @author Oscar Stigter
+ */
+public class CanonicalHand {
+
+    /** The maximum number of hole cards. */
+    public static final int MAX_NO_OF_HOLE_CARDS = 2;
+
+    /** The number of bits per hole card in the index. */
+    private static final int HOLE_CARD_BITS = 6;
+
+    /** The canonical hole cards as a card set. */
+    private final long holeCards;
+
+    /** The canonical board as a card set. */
+    private final long board;
+
+    /** The canonical suit per original suit. */
+    private final int[] suits;
+
+    /**
+     * Constructor based on the hole cards followed by the board cards, as used
+     * by {@link AiUtil}.
+     *
+     * @param cards
+     *            The two hole cards followed by the board cards.
+     *
+     * @throws IllegalArgumentException
+     *             If there are less than two cards or duplicate cards.
+     */
+    public CanonicalHand(Card[] cards) {
+        this(getHoleCards(cards), getBoard(cards));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param holeCards
+     *            The hole cards (at most 2).
+     * @param board
+     *            The board cards.
+     *
+     * @throws IllegalArgumentException
+     *             If there are too many hole cards or duplicate cards.
+     */
+    public CanonicalHand(Card[] holeCards, Card[] board) {
+        this(CardSet.of(holeCards), CardSet.of(board));
+        if (CardSet.size(this.holeCards) != holeCards.length || CardSet.size(this.board) != board.length) {
+            throw new IllegalArgumentException("Duplicate cards");
+        }
+    }
+
+    /**
+     * Constructor based on card sets.
+     *
+     * @param holeCards
+     *            The hole cards (at most 2).
+     * @param board
+     *            The board cards.
+     *
+     * @throws IllegalArgumentException
+     *             If there are too many hole cards, or if the hole cards and
+     *             board overlap.
+     */
+    public CanonicalHand(long holeCards, long board) {
+        if (CardSet.size(holeCards) > MAX_NO_OF_HOLE_CARDS) {
+            throw new IllegalArgumentException("Too many hole cards");
+        }
+        if ((holeCards & board) != 0L) {
+            throw new IllegalArgumentException("Duplicate cards");
+        }
+
+        // Signature per suit: the hole card ranks, then the board ranks.
+        int[] signatures = new int[Card.NO_OF_SUITS];
+        for (long mask = holeCards; mask != 0L; mask &= mask - 1L) {
+            int card = Long.numberOfTrailingZeros(mask);
+            signatures[card & 3] |= 1 << (card / Card.NO_OF_SUITS + Card.NO_OF_RANKS);
+        }
+        for (long mask = board; mask != 0L; mask &= mask - 1L) {
+            int card = Long.numberOfTrailingZeros(mask);
+            signatures[card & 3] |= 1 << (card / Card.NO_OF_SUITS);
+        }
+
+        // Sort the suits by descending signature (insertion sort).
+        int[] order = { 0, 1, 2, 3 };
+        for (int i = 1; i < Card.NO_OF_SUITS; i++) {
+            int suit = order[i];
+            int j = i - 1;
+            while (j >= 0 && signatures[order[j]] < signatures[suit]) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = suit;
+        }
+
+        suits = new int[Card.NO_OF_SUITS];
+        for (int i = 0; i < Card.NO_OF_SUITS; i++) {
+            suits[order[i]] = Card.NO_OF_SUITS - 1 - i;
+        }
+        this.holeCards = permute(holeCards, suits);
+        this.board = permute(board, suits);
+    }
+
+    /**
+     * Returns the canonical index, which is equal for all hands in the same
+     * equivalence class and different for all others. <br />
+     * <br />
+     *
+     * The lower 52 bits hold the canonical board, the upper 12 bits the
+     * canonical hole cards (6 bits per card, 0 for none).
+     *
+     * @return The canonical index.
+     */
+    public long getIndex() {
+        long index = board;
+        int shift = CardSet.NO_OF_CARDS;
+        for (long mask = holeCards; mask != 0L; mask &= mask - 1L) {
+            index |= (long) (Long.numberOfTrailingZeros(mask) + 1) << shift;
+            shift += HOLE_CARD_BITS;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the canonical hole cards.
+     *
+     * @return The canonical hole cards as a card set.
+     */
+    public long getHoleCards() {
+        return holeCards;
+    }
+
+    /**
+     * Returns the canonical board.
+     *
+     * @return The canonical board as a card set.
+     */
+    public long getBoard() {
+        return board;
+    }
+
+    /**
+     * Returns the canonical cards in the order used by {@link AiUtil}: the
+     * hole cards (highest first), followed by the board cards (highest
+     * first).
+     *
+     * @return The canonical cards.
+     */
+    public Card[] getCards() {
+        Card[] hole = CardSet.toCards(holeCards);
+        Card[] boardCards = CardSet.toCards(board);
+        Card[] cards = new Card[hole.length + boardCards.length];
+        System.arraycopy(hole, 0, cards, 0, hole.length);
+        System.arraycopy(boardCards, 0, cards, hole.length, boardCards.length);
+        return cards;
+    }
+
+    /**
+     * Returns the canonical suit of an original suit.
+     *
+     * @param suit
+     *            The original suit.
+     *
+     * @return The canonical suit.
+     */
+    public int getCanonicalSuit(int suit) {
+        return suits[suit];
+    }
+
+    /**
+     * Returns the original suit of a canonical suit.
+     *
+     * @param suit
+     *            The canonical suit.
+     *
+     * @return The original suit.
+     */
+    public int getOriginalSuit(int suit) {
+        for (int i = 0; i < Card.NO_OF_SUITS; i++) {
+            if (suits[i] == suit) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Invalid suit: " + suit);
+    }
+
+    /**
+     * Returns the canonical form of an original card.
+     *
+     * @param card
+     *            The original card.
+     *
+     * @return The canonical card.
+     */
+    public Card toCanonical(Card card) {
+        return Card.of(card.getRank(), suits[card.getSuit()]);
+    }
+
+    /**
+     * Returns the original form of a canonical card.
+     *
+     * @param card
+     *            The canonical card.
+     *
+     * @return The original card.
+     */
+    public Card toOriginal(Card card) {
+        return Card.of(card.getRank(), getOriginalSuit(card.getSuit()));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int hashCode() {
+        long index = getIndex();
+        return (int) (index ^ (index >>> 32));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof CanonicalHand) {
+            CanonicalHand hand = (CanonicalHand) obj;
+            return holeCards == hand.holeCards && board == hand.board;
+        } else {
+            return false;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return CardSet.toString(holeCards) + " | " + CardSet.toString(board);
+    }
+
+    /**
+     * Returns a card set with the suits permuted.
+     *
+     * @param mask
+     *            The card set.
+     * @param suits
+     *            The new suit per suit.
+     *
+     * @return The permuted card set.
+     */
+    private static long permute(long mask, int[] suits) {
+        long permuted = CardSet.EMPTY;
+        for (int suit = 0; suit < Card.NO_OF_SUITS; suit++) {
+            long suitCards = (mask >>> suit) & CardSet.SUIT_MASK;
+            permuted |= suitCards << suits[suit];
+        }
+        return permuted;
+    }
+
+    /**
+     * Returns the hole cards from an array with the hole cards followed by the
+     * board cards.
+     *
+     * @param cards
+     *            The cards.
+     *
+     * @return The hole cards as a card set.
+     *
+     * @throws IllegalArgumentException
+     *             If there are less than two cards or duplicate cards.
+     */
+    private static long getHoleCards(Card[] cards) {
+        if (cards == null || cards.length < MAX_NO_OF_HOLE_CARDS) {
+            throw new IllegalArgumentException("Missing hole cards");
+        }
+        if (CardSet.size(CardSet.of(cards)) != cards.length) {
+            throw new IllegalArgumentException("Duplicate cards");
+        }
+        return CardSet.of(cards[0]) | CardSet.of(cards[1]);
+    }
+
+    /**
+     * Returns the board cards from an array with the hole cards followed by
+     * the board cards.
+     *
+     * @param cards
+     *            The cards.
+     *
+     * @return The board as a card set.
+     */
+    private static long getBoard(Card[] cards) {
+        long board = CardSet.EMPTY;
+        for (int i = MAX_NO_OF_HOLE_CARDS; i < cards.length; i++) {
+            board |= CardSet.of(cards[i]);
+        }
+        return board;
+    }
+
+}
@@ -21,7 +21,12 @@ package org.ozsoft.texasholdem;
  * A generic game card in a deck (without jokers). <br />
  * <br />
  * 
- * Its value is determined first by rank, then by suit.
+ * Its value is determined first by rank, then by suit. <br />
+ * <br />
+ * 
+ * Cards are immutable and interned: there is exactly one instance per card,
+ * obtained with {@link #of(int, int)}, {@link #of(int)} or
+ * {@link #parse(char, char)}.
  * 
  * @author Oscar Stigter
  */
@@ -61,6 +66,12 @@ public class Card implements Comparable<Card> {
     
     /** The suit symbols. */
     public static final char[] SUIT_SYMBOLS = { 'd', 'c', 'h', 's' };
+    
+    /** The rank symbols, indexed by rank (for parsing). */
+    private static final String RANK_INDEXES = "23456789TJQKA";
+    
+    /** The suit symbols, indexed by suit (for parsing). */
+    private static final String SUIT_INDEXES = "dchs";
 
     /** The rank. */
     private final int rank;
@@ -68,30 +79,105 @@ public class Card implements Comparable<Card> {
     /** The suit. */
     private final int suit;
     
+    /** The cards, indexed by rank and suit. */
+    private static final Card[] CARDS = new Card[NO_OF_RANKS * NO_OF_SUITS];
+    
+    static {
+        for (int rank = 0; rank < NO_OF_RANKS; rank++) {
+            for (int suit = 0; suit < NO_OF_SUITS; suit++) {
+                CARDS[rank * NO_OF_SUITS + suit] = new Card(rank, suit);
+            }
+        }
+    }
+    
     /**
      * Constructor based on rank and suit.
      * 
+     * Only used to fill the card table; use {@link #of(int, int)} instead.
+     * 
      * @param rank
      *            The rank.
      * @param suit
      *            The suit.
+     */
+    private Card(int rank, int suit) {
+        this.rank = rank;
+        this.suit = suit;
+    }
+    
+    /**
+     * Returns the card with a specific rank and suit. <br />
+     * <br />
+     * 
+     * There is only one instance per card, so cards are never allocated and
+     * can be compared by identity.
+     * 
+     * @param rank
+     *            The rank.
+     * @param suit
+     *            The suit.
+     * 
+     * @return The card.
      * 
      * @throws IllegalArgumentException
      *             If the rank or suit is invalid.
      */
-    public Card(int rank, int suit) {
+    public static Card of(int rank, int suit) {
         if (rank < 0 || rank > NO_OF_RANKS - 1) {
             throw new IllegalArgumentException("Invalid rank");
         }
         if (suit < 0 || suit > NO_OF_SUITS - 1) {
             throw new IllegalArgumentException("Invalid suit");
         }
-        this.rank = rank;
-        this.suit = suit;
+        return CARDS[rank * NO_OF_SUITS + suit];
     }
     
     /**
-     * Constructor based on a string representing a card.
+     * Returns the card with a specific index (<code>rank * 4 + suit</code>,
+     * equal to its hash code and its bit in a {@link CardSet}).
+     * 
+     * @param index
+     *            The index (0 to 51).
+     * 
+     * @return The card.
+     * 
+     * @throws IllegalArgumentException
+     *             If the index is invalid.
+     */
+    public static Card of(int index) {
+        if (index < 0 || index >= CARDS.length) {
+            throw new IllegalArgumentException("Invalid card index: " + index);
+        }
+        return CARDS[index];
+    }
+    
+    /**
+     * Returns the card with a specific rank symbol and suit symbol.
+     * 
+     * @param rankSymbol
+     *            The rank symbol, e.g. 'A', 'T' or '7'.
+     * @param suitSymbol
+     *            The suit symbol, e.g. 's', 'd' or 'h'.
+     * 
+     * @return The card.
+     * 
+     * @throws IllegalArgumentException
+     *             If the rank or suit could not be parsed.
+     */
+    public static Card parse(char rankSymbol, char suitSymbol) {
+        int rank = RANK_INDEXES.indexOf(rankSymbol);
+        if (rank == -1) {
+            throw new IllegalArgumentException("Unknown rank: " + rankSymbol);
+        }
+        int suit = SUIT_INDEXES.indexOf(suitSymbol);
+        if (suit == -1) {
+            throw new IllegalArgumentException("Unknown suit: " + suitSymbol);
+        }
+        return CARDS[rank * NO_OF_SUITS + suit];
+    }
+    
+    /**
+     * Returns the card represented by a string.
      * 
      * The string must consist of a rank character and a suit character, in that
      * order.
@@ -99,11 +185,13 @@ public class Card implements Comparable<Card> {
      * @param s
      *            The string representation of the card, e.g. "As", "Td", "7h".
      * 
+     * @return The card.
+     * 
      * @throws IllegalArgumentException
      *             If the card string is null or of invalid length, or the rank
      *             or suit could not be parsed.
      */
-    public Card(String s) {
+    public static Card parse(String s) {
         if (s == null) {
             throw new IllegalArgumentException("Null string or of invalid length");
         }
@@ -111,33 +199,7 @@ public class Card implements Comparable<Card> {
         if (s.length() != 2) {
             throw new IllegalArgumentException("Empty string or invalid length");
         }
-        
-        // Parse the rank character.
-        String rankSymbol = s.substring(0, 1);
-        char suitSymbol = s.charAt(1);
-        int rank = -1;
-        for (int i = 0; i < Card.NO_OF_RANKS; i++) {
-            if (rankSymbol.equals(RANK_SYMBOLS[i])) {
-                rank = i;
-                break;
-            }
-        }
-        if (rank == -1) {
-            throw new IllegalArgumentException("Unknown rank: " + rankSymbol);
-        }
-        // Parse the suit character.
-        int suit = -1;
-        for (int i = 0; i < Card.NO_OF_SUITS; i++) {
-            if (suitSymbol == SUIT_SYMBOLS[i]) {
-                suit = i;
-                break;
-            }
-        }
-        if (suit == -1) {
-            throw new IllegalArgumentException("Unknown suit: " + suitSymbol);
-        }
-        this.rank = rank;
-        this.suit = suit;
+        return parse(s.charAt(0), s.charAt(1));
     }
     
     /**
@@ -167,7 +229,9 @@ public class Card implements Comparable<Card> {
     /** {@inheritDoc} */
     @Override
     public boolean equals(Object obj) {
-        if (obj instanceof Card) {
+        if (obj == this) {
+            return true;
+        } else if (obj instanceof Card) {
             return ((Card) obj).hashCode() == hashCode();
         } else {
             return false;
@@ -0,0 +1,182 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.ozsoft.texasholdem;
+
+/**
+ * Enumerates all combinations of a fixed number of cards from the live deck,
+ * i.e. all cards except a set of dead cards. <br />
+ * <br />
+ *
+ * Each combination is visited exactly once (unordered), as a card set. The
+ * live cards are numbered once; the combinations are then generated as bit
+ * patterns over these numbers with Gosper's hack (the next higher number with
+ * the same number of bits), so advancing to the next combination does not
+ * allocate any objects or scan for dead cards. <br />
+ * <br />
+ *
+ * Example:
+ *
+ * <pre>
+ * CardCombinations runouts = new CardCombinations(knownCards, 2);
+ * while (runouts.next()) {
+ *     long runout = runouts.getCards();
+ *     ...
+ * }
+ * </pre>
+ *
+ * <b>NOTE:</b> This class is implemented with the focus on performance (instead of clean design).
+ *
+ * @author Oscar Stigter
+ */
+public class CardCombinations {
+
+    /** The live cards (card indexes), lowest first. */
+    private final int[] liveCards;
+
+    /** The number of cards per combination. */
+    private final int noOfCards;
+
+    /** The end of the combination patterns (exclusive). */
+    private final long end;
+
+    /** The current combination pattern (bits are live card numbers). */
+    private long pattern;
+
+    /** The current combination as a card set. */
+    private long cards;
+
+    /** Whether the enumeration has started. */
+    private boolean started;
+
+    /**
+     * Constructor.
+     *
+     * @param deadCards
+     *            The dead cards as a card set (see {@link CardSet}).
+     * @param noOfCards
+     *            The number of cards per combination.
+     *
+     * @throws IllegalArgumentException
+     *             If the number of cards is negative or larger than the
+     *             number of live cards.
+     */
+    public CardCombinations(long deadCards, int noOfCards) {
+        long live = CardSet.FULL_DECK & ~deadCards;
+        int noOfLiveCards = Long.bitCount(live);
+        if (noOfCards < 0 || noOfCards > noOfLiveCards) {
+            throw new IllegalArgumentException("Invalid number of cards: " + noOfCards);
+        }
+        liveCards = new int[noOfLiveCards];
+        int i = 0;
+        for (long mask = live; mask != 0L; mask &= mask - 1L) {
+            liveCards[i++] = Long.numberOfTrailingZeros(mask);
+        }
+        this.noOfCards = noOfCards;
+        end = 1L << noOfLiveCards;
+        reset();
+    }
+
+    /**
+     * Returns the number of live cards.
+     *
+     * @return The number of live cards.
+     */
+    public int getNoOfLiveCards() {
+        return liveCards.length;
+    }
+
+    /**
+     * Returns the number of cards per combination.
+     *
+     * @return The number of cards per combination.
+     */
+    public int getNoOfCards() {
+        return noOfCards;
+    }
+
+    /**
+     * Returns the total number of combinations.
+     *
+     * @return The number of combinations.
+     */
+    public long size() {
+        long size = 1L;
+        for (int i = 0; i < noOfCards; i++) {
+            size = size * (liveCards.length - i) / (i + 1);
+        }
+        return size;
+    }
+
+    /**
+     * Restarts the enumeration before the first combination.
+     */
+    public void reset() {
+        pattern = (1L << noOfCards) - 1L;
+        cards = CardSet.EMPTY;
+        started = false;
+    }
+
+    /**
+     * Advances to the next combination.
+     *
+     * @return True if there is a next combination, otherwise false.
+     */
+    public boolean next() {
+        if (pattern >= end) {
+            return false;
+        }
+        if (started) {
+            if (pattern == 0L) {
+                // The single empty combination has been visited.
+                pattern = end;
+                return false;
+            }
+            // Gosper's hack: the next higher pattern with the same bit count.
+            long lowest = pattern & -pattern;
+            long ripple = pattern + lowest;
+            pattern = ripple | (((ripple ^ pattern) >>> 2) / lowest);
+            if (pattern >= end) {
+                return false;
+            }
+        } else {
+            started = true;
+        }
+        cards = CardSet.EMPTY;
+        for (long mask = pattern; mask != 0L; mask &= mask - 1L) {
+            cards |= 1L << liveCards[Long.numberOfTrailingZeros(mask)];
+        }
+        return true;
+    }
+
+    /**
+     * Returns the current combination.
+     *
+     * @return The cards of the current combination as a card set.
+     *
+     * @throws IllegalStateException
+     *             If the enumeration has not started.
+     */
+    public long getCards() {
+        if (!started) {
+            throw new IllegalStateException("Enumeration not started");
+        }
+        return cards;
+    }
+
+}
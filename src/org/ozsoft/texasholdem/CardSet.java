@@ -0,0 +1,196 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+import java.util.Collection;
+
+/**
+ * Primitive representation of a set of cards as a 52-bit mask. <br />
+ * <br />
+ *
+ * Each card is represented by the bit at the index of its hash code
+ * (<code>rank * 4 + suit</code>), so the cards are ordered by rank first, then
+ * by suit, just like {@link Card#compareTo(Card)}. <br />
+ * <br />
+ *
+ * <b>NOTE:</b> This class is implemented with the focus on performance (instead of clean design).
+ *
+ * @author Oscar Stigter
+ */
+public abstract class CardSet {
+
+    /** The number of cards in a deck. */
+    public static final int NO_OF_CARDS = Card.NO_OF_RANKS * Card.NO_OF_SUITS;
+
+    /** The empty card set. */
+    public static final long EMPTY = 0L;
+
+    /** The full deck. */
+    public static final long FULL_DECK = (1L << NO_OF_CARDS) - 1L;
+
+    /** The cards of the lowest suit (Diamonds); shift left by the suit for the others. */
+    public static final long SUIT_MASK = 0x1111111111111L;
+
+    /**
+     * Returns the bit of a single card.
+     *
+     * @param card
+     *            The card.
+     *
+     * @return The card's bit.
+     */
+    public static long of(Card card) {
+        return 1L << card.hashCode();
+    }
+
+    /**
+     * Returns the card set with the specified cards.
+     *
+     * @param cards
+     *            The cards.
+     *
+     * @return The card set.
+     *
+     * @throws IllegalArgumentException
+     *             If the array is null.
+     */
+    public static long of(Card[] cards) {
+        if (cards == null) {
+            throw new IllegalArgumentException("Null array");
+        }
+        long mask = EMPTY;
+        for (Card card : cards) {
+            mask |= 1L << card.hashCode();
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the card set with the specified cards.
+     *
+     * @param cards
+     *            The cards.
+     *
+     * @return The card set.
+     *
+     * @throws IllegalArgumentException
+     *             If the collection is null.
+     */
+    public static long of(Collection<Card> cards) {
+        if (cards == null) {
+            throw new IllegalArgumentException("Null collection");
+        }
+        long mask = EMPTY;
+        for (Card card : cards) {
+            mask |= 1L << card.hashCode();
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the card set with the cards of a hand.
+     *
+     * @param hand
+     *            The hand.
+     *
+     * @return The card set.
+     */
+    public static long of(Hand hand) {
+        return hand.getCardSet();
+    }
+
+    /**
+     * Returns the cards in a card set, ordered highest to lowest.
+     *
+     * @param mask
+     *            The card set.
+     *
+     * @return The cards.
+     */
+    public static Card[] toCards(long mask) {
+        Card[] cards = new Card[Long.bitCount(mask)];
+        for (int i = 0; i < cards.length; i++) {
+            int index = 63 - Long.numberOfLeadingZeros(mask);
+            cards[i] = Card.of(index);
+            mask &= ~(1L << index);
+        }
+        return cards;
+    }
+
+    /**
+     * Returns a hand with the cards in a card set.
+     *
+     * @param mask
+     *            The card set.
+     *
+     * @return The hand.
+     */
+    public static Hand toHand(long mask) {
+        Hand hand = new Hand();
+        for (long cards = mask; cards != 0L; cards &= cards - 1L) {
+            hand.addCard(Card.of(Long.numberOfTrailingZeros(cards)));
+        }
+        return hand;
+    }
+
+    /**
+     * Returns the number of cards in a card set.
+     *
+     * @param mask
+     *            The card set.
+     *
+     * @return The number of cards.
+     */
+    public static int size(long mask) {
+        return Long.bitCount(mask);
+    }
+
+    /**
+     * Indicates whether a card set contains a specific card.
+     *
+     * @param mask
+     *            The card set.
+     * @param card
+     *            The card.
+     *
+     * @return True if the card is in the card set, otherwise false.
+     */
+    public static boolean contains(long mask, Card card) {
+        return (mask & (1L << card.hashCode())) != 0L;
+    }
+
+    /**
+     * Returns a string representation of a card set, e.g. "As Kh 7d".
+     *
+     * @param mask
+     *            The card set.
+     *
+     * @return The string representation.
+     */
+    public static String toString(long mask) {
+        StringBuilder sb = new StringBuilder();
+        for (Card card : toCards(mask)) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(card);
+        }
+        return sb.toString();
+    }
+
+}
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Set;
 
 import org.ozsoft.texasholdem.actions.Action;
+import org.ozsoft.texasholdem.actions.ActionType;
 
 /**
  * A player client showing the table information and acting on behalf of the
@@ -111,4 +112,57 @@ public interface Client {
      */
     Action act(int minBet, int currentBet, Set<Action> allowedActions, Card[] commuCards, int pot,boolean dealer);
 
+    /**
+     * Requests this player to act, selecting one of the allowed actions,
+     * without any object allocation. <br />
+     * <br />
+     * 
+     * By default the {@link Action} based variant is called; clients that
+     * act often (e.g. bots) should override this method.
+     * 
+     * @param minBet
+     *            The minimum bet.
+     * @param currentBet
+     *            The current bet.
+     * @param allowedActions
+     *            The allowed actions as a mask (see {@link ActionType#getMask()}).
+     * @param commuCards
+     *            The community cards.
+     * @param pot
+     *            The current pot.
+     * @param dealer
+     *            Whether this player is the dealer.
+     * 
+     * @return The selected action as an action code (see
+     *         {@link ActionType#toCode(int)}).
+     */
+    default long act(int minBet, int currentBet, int allowedActions, Card[] commuCards, int pot, boolean dealer) {
+        return act(minBet, currentBet, ActionType.toSet(allowedActions), commuCards, pot, dealer).toCode();
+    }
+
+    /**
+     * Requests this player to act, based on a read-only view of the game
+     * state. <br />
+     * <br />
+     * 
+     * This is the variant used by the table; the view gives access to the
+     * stacks, positions, pots and action history without any copying, and
+     * is only valid during the call. <br />
+     * <br />
+     * 
+     * By default the action code based variant is called with the board
+     * copied from the view.
+     * 
+     * @param state
+     *            The game state.
+     * 
+     * @return The selected action as an action code (see
+     *         {@link ActionType#toCode(int)}).
+     */
+    default long act(GameState state) {
+        List<Card> board = state.getBoard();
+        return act(state.getMinBet(), state.getCurrentBet(), state.getAllowedActions(),
+                board.toArray(new Card[board.size()]), state.getPot(), state.isDealer());
+    }
+
 }
@@ -22,9 +22,24 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
+import org.ozsoft.texasholdem.util.SplitMixRandom;
+
 /**
  * A standard, generic deck of game cards without jokers. <br />
  * <br />
+ * 
+ * The deck is shuffled with an unbiased Fisher-Yates shuffle, using a
+ * pluggable random number generator: by default a <code>SecureRandom</code>
+ * for real play, or e.g. a seeded {@link SplitMixRandom} for reproducible
+ * simulations. {@link #shuffle(long)} shuffles with a specific seed,
+ * independent of any previous shuffle. <br />
+ * <br />
+ *
+ * In lazy dealing mode, shuffling costs nothing; instead, each dealt card is
+ * drawn uniformly from the cards not dealt yet (a partial Fisher-Yates
+ * shuffle). The dealt cards have exactly the same distribution, but a hand
+ * with P players only takes 2P + 5 random numbers instead of 51. <br />
+ * <br />
  *
  * <b>NOTE:</b> This class is implemented with the focus on performance (instead of clean design).
  * 
@@ -35,39 +50,162 @@ public class Deck {
     /** The number of cards in a deck. */
     private static final int NO_OF_CARDS = Card.NO_OF_RANKS * Card.NO_OF_SUITS;
     
+    /** The cards in their initial order. */
+    private static final Card[] ORDERED_CARDS = new Card[NO_OF_CARDS];
+    
     /** The cards in the deck. */
-    private Card[] cards;
+    private final Card[] cards;
     
     /** The index of the next card to deal. */
     private int nextCardIndex = 0;
     
-    /** Random number generator (crypographical quality). */
-    private Random random = new SecureRandom();
+    /** Random number generator. */
+    private Random random;
+    
+    /** Random number generator for shuffles with a specific seed (created on first use). */
+    private SplitMixRandom seededRandom;
+    
+    /** Whether the cards are drawn randomly when dealt, instead of shuffled. */
+    private boolean lazy = false;
+    
+    /** Random number generator for the lazy draws since the last shuffle. */
+    private Random drawRandom;
+    
+    static {
+        int index = 0;
+        for (int suit = Card.NO_OF_SUITS - 1; suit >= 0; suit--) {
+            for (int rank = Card.NO_OF_RANKS - 1; rank >= 0 ; rank--) {
+                ORDERED_CARDS[index++] = Card.of(rank, suit);
+            }
+        }
+    }
 
     /**
-     * Constructor.
+     * Constructor, using a random number generator of cryptographical quality.
      * 
      * Starts as a full, ordered deck.
      */
     public Deck() {
-        cards = new Card[NO_OF_CARDS];
-        int index = 0;
-        for (int suit = Card.NO_OF_SUITS - 1; suit >= 0; suit--) {
-            for (int rank = Card.NO_OF_RANKS - 1; rank >= 0 ; rank--) {
-                cards[index++] = new Card(rank, suit);
-            }
+        this(new SecureRandom());
+    }
+    
+    /**
+     * Constructor with a specific random number generator.
+     * 
+     * Starts as a full, ordered deck.
+     * 
+     * @param random
+     *            The random number generator.
+     * 
+     * @throws IllegalArgumentException
+     *             If the random number generator is null.
+     */
+    public Deck(Random random) {
+        setRandom(random);
+        cards = ORDERED_CARDS.clone();
+    }
+    
+    /**
+     * Constructor with a fast, seeded random number generator, so the
+     * sequence of shuffles is reproducible.
+     * 
+     * Starts as a full, ordered deck.
+     * 
+     * @param seed
+     *            The seed.
+     */
+    public Deck(long seed) {
+        this(new SplitMixRandom(seed));
+    }
+    
+    /**
+     * Sets the random number generator.
+     * 
+     * @param random
+     *            The random number generator.
+     * 
+     * @throws IllegalArgumentException
+     *             If the random number generator is null.
+     */
+    public void setRandom(Random random) {
+        if (random == null) {
+            throw new IllegalArgumentException("Null random number generator");
         }
+        this.random = random;
+        drawRandom = random;
+    }
+    
+    /**
+     * Enables or disables lazy dealing. Takes effect with the next shuffle.
+     * 
+     * @param lazy
+     *            True to draw the cards randomly when dealt, false to shuffle
+     *            the whole deck.
+     */
+    public void setLazy(boolean lazy) {
+        this.lazy = lazy;
+    }
+    
+    /**
+     * Indicates whether lazy dealing is enabled.
+     * 
+     * @return True if lazy dealing is enabled, otherwise false.
+     */
+    public boolean isLazy() {
+        return lazy;
     }
     
     /**
      * Shuffles the deck.
      */
     public void shuffle() {
-        for (int oldIndex = 0; oldIndex < NO_OF_CARDS; oldIndex++) {
-            int newIndex = random.nextInt(NO_OF_CARDS);
-            Card tempCard = cards[oldIndex];
-            cards[oldIndex] = cards[newIndex];
-            cards[newIndex] = tempCard;
+        if (lazy) {
+            drawRandom = random;
+            nextCardIndex = 0;
+        } else {
+            shuffle(random);
+        }
+    }
+    
+    /**
+     * Shuffles the deck with a specific seed. <br />
+     * <br />
+     * 
+     * The deck is first restored to its initial order, so the same seed
+     * always results in the same order of the cards (or the same draws, when
+     * dealing lazily), e.g. to replay a hand.
+     * 
+     * @param seed
+     *            The seed.
+     */
+    public void shuffle(long seed) {
+        if (seededRandom == null) {
+            seededRandom = new SplitMixRandom(seed);
+        } else {
+            seededRandom.setSeed(seed);
+        }
+        System.arraycopy(ORDERED_CARDS, 0, cards, 0, NO_OF_CARDS);
+        if (lazy) {
+            drawRandom = seededRandom;
+            nextCardIndex = 0;
+        } else {
+            shuffle(seededRandom);
+        }
+    }
+    
+    /**
+     * Shuffles the deck with the Fisher-Yates algorithm (every order is
+     * equally likely).
+     * 
+     * @param rng
+     *            The random number generator.
+     */
+    private void shuffle(Random rng) {
+        for (int i = NO_OF_CARDS - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            Card tempCard = cards[i];
+            cards[i] = cards[j];
+            cards[j] = tempCard;
         }
         nextCardIndex = 0;
     }
@@ -87,9 +225,16 @@ public class Deck {
      * @return  the card dealt
      */
     public Card deal() {
-        if (nextCardIndex + 1 >= NO_OF_CARDS) {
+        if (nextCardIndex >= NO_OF_CARDS) {
             throw new IllegalStateException("No cards left in deck");
         }
+        if (lazy) {
+            // Swap a random card that is not dealt yet to the next position.
+            int index = nextCardIndex + drawRandom.nextInt(NO_OF_CARDS - nextCardIndex);
+            Card card = cards[index];
+            cards[index] = cards[nextCardIndex];
+            cards[nextCardIndex] = card;
+        }
         return cards[nextCardIndex++];
     }
     
@@ -110,18 +255,18 @@ public class Deck {
         if (noOfCards < 1) {
             throw new IllegalArgumentException("noOfCards < 1");
         }
-        if (nextCardIndex + noOfCards >= NO_OF_CARDS) {
+        if (nextCardIndex + noOfCards > NO_OF_CARDS) {
             throw new IllegalStateException("No cards left in deck");
         }
-        List<Card> dealtCards = new ArrayList<Card>();
+        List<Card> dealtCards = new ArrayList<Card>(noOfCards);
         for (int i = 0; i < noOfCards; i++) {
-            dealtCards.add(cards[nextCardIndex++]);
+            dealtCards.add(deal());
         }
         return dealtCards;
     }
     
     /**
-     * Deals a specific card.
+     * Deals a specific card (also when dealing lazily).
      * 
      * @param rank
      *            The card's rank.
@@ -134,7 +279,7 @@ public class Deck {
      *             If there are no cards left in the deck.
      */
     public Card deal(int rank, int suit) {
-        if (nextCardIndex + 1 >= NO_OF_CARDS) {
+        if (nextCardIndex >= NO_OF_CARDS) {
             throw new IllegalStateException("No cards left in deck");
         }
         Card card = null;
@@ -151,7 +296,7 @@ public class Deck {
                 cards[nextCardIndex] = cards[index];
                 cards[index] = nextCard;
             }
-            card = deal();
+            card = cards[nextCardIndex++];
         }
         return card;
     }
@@ -0,0 +1,435 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+/**
+ * Bounded, thread-safe cache of hand evaluation results, keyed by a compact
+ * card key such as {@link CanonicalHand#getIndex()}. <br />
+ * <br />
+ *
+ * When the cache is full, an entry is evicted according to the configured
+ * {@link CachePolicy}. The number of hits and misses is counted, so the
+ * capacity can be tuned. <br />
+ * <br />
+ *
+ * The entries are spread over a number of stripes by the hash of their key,
+ * each with its own lock, so concurrent tables rarely wait for each other.
+ * Keys and values are stored in primitive arrays, so a lookup does not box or
+ * allocate. The eviction order is kept per stripe.
+ *
+ * @author Oscar Stigter
+ */
+public class EvaluationCache {
+
+    /** The maximum number of stripes. */
+    private static final int MAX_NO_OF_STRIPES = 16;
+
+    /** Multiplier of the key hash (the 64-bit golden ratio). */
+    private static final long HASH_MULTIPLIER = 0x9e3779b97f4a7c15L;
+
+    /** The maximum number of entries. */
+    private final int capacity;
+
+    /** The eviction policy. */
+    private final CachePolicy policy;
+
+    /** The stripes. */
+    private final Stripe[] stripes;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity
+     *            The maximum number of entries.
+     * @param policy
+     *            The eviction policy.
+     *
+     * @throws IllegalArgumentException
+     *             If the capacity is not positive or the policy is null.
+     */
+    public EvaluationCache(int capacity, CachePolicy policy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("Null policy");
+        }
+        this.capacity = capacity;
+        this.policy = policy;
+        int noOfStripes = Math.min(MAX_NO_OF_STRIPES, Integer.highestOneBit(capacity));
+        stripes = new Stripe[noOfStripes];
+        for (int i = 0; i < noOfStripes; i++) {
+            int stripeCapacity = capacity / noOfStripes + ((i < capacity % noOfStripes) ? 1 : 0);
+            stripes[i] = new Stripe(stripeCapacity, policy == CachePolicy.LRU);
+        }
+    }
+
+    /**
+     * Returns the maximum number of entries.
+     *
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the eviction policy.
+     *
+     * @return The eviction policy.
+     */
+    public CachePolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Returns the cached value of a key, counting a hit or a miss.
+     *
+     * @param key
+     *            The key.
+     *
+     * @return The value, or {@link Double#NaN} if not cached.
+     */
+    public double get(long key) {
+        long hash = key * HASH_MULTIPLIER;
+        return getStripe(hash).get(key, (int) hash);
+    }
+
+    /**
+     * Caches a value, possibly evicting another entry.
+     *
+     * @param key
+     *            The key.
+     * @param value
+     *            The value.
+     */
+    public void put(long key, double value) {
+        long hash = key * HASH_MULTIPLIER;
+        getStripe(hash).put(key, (int) hash, value);
+    }
+
+    /**
+     * Returns the number of cached entries.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of hits.
+     *
+     * @return The number of hits.
+     */
+    public long getHits() {
+        long hits = 0L;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                hits += stripe.hits;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Returns the number of misses.
+     *
+     * @return The number of misses.
+     */
+    public long getMisses() {
+        long misses = 0L;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                misses += stripe.misses;
+            }
+        }
+        return misses;
+    }
+
+    /**
+     * Returns the fraction of lookups that were hits.
+     *
+     * @return The hit rate (between 0.0 and 1.0).
+     */
+    public double getHitRate() {
+        long hits = getHits();
+        long lookups = hits + getMisses();
+        return (lookups > 0L) ? (double) hits / lookups : 0.0;
+    }
+
+    /**
+     * Removes all entries and resets the counters.
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return String.format("%d/%d entries (%s), %d hits, %d misses", size(), capacity, policy.getName(), getHits(),
+                getMisses());
+    }
+
+    /**
+     * Returns the stripe of a key.
+     *
+     * @param hash
+     *            The hash of the key.
+     *
+     * @return The stripe.
+     */
+    private Stripe getStripe(long hash) {
+        // The high bits select the stripe, the low bits the bucket.
+        return stripes[(int) (hash >>> 32) & (stripes.length - 1)];
+    }
+
+    /**
+     * A part of the cache with its own lock. <br />
+     * <br />
+     *
+     * The entries are slots in parallel arrays, chained per hash bucket and
+     * linked in eviction order (eldest first). Evicting the eldest entry frees
+     * the slot for the new one, so the stripe never allocates after
+     * construction.
+     */
+    private static class Stripe {
+
+        /** Marks the end of a chain or list. */
+        private static final int NONE = -1;
+
+        /** The maximum number of entries. */
+        private final int capacity;
+
+        /** Whether a hit moves the entry to the end of the eviction order. */
+        private final boolean accessOrder;
+
+        /** The keys, per slot. */
+        private final long[] keys;
+
+        /** The values, per slot. */
+        private final double[] values;
+
+        /** The first slot of each bucket. */
+        private final int[] buckets;
+
+        /** The next slot in the same bucket, per slot. */
+        private final int[] chain;
+
+        /** The previous slot in eviction order, per slot. */
+        private final int[] before;
+
+        /** The next slot in eviction order, per slot. */
+        private final int[] after;
+
+        /** The eldest slot. */
+        private int head;
+
+        /** The youngest slot. */
+        private int tail;
+
+        /** The number of entries (the used slots are 0 to size - 1). */
+        private int size;
+
+        /** The number of hits. */
+        private long hits;
+
+        /** The number of misses. */
+        private long misses;
+
+        /**
+         * Constructor.
+         *
+         * @param capacity
+         *            The maximum number of entries.
+         * @param accessOrder
+         *            Whether to evict the least recently used instead of the
+         *            oldest entry.
+         */
+        public Stripe(int capacity, boolean accessOrder) {
+            this.capacity = capacity;
+            this.accessOrder = accessOrder;
+            keys = new long[capacity];
+            values = new double[capacity];
+            buckets = new int[Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1];
+            chain = new int[capacity];
+            before = new int[capacity];
+            after = new int[capacity];
+            clear();
+        }
+
+        /**
+         * Returns the cached value of a key, counting a hit or a miss.
+         *
+         * @param key
+         *            The key.
+         * @param hash
+         *            The hash of the key.
+         *
+         * @return The value, or {@link Double#NaN} if not cached.
+         */
+        public synchronized double get(long key, int hash) {
+            int slot = find(key, hash);
+            if (slot == NONE) {
+                misses++;
+                return Double.NaN;
+            }
+            hits++;
+            if (accessOrder) {
+                unlink(slot);
+                append(slot);
+            }
+            return values[slot];
+        }
+
+        /**
+         * Caches a value, evicting the eldest entry if the stripe is full.
+         *
+         * @param key
+         *            The key.
+         * @param hash
+         *            The hash of the key.
+         * @param value
+         *            The value.
+         */
+        public synchronized void put(long key, int hash, double value) {
+            int slot = find(key, hash);
+            if (slot != NONE) {
+                values[slot] = value;
+                if (accessOrder) {
+                    unlink(slot);
+                    append(slot);
+                }
+                return;
+            }
+            if (size < capacity) {
+                slot = size++;
+            } else {
+                slot = head;
+                unlink(slot);
+                remove(slot);
+            }
+            int bucket = hash & (buckets.length - 1);
+            keys[slot] = key;
+            values[slot] = value;
+            chain[slot] = buckets[bucket];
+            buckets[bucket] = slot;
+            append(slot);
+        }
+
+        /**
+         * Removes all entries and resets the counters.
+         */
+        public void clear() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = NONE;
+            }
+            head = NONE;
+            tail = NONE;
+            size = 0;
+            hits = 0L;
+            misses = 0L;
+        }
+
+        /**
+         * Returns the slot of a key.
+         *
+         * @param key
+         *            The key.
+         * @param hash
+         *            The hash of the key.
+         *
+         * @return The slot, or {@link #NONE} if not cached.
+         */
+        private int find(long key, int hash) {
+            int slot = buckets[hash & (buckets.length - 1)];
+            while (slot != NONE && keys[slot] != key) {
+                slot = chain[slot];
+            }
+            return slot;
+        }
+
+        /**
+         * Removes a slot from its bucket chain.
+         *
+         * @param slot
+         *            The slot.
+         */
+        private void remove(int slot) {
+            int bucket = (int) (keys[slot] * HASH_MULTIPLIER) & (buckets.length - 1);
+            if (buckets[bucket] == slot) {
+                buckets[bucket] = chain[slot];
+            } else {
+                int previous = buckets[bucket];
+                while (chain[previous] != slot) {
+                    previous = chain[previous];
+                }
+                chain[previous] = chain[slot];
+            }
+        }
+
+        /**
+         * Removes a slot from the eviction order.
+         *
+         * @param slot
+         *            The slot.
+         */
+        private void unlink(int slot) {
+            if (before[slot] == NONE) {
+                head = after[slot];
+            } else {
+                after[before[slot]] = after[slot];
+            }
+            if (after[slot] == NONE) {
+                tail = before[slot];
+            } else {
+                before[after[slot]] = before[slot];
+            }
+        }
+
+        /**
+         * Adds a slot to the end of the eviction order.
+         *
+         * @param slot
+         *            The slot.
+         */
+        private void append(int slot) {
+            before[slot] = tail;
+            after[slot] = NONE;
+            if (tail == NONE) {
+                head = slot;
+            } else {
+                after[tail] = slot;
+            }
+            tail = slot;
+        }
+
+    }
+
+}
@@ -0,0 +1,537 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ozsoft.texasholdem.bots.DummyBot;
+import org.ozsoft.texasholdem.util.SplitMixRandom;
+
+/**
+ * Game server hosting many tables concurrently on a small, fixed pool of
+ * threads. <br />
+ * <br />
+ *
+ * Instead of dedicating a thread to each table (like {@link Table#run}), a
+ * table with at least two players is scheduled as a task that plays a slice
+ * of a few hands and then reschedules itself, so thousands of tables share
+ * the threads fairly. A table is only ever played by one thread at a time;
+ * players joining or leaving, and closing the table, are queued and handled
+ * by the table's own task between two hands. A table without enough players
+ * is not scheduled at all. <br />
+ * <br />
+ *
+ * Players who can no longer afford the big blind leave the table. A table
+ * whose game fails (e.g. because of a broken client) is closed, without
+ * affecting the other tables. Bots that might hang should be given a time
+ * limit (see {@link #setTimeLimits(long, long)}), so they cannot occupy a
+ * server thread. Like in the {@link Arena}, no hand log or console output is
+ * written.
+ *
+ * @author Oscar Stigter
+ */
+public class GameServer {
+
+    /** The default number of hands per slice. */
+    private static final int DEFAULT_HANDS_PER_SLICE = 10;
+
+    /** The number of the next server thread. */
+    private static final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    /** The hosted tables by ID. */
+    private final ConcurrentMap<Integer, HostedTable> tables;
+
+    /** The executor playing the tables. */
+    private final ExecutorService executor;
+
+    /** The ID of the next table. */
+    private final AtomicInteger nextTableId;
+
+    /** The total number of hands played. */
+    private final AtomicLong noOfHands;
+
+    /** The number of tables closed because of a failure. */
+    private final AtomicInteger noOfFailedTables;
+
+    /** Random number generator for the table seeds. */
+    private final SplitMixRandom random;
+
+    /** The number of hands a table plays before yielding its thread. */
+    private volatile int handsPerSlice = DEFAULT_HANDS_PER_SLICE;
+
+    /** The time limit per decision in milliseconds (0 for none). */
+    private volatile long actionTimeout = 0L;
+
+    /** The time bank per player in milliseconds. */
+    private volatile long timeBank = 0L;
+
+    /**
+     * Constructor with a thread per available processor.
+     */
+    public GameServer() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param parallelism
+     *            The number of threads playing the tables.
+     *
+     * @throws IllegalArgumentException
+     *             If the number of threads is not positive.
+     */
+    public GameServer(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+        }
+        tables = new ConcurrentHashMap<Integer, HostedTable>();
+        executor = Executors.newFixedThreadPool(parallelism, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "GameServer-" + threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        nextTableId = new AtomicInteger(1);
+        noOfHands = new AtomicLong();
+        noOfFailedTables = new AtomicInteger();
+        random = new SplitMixRandom();
+    }
+
+    /**
+     * Sets the number of hands a table plays before yielding its thread to
+     * the other tables.
+     *
+     * @param handsPerSlice
+     *            The number of hands per slice.
+     *
+     * @throws IllegalArgumentException
+     *             If the number of hands is not positive.
+     */
+    public void setHandsPerSlice(int handsPerSlice) {
+        if (handsPerSlice < 1) {
+            throw new IllegalArgumentException("Invalid number of hands per slice: " + handsPerSlice);
+        }
+        this.handsPerSlice = handsPerSlice;
+    }
+
+    /**
+     * Limits the time per decision at the tables created from now on (see
+     * {@link Table#setTimeLimits(long, long)}).
+     *
+     * @param actionTimeout
+     *            The time limit per decision in milliseconds, or 0 for no
+     *            limit.
+     * @param timeBank
+     *            The time bank per player in milliseconds.
+     *
+     * @throws IllegalArgumentException
+     *             If the time limit or time bank is negative.
+     */
+    public void setTimeLimits(long actionTimeout, long timeBank) {
+        if (actionTimeout < 0L) {
+            throw new IllegalArgumentException("Invalid action timeout: " + actionTimeout);
+        }
+        if (timeBank < 0L) {
+            throw new IllegalArgumentException("Invalid time bank: " + timeBank);
+        }
+        this.actionTimeout = actionTimeout;
+        this.timeBank = timeBank;
+    }
+
+    /**
+     * Creates a new, empty table.
+     *
+     * @param tableType
+     *            The table type (betting structure).
+     * @param bigBlind
+     *            The size of the big blind.
+     *
+     * @return The table ID.
+     *
+     * @throws IllegalArgumentException
+     *             If the table type is null or the big blind is too small.
+     * @throws IllegalStateException
+     *             If the server is shut down.
+     */
+    public int createTable(TableType tableType, int bigBlind) {
+        if (tableType == null) {
+            throw new IllegalArgumentException("Null table type");
+        }
+        if (bigBlind < 2) {
+            throw new IllegalArgumentException("Invalid big blind: " + bigBlind);
+        }
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("Server is shut down");
+        }
+        Table table = new Table(tableType, bigBlind);
+        table.setTimeLimits(actionTimeout, timeBank);
+        synchronized (random) {
+            // Fast shuffles, independent per table.
+            table.setSeed(random.nextLong());
+        }
+        table.start(null);
+        int tableId = nextTableId.getAndIncrement();
+        tables.put(tableId, new HostedTable(tableId, table, bigBlind));
+        return tableId;
+    }
+
+    /**
+     * Seats a new player at a table. The player joins between two hands.
+     *
+     * @param tableId
+     *            The table ID.
+     * @param name
+     *            The player's name.
+     * @param cash
+     *            The player's starting amount of cash.
+     * @param client
+     *            The client.
+     *
+     * @return The player.
+     *
+     * @throws IllegalArgumentException
+     *             If the table does not exist, or the name or client is null.
+     */
+    public Player seatPlayer(int tableId, String name, int cash, Client client) {
+        if (name == null) {
+            throw new IllegalArgumentException("Null name");
+        }
+        if (client == null) {
+            throw new IllegalArgumentException("Null client");
+        }
+        HostedTable hostedTable = getTable(tableId);
+        Player player = new Player(name, cash, client);
+        hostedTable.arrivals.add(player);
+        hostedTable.schedule();
+        return player;
+    }
+
+    /**
+     * Removes a player from a table. The player leaves between two hands.
+     *
+     * @param tableId
+     *            The table ID.
+     * @param player
+     *            The player.
+     *
+     * @throws IllegalArgumentException
+     *             If the table does not exist.
+     */
+    public void unseatPlayer(int tableId, Player player) {
+        HostedTable hostedTable = getTable(tableId);
+        hostedTable.departures.add(player);
+        hostedTable.schedule();
+    }
+
+    /**
+     * Closes a table. The current hand is finished first.
+     *
+     * @param tableId
+     *            The table ID.
+     */
+    public void closeTable(int tableId) {
+        HostedTable hostedTable = tables.get(tableId);
+        if (hostedTable != null) {
+            hostedTable.isClosed = true;
+            hostedTable.schedule();
+        }
+    }
+
+    /**
+     * Indicates whether a table is open.
+     *
+     * @param tableId
+     *            The table ID.
+     *
+     * @return True if the table is open, otherwise false.
+     */
+    public boolean isTableOpen(int tableId) {
+        return tables.containsKey(tableId);
+    }
+
+    /**
+     * Returns the number of players seated at a table (including those about
+     * to join or leave).
+     *
+     * @param tableId
+     *            The table ID.
+     *
+     * @return The number of players.
+     *
+     * @throws IllegalArgumentException
+     *             If the table does not exist.
+     */
+    public int getNoOfPlayers(int tableId) {
+        HostedTable hostedTable = getTable(tableId);
+        return hostedTable.noOfPlayers + hostedTable.arrivals.size() - hostedTable.departures.size();
+    }
+
+    /**
+     * Returns the number of open tables.
+     *
+     * @return The number of tables.
+     */
+    public int getNoOfTables() {
+        return tables.size();
+    }
+
+    /**
+     * Returns the total number of hands played at all tables.
+     *
+     * @return The number of hands.
+     */
+    public long getNoOfHands() {
+        return noOfHands.get();
+    }
+
+    /**
+     * Returns the number of tables closed because of a failure.
+     *
+     * @return The number of failed tables.
+     */
+    public int getNoOfFailedTables() {
+        return noOfFailedTables.get();
+    }
+
+    /**
+     * Shuts down the server, closing all tables after their current slice.
+     *
+     * @param timeout
+     *            The maximum time to wait in milliseconds.
+     *
+     * @return True if all tables have stopped, false if the timeout expired.
+     */
+    public boolean shutdown(long timeout) {
+        executor.shutdown();
+        tables.clear();
+        try {
+            return executor.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Returns a hosted table.
+     *
+     * @param tableId
+     *            The table ID.
+     *
+     * @return The hosted table.
+     *
+     * @throws IllegalArgumentException
+     *             If the table does not exist.
+     */
+    private HostedTable getTable(int tableId) {
+        HostedTable hostedTable = tables.get(tableId);
+        if (hostedTable == null) {
+            throw new IllegalArgumentException("Invalid table ID: " + tableId);
+        }
+        return hostedTable;
+    }
+
+    /**
+     * The application's entry point. <br />
+     * <br />
+     *
+     * Hosts a number of tables with dummy bots for a while and reports the
+     * throughput.
+     *
+     * @param args
+     *            The command line arguments: the number of tables and the
+     *            number of seconds (both optional).
+     */
+    public static void main(String[] args) {
+        int noOfTables = (args.length > 0) ? Integer.parseInt(args[0]) : 5000;
+        int seconds = (args.length > 1) ? Integer.parseInt(args[1]) : 10;
+        GameServer server = new GameServer();
+        for (int i = 0; i < noOfTables; i++) {
+            int tableId = server.createTable(TableType.NO_LIMIT, 10);
+            for (int j = 0; j < 6; j++) {
+                server.seatPlayer(tableId, "Dummy" + j, 10000, new DummyBot());
+            }
+        }
+        long startTime = System.nanoTime();
+        try {
+            Thread.sleep(seconds * 1000L);
+        } catch (InterruptedException e) {
+            // Ignore.
+        }
+        long hands = server.getNoOfHands();
+        double duration = (System.nanoTime() - startTime) / 1.0e9;
+        server.shutdown(1000L);
+        System.out.format("%d tables, %d hands in %.1f s (%.0f hands/s), %d failed tables\n", noOfTables, hands,
+                duration, hands / duration, server.getNoOfFailedTables());
+    }
+
+    /**
+     * A table hosted by the server, played in slices on the server's threads.
+     */
+    private class HostedTable implements Runnable {
+
+        /** The table ID. */
+        private final int tableId;
+
+        /** The table. */
+        private final Table table;
+
+        /** The size of the big blind. */
+        private final int bigBlind;
+
+        /** The players waiting to join. */
+        private final Queue<Player> arrivals;
+
+        /** The players waiting to leave. */
+        private final Queue<Player> departures;
+
+        /** Whether the table is to be closed. */
+        private volatile boolean isClosed = false;
+
+        /** The number of seated players. */
+        private volatile int noOfPlayers = 0;
+
+        /** Whether the table is scheduled or being played. */
+        private boolean isScheduled = false;
+
+        /**
+         * Constructor.
+         *
+         * @param tableId
+         *            The table ID.
+         * @param table
+         *            The table.
+         * @param bigBlind
+         *            The size of the big blind.
+         */
+        public HostedTable(int tableId, Table table, int bigBlind) {
+            this.tableId = tableId;
+            this.table = table;
+            this.bigBlind = bigBlind;
+            arrivals = new ConcurrentLinkedQueue<Player>();
+            departures = new ConcurrentLinkedQueue<Player>();
+        }
+
+        /**
+         * Schedules a slice, unless already scheduled.
+         */
+        public void schedule() {
+            synchronized (this) {
+                if (isScheduled) {
+                    return;
+                }
+                isScheduled = true;
+            }
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                // Server is shut down.
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void run() {
+            try {
+                if (isClosed || executor.isShutdown()) {
+                    close();
+                    return;
+                }
+                List<Player> players = table.getPlayers();
+                updatePlayers(players);
+                int hand = 0;
+                while (hand < handsPerSlice && players.size() > 1 && !isClosed) {
+                    table.playHand();
+                    hand++;
+                    updatePlayers(players);
+                }
+                noOfHands.addAndGet(hand);
+            } catch (RuntimeException e) {
+                // Isolate the failure to this table.
+                e.printStackTrace();
+                noOfFailedTables.incrementAndGet();
+                close();
+                return;
+            }
+            boolean isReady;
+            synchronized (this) {
+                isScheduled = false;
+                isReady = isClosed || !arrivals.isEmpty() || !departures.isEmpty() || table.getPlayers().size() > 1;
+            }
+            if (isReady) {
+                schedule();
+            }
+        }
+
+        /**
+         * Seats the arriving players and removes the departing and busted
+         * players.
+         *
+         * @param players
+         *            The players at the table.
+         */
+        private void updatePlayers(List<Player> players) {
+            Player player;
+            while ((player = departures.poll()) != null) {
+                if (!arrivals.remove(player)) {
+                    table.removePlayer(player);
+                }
+            }
+            while ((player = arrivals.poll()) != null) {
+                player.setTimeBank(timeBank);
+                table.seatPlayer(player);
+            }
+            List<Player> bustedPlayers = new ArrayList<Player>();
+            for (Player seatedPlayer : players) {
+                if (seatedPlayer.getCash() < bigBlind) {
+                    bustedPlayers.add(seatedPlayer);
+                }
+            }
+            for (Player bustedPlayer : bustedPlayers) {
+                table.removePlayer(bustedPlayer);
+            }
+            noOfPlayers = players.size();
+        }
+
+        /**
+         * Removes the table from the server.
+         */
+        private void close() {
+            tables.remove(tableId, this);
+            isClosed = true;
+            noOfPlayers = 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,238 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+import java.util.List;
+
+import org.ozsoft.texasholdem.actions.ActionType;
+
+/**
+ * Read-only view of the game state at a decision, passed to
+ * {@link Client#act(GameState)}. <br />
+ * <br />
+ * 
+ * The view is backed by the table's own state without any copying, so it is
+ * only valid during the call; a client that needs information afterwards
+ * must copy it. Only when the table has a time limit, the client gets a
+ * detached copy, because it may still be reading after it timed out. <br />
+ * <br />
+ * 
+ * Players are referred to by their seat: their index in the list of players
+ * passed to {@link Client#joinedTable(TableType, int, List)}. Only the hole
+ * cards of the acting player are visible.
+ * 
+ * @author Oscar Stigter
+ */
+public interface GameState {
+    
+    /**
+     * Returns the table type.
+     * 
+     * @return The table type.
+     */
+    TableType getTableType();
+    
+    /**
+     * Returns the big blind.
+     * 
+     * @return The big blind.
+     */
+    int getBigBlind();
+    
+    /**
+     * Returns the current betting round.
+     * 
+     * @return The street.
+     */
+    Street getStreet();
+    
+    /**
+     * Returns the community cards.
+     * 
+     * @return The board (unmodifiable).
+     */
+    List<Card> getBoard();
+    
+    /**
+     * Returns the community cards as a card set, so they can be evaluated
+     * without copying.
+     * 
+     * @return The board as a card set (see {@link CardSet}).
+     */
+    long getBoardCards();
+    
+    /**
+     * Returns the total of all pots.
+     * 
+     * @return The pot.
+     */
+    int getPot();
+    
+    /**
+     * Returns the number of pots (the main pot and any side pots).
+     * 
+     * @return The number of pots.
+     */
+    int getNoOfPots();
+    
+    /**
+     * Returns the size of a specific pot.
+     * 
+     * @param index
+     *            The index (0 for the main pot).
+     * 
+     * @return The size of the pot.
+     */
+    int getPot(int index);
+    
+    /**
+     * Returns the minimum bet.
+     * 
+     * @return The minimum bet.
+     */
+    int getMinBet();
+    
+    /**
+     * Returns the current bet.
+     * 
+     * @return The current bet.
+     */
+    int getCurrentBet();
+    
+    /**
+     * Returns the actions the acting player may choose from.
+     * 
+     * @return The allowed actions as a mask (see {@link ActionType#getMask()}).
+     */
+    int getAllowedActions();
+    
+    /**
+     * Returns the hole cards of the acting player.
+     * 
+     * @return The hole cards as a card set (see {@link CardSet}).
+     */
+    long getHoleCards();
+    
+    /**
+     * Returns the number of players (seats) at the table.
+     * 
+     * @return The number of players.
+     */
+    int getNoOfPlayers();
+    
+    /**
+     * Returns the seat of the acting player.
+     * 
+     * @return The seat.
+     */
+    int getActorSeat();
+    
+    /**
+     * Returns the seat of the dealer.
+     * 
+     * @return The seat.
+     */
+    int getDealerSeat();
+    
+    /**
+     * Indicates whether the acting player is the dealer (acts last after the
+     * flop).
+     * 
+     * @return True if the dealer, otherwise false.
+     */
+    boolean isDealer();
+    
+    /**
+     * Returns the name of a player.
+     * 
+     * @param seat
+     *            The seat.
+     * 
+     * @return The name.
+     */
+    String getName(int seat);
+    
+    /**
+     * Returns the stack of a player.
+     * 
+     * @param seat
+     *            The seat.
+     * 
+     * @return The amount of cash.
+     */
+    int getCash(int seat);
+    
+    /**
+     * Returns the current bet of a player.
+     * 
+     * @param seat
+     *            The seat.
+     * 
+     * @return The bet.
+     */
+    int getBet(int seat);
+    
+    /**
+     * Indicates whether a player is still in the hand (has not folded).
+     * 
+     * @param seat
+     *            The seat.
+     * 
+     * @return True if in the hand, otherwise false.
+     */
+    boolean isActive(int seat);
+    
+    /**
+     * Returns the number of actions in the current hand so far, including
+     * the blinds.
+     * 
+     * @return The number of actions.
+     */
+    int getNoOfActions();
+    
+    /**
+     * Returns the seat of the player of an action in the current hand.
+     * 
+     * @param index
+     *            The index of the action.
+     * 
+     * @return The seat.
+     */
+    int getActionSeat(int index);
+    
+    /**
+     * Returns the street of an action in the current hand.
+     * 
+     * @param index
+     *            The index of the action.
+     * 
+     * @return The street.
+     */
+    Street getActionStreet(int index);
+    
+    /**
+     * Returns an action in the current hand.
+     * 
+     * @param index
+     *            The index of the action.
+     * 
+     * @return The action code (see {@link ActionType#toCode(int)}).
+     */
+    long getAction(int index);
+    
+}
@@ -18,6 +18,8 @@
 package org.ozsoft.texasholdem;
 
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * A generic hand of game cards. <br />
@@ -25,21 +27,24 @@ import java.util.Collection;
  * 
  * The cards are ordered highest to lowest. <br />
  * <br />
+ * 
+ * The cards are kept as a card set (see {@link CardSet}), so adding a card
+ * takes constant time and the cards are sorted by scanning the bits from the
+ * highest. {@link #getCardSet()} and {@link #iterator()} give read-only access
+ * without copying the cards. <br />
+ * <br />
  *
  * <b>NOTE:</b> This class is implemented with the focus on performance (instead of clean design).
  * 
  * @author Oscar Stigter
  */
-public class Hand {
+public class Hand implements Iterable<Card> {
     
     /** The maximum number of cards in a hand. */
     private static final int MAX_NO_OF_CARDS = 7;
     
-    /** The cards in this hand. */
-    private Card[] cards = new Card[MAX_NO_OF_CARDS];
-    
-    /** The current number of cards in this hand. */
-    private int noOfCards = 0;
+    /** The cards in this hand as a card set. */
+    private long cardSet = CardSet.EMPTY;
     
     private Card[] holeCards = new Card[2];
     
@@ -104,7 +109,7 @@ public class Hand {
             throw new IllegalArgumentException("Too many cards in hand");
         }
         for (String part : parts) {
-            addCard(new Card(part));
+            addCard(Card.parse(part));
         }
     }
     
@@ -114,53 +119,47 @@ public class Hand {
      * @return The number of cards.
      */
     public int size() {
-        return noOfCards;
+        return Long.bitCount(cardSet);
     }
     
     /**
      * Adds a single card.
      * 
-     * The card is inserted at such a position that the hand remains sorted
-     * (highest ranking cards first).
+     * The hand remains sorted (highest ranking cards first).
      * 
      * @param card
      *            The card to add.
      * 
      * @throws IllegalArgumentException
-     *             If the card is null.
+     *             If the card is null or already in the hand, or the hand is
+     *             full.
      */
     public void addCard(Card card) {
         if (card == null) {
             throw new IllegalArgumentException("Null card");
         }
-        
-        int insertIndex = -1;
-        for (int i = 0; i < noOfCards; i++) {
-            if (card.compareTo(cards[i]) > 0) {
-                insertIndex = i;
-                break;
-            }
+        long bit = CardSet.of(card);
+        if ((cardSet & bit) != 0L) {
+            throw new IllegalArgumentException("Duplicate card: " + card);
         }
-        if (insertIndex == -1) {
-            // Could not insert anywhere, so append at the end.
-            cards[noOfCards++] = card;
-        } else {
-            for (int i = noOfCards; i > insertIndex; i--) {
-                cards[i] = cards[i - 1];
-            }
-            cards[insertIndex] = card;
-            noOfCards++;
+        if (Long.bitCount(cardSet) >= MAX_NO_OF_CARDS) {
+            throw new IllegalArgumentException("Too many cards");
         }
+        cardSet |= bit;
     }
     
     /**
      * Adds multiple cards.
      * 
-     * The cards are inserted at such a position that the hand remains sorted
-     * (highest ranking cards first).
+     * The hand remains sorted (highest ranking cards first). The first two
+     * cards are also kept as the hole cards (see {@link #getHole()}).
      * 
      * @param cards
      *            The cards to add.
+     * 
+     * @throws IllegalArgumentException
+     *             If the array or a card is null, a card is already in the
+     *             hand, or the hand would hold more than 7 cards.
      */
     public void addCards(Card[] cards) {
         if (cards == null) {
@@ -183,11 +182,14 @@ public class Hand {
     /**
      * Adds multiple cards.
      * 
-     * The cards are inserted at such a position that the hand remains sorted
-     * (highest ranking cards first).
+     * The hand remains sorted (highest ranking cards first).
      * 
      * @param cards
      *            The cards to add.
+     * 
+     * @throws IllegalArgumentException
+     *             If the collection or a card is null, a card is already in
+     *             the hand, or the hand would hold more than 7 cards.
      */
     public void addCards(Collection<Card> cards) {
         if (cards == null) {
@@ -202,32 +204,93 @@ public class Hand {
     }
     
     /**
-     * Returns the cards.
+     * Returns a copy of the cards, highest first.
      *
      * @return The cards.
      */
     public Card[] getCards() {
-        Card[] dest = new Card[noOfCards];
-        System.arraycopy(cards, 0, dest, 0, noOfCards);
-        return dest;
+        return CardSet.toCards(cardSet);
+    }
+    
+    /**
+     * Returns the cards as a card set.
+     * 
+     * @return The card set.
+     */
+    public long getCardSet() {
+        return cardSet;
+    }
+    
+    /**
+     * Indicates whether the hand contains a specific card.
+     * 
+     * @param card
+     *            The card.
+     * 
+     * @return True if the hand contains the card, otherwise false.
+     */
+    public boolean contains(Card card) {
+        return (cardSet & CardSet.of(card)) != 0L;
+    }
+    
+    /**
+     * Returns a read-only iterator over the cards, highest first. <br />
+     * <br />
+     * 
+     * The iterator works on the cards at the moment it is created; cards added
+     * later are not included.
+     * 
+     * @return The iterator.
+     */
+    @Override
+    public Iterator<Card> iterator() {
+        return new Iterator<Card>() {
+            
+            /** The cards not yet returned. */
+            private long remaining = cardSet;
+            
+            /** {@inheritDoc} */
+            @Override
+            public boolean hasNext() {
+                return remaining != 0L;
+            }
+            
+            /** {@inheritDoc} */
+            @Override
+            public Card next() {
+                if (remaining == 0L) {
+                    throw new NoSuchElementException();
+                }
+                int index = 63 - Long.numberOfLeadingZeros(remaining);
+                remaining &= ~(1L << index);
+                return Card.of(index);
+            }
+            
+            /** {@inheritDoc} */
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Read-only");
+            }
+            
+        };
     }
     
     /**
      * Removes all cards.
      */
     public void removeAllCards() {
-        noOfCards = 0;
+        cardSet = CardSet.EMPTY;
     }
     
     /** {@inheritDoc} */
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < noOfCards; i++) {
-            sb.append(cards[i]);
-            if (i < (noOfCards - 1)) {
+        for (Card card : this) {
+            if (sb.length() > 0) {
                 sb.append(' ');
             }
+            sb.append(card);
         }
         return sb.toString();
     }
@@ -211,7 +211,12 @@ public class HandEvaluator {
             if (rankDist[i] == 4) {
                 quadRank = i;
             } else if (rankDist[i] == 3) {
-                tripleRank = i;
+                if (tripleRank == -1) {
+                    tripleRank = i;
+                } else if (noOfPairs < MAX_NO_OF_PAIRS) {
+                    // A second (lower) triple counts as a pair (Full House).
+                    pairs[noOfPairs++] = i;
+                }
             } else if (rankDist[i] == 2) {
                 if (noOfPairs < MAX_NO_OF_PAIRS) {
                     pairs[noOfPairs++] = i;
@@ -485,48 +490,29 @@ public class HandEvaluator {
      * @return True if this hand contains a Straight Flush.
      */
     private boolean isStraightFlush() {
-        if (straightRank != -1 && flushRank == straightRank) {
+        if (straightRank != -1 && flushSuit != -1) {
             // Flush and Straight (possibly separate); check for Straight Flush.
-            int straightRank2 = -1;
-            int lastSuit = -1;
-            int lastRank = -1;
-            int inStraight = 1;
-            int inFlush = 1;
+            boolean[] flushRanks = new boolean[Card.NO_OF_RANKS];
             for (Card card : cards) {
-                int rank = card.getRank();
-                int suit = card.getSuit();
-                if (lastRank != -1) {
-                    int rankDiff = lastRank - rank;
-                    if (rankDiff == 1) {
-                        // Consecutive rank; possible straight!
-                        inStraight++;
-                        if (straightRank2 == -1) {
-                            straightRank2 = lastRank;
-                        }
-                        if (suit == lastSuit) {
-                            inFlush++;
-                        } else {
-                            inFlush = 1;
-                        }
-                        if (inStraight >= 5 && inFlush >= 5) {
-                            // Straight!
-                            break;
-                        }
-                    } else if (rankDiff == 0) {
-                        // Duplicate rank; skip.
-                    } else {
-                        // Non-consecutive; reset.
-                        straightRank2 = -1;
-                        inStraight = 1;
-                        inFlush = 1;
+                if (card.getSuit() == flushSuit) {
+                    flushRanks[card.getRank()] = true;
+                }
+            }
+            int straightRank2 = -1;
+            int count = 0;
+            for (int i = Card.NO_OF_RANKS - 1; i >= 0 && count < 5; i--) {
+                if (flushRanks[i]) {
+                    if (count == 0) {
+                        straightRank2 = i;
                     }
+                    count++;
+                } else {
+                    count = 0;
                 }
-                lastRank = rank;
-                lastSuit = suit;
             }
             
-            if (inStraight >= 5 && inFlush >= 5) {
-                if (straightRank == Card.ACE) {
+            if (count >= 5) {
+                if (straightRank2 == Card.ACE) {
                     // Royal Flush.
                     type = HandValueType.ROYAL_FLUSH;
                     rankings[0] = type.getValue();
@@ -538,7 +524,7 @@ public class HandEvaluator {
                     rankings[1] = straightRank2;
                     return true;
                 }
-            } else if (wheelingAce && inStraight >= 4 && inFlush >= 4) {
+            } else if (count == 4 && straightRank2 == Card.FIVE && flushRanks[Card.ACE]) {
                 // Steel Wheel (Straight Flush with wheeling Ace).
                 type = HandValueType.STRAIGHT_FLUSH;
                 rankings[0] = type.getValue();
@@ -0,0 +1,60 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+/**
+ * Supported hand evaluator implementations. <br />
+ * <br />
+ * 
+ * All implementations produce the same hand values.
+ * 
+ * @author Oscar Stigter
+ */
+public enum HandEvaluatorType {
+    
+    /** The original evaluator, analyzing the cards ({@link HandEvaluator}). */
+    CLASSIC("Classic"),
+    
+    /** The table-driven evaluator ({@link LookupHandEvaluator}). */
+    LOOKUP_TABLE("Lookup table"),
+    
+    ;
+    
+    /** Display name. */
+    private String name;
+    
+    /**
+     * Constructor.
+     * 
+     * @param name
+     *            The display name.
+     */
+    HandEvaluatorType(String name) {
+        this.name = name;
+    }
+    
+    /**
+     * Returns the display name.
+     * 
+     * @return The display name.
+     */
+    public String getName() {
+        return name;
+    }
+
+}
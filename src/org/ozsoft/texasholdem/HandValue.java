@@ -37,17 +37,62 @@ public class HandValue implements Comparable<HandValue> {
     /** The exact, numeric hand value. */
     private final int value;
     
+    /** The best cards (determined on request). */
+    private Card[] bestCards;
+    
+    /** The hand evaluator used by default. */
+    private static volatile HandEvaluatorType defaultEvaluatorType = HandEvaluatorType.LOOKUP_TABLE;
+    
     /**
-     * Constructor.
+     * Constructor, using the default hand evaluator.
      * 
      * @param hand
      *            The hand.
      */
     public HandValue(Hand hand) {
+	this(hand, defaultEvaluatorType);
+    }
+    
+    /**
+     * Constructor.
+     * 
+     * @param hand
+     *            The hand.
+     * @param evaluatorType
+     *            The hand evaluator to use.
+     */
+    public HandValue(Hand hand, HandEvaluatorType evaluatorType) {
 	this.hand = hand;
-	HandEvaluator evaluator = new HandEvaluator(hand);
-	type = evaluator.getType();
-	value = evaluator.getValue();
+	if (evaluatorType == HandEvaluatorType.LOOKUP_TABLE) {
+	    value = LookupHandEvaluator.evaluate(hand.getCardSet());
+	    type = LookupHandEvaluator.getType(value);
+	} else {
+	    HandEvaluator evaluator = new HandEvaluator(hand);
+	    type = evaluator.getType();
+	    value = evaluator.getValue();
+	}
+    }
+    
+    /**
+     * Returns the hand evaluator used by default.
+     * 
+     * @return The default hand evaluator.
+     */
+    public static HandEvaluatorType getDefaultEvaluatorType() {
+	return defaultEvaluatorType;
+    }
+    
+    /**
+     * Sets the hand evaluator used by default.
+     * 
+     * @param evaluatorType
+     *            The default hand evaluator.
+     */
+    public static void setDefaultEvaluatorType(HandEvaluatorType evaluatorType) {
+	if (evaluatorType == null) {
+	    throw new IllegalArgumentException("Null evaluator type");
+	}
+	defaultEvaluatorType = evaluatorType;
     }
     
     /**
@@ -86,6 +131,22 @@ public class HandValue implements Comparable<HandValue> {
 	return value;
     }
     
+    /**
+     * Returns the cards that form the hand value, i.e. the best five cards
+     * (or all cards for smaller hands), the most significant first. <br />
+     * <br />
+     * 
+     * The cards are only determined on the first request.
+     * 
+     * @return The best cards.
+     */
+    public Card[] getBestCards() {
+	if (bestCards == null) {
+	    bestCards = LookupHandEvaluator.getBestCards(hand.getCardSet());
+	}
+	return bestCards.clone();
+    }
+    
     /** {@inheritDoc} */
     @Override
     public int hashCode() {
@@ -0,0 +1,267 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+/**
+ * Evaluator state prepared for a set of known cards, which can be extended
+ * with one or two more cards in constant time. <br />
+ * <br />
+ *
+ * Intended for enumerating board runouts: the known cards (e.g. the hole cards
+ * and the flop) are processed once, after which each runout only costs a few
+ * additions and a table lookup in {@link LookupHandEvaluator}. <br />
+ * <br />
+ *
+ * Cards are identified by their index, which is the card's hash code
+ * (<code>rank * 4 + suit</code>), as in {@link CardSet}. Instances are
+ * immutable. <br />
+ * <br />
+ *
+ * <b>NOTE:</b> This class is implemented with the focus on performance (instead of clean design).
+ *
+ * @author Oscar Stigter
+ */
+public class IncrementalHandEvaluator {
+
+    /** Mask for the ranks of a single suit in the suit ranks. */
+    private static final int RANK_MASK = (1 << Card.NO_OF_RANKS) - 1;
+
+    /** The known cards. */
+    private final long cards;
+
+    /** The sum of the card keys. */
+    private final int key;
+
+    /** The number of cards per suit (one nibble per suit). */
+    private final int suitCounter;
+
+    /** The ranks per suit (16 bits per suit). */
+    private final long suitRanks;
+
+    /**
+     * Constructor.
+     *
+     * @param cards
+     *            The known cards as a card set.
+     *
+     * @throws IllegalArgumentException
+     *             If there are too many cards.
+     */
+    public IncrementalHandEvaluator(long cards) {
+        if (Long.bitCount(cards) > LookupHandEvaluator.MAX_NO_OF_CARDS) {
+            throw new IllegalArgumentException("Too many cards");
+        }
+        int key = 0;
+        int suitCounter = LookupHandEvaluator.SUIT_COUNTER_BASE;
+        long suitRanks = 0L;
+        for (long mask = cards; mask != 0L; mask &= mask - 1L) {
+            int card = Long.numberOfTrailingZeros(mask);
+            key += LookupHandEvaluator.CARD_KEYS[card];
+            suitCounter += suitIncrement(card);
+            suitRanks |= suitRank(card);
+        }
+        this.cards = cards;
+        this.key = key;
+        this.suitCounter = suitCounter;
+        this.suitRanks = suitRanks;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param cards
+     *            The known cards.
+     *
+     * @throws IllegalArgumentException
+     *             If there are too many cards.
+     */
+    public IncrementalHandEvaluator(Card[] cards) {
+        this(CardSet.of(cards));
+    }
+
+    /**
+     * Constructor for an extended state.
+     *
+     * @param cards
+     *            The known cards.
+     * @param key
+     *            The sum of the card keys.
+     * @param suitCounter
+     *            The number of cards per suit.
+     * @param suitRanks
+     *            The ranks per suit.
+     */
+    private IncrementalHandEvaluator(long cards, int key, int suitCounter, long suitRanks) {
+        this.cards = cards;
+        this.key = key;
+        this.suitCounter = suitCounter;
+        this.suitRanks = suitRanks;
+    }
+
+    /**
+     * Returns the known cards.
+     *
+     * @return The known cards as a card set.
+     */
+    public long getCards() {
+        return cards;
+    }
+
+    /**
+     * Returns the number of known cards.
+     *
+     * @return The number of known cards.
+     */
+    public int size() {
+        return Long.bitCount(cards);
+    }
+
+    /**
+     * Indicates whether a card is one of the known cards.
+     *
+     * @param card
+     *            The card index.
+     *
+     * @return True if the card is known, otherwise false.
+     */
+    public boolean contains(int card) {
+        return (cards & (1L << card)) != 0L;
+    }
+
+    /**
+     * Returns a state with one more known card.
+     *
+     * @param card
+     *            The card index; must not be known already.
+     *
+     * @return The extended state.
+     *
+     * @throws IllegalArgumentException
+     *             If the card is already known or there would be too many cards.
+     */
+    public IncrementalHandEvaluator extend(int card) {
+        if (contains(card)) {
+            throw new IllegalArgumentException("Duplicate card");
+        }
+        if (size() >= LookupHandEvaluator.MAX_NO_OF_CARDS) {
+            throw new IllegalArgumentException("Too many cards");
+        }
+        return new IncrementalHandEvaluator(cards | (1L << card), key + LookupHandEvaluator.CARD_KEYS[card],
+                suitCounter + suitIncrement(card), suitRanks | suitRank(card));
+    }
+
+    /**
+     * Returns the value of the known cards.
+     *
+     * @return The hand value.
+     */
+    public int evaluate() {
+        return evaluate(key, suitCounter, suitRanks);
+    }
+
+    /**
+     * Returns the value of the known cards plus one extra card. <br />
+     * <br />
+     *
+     * For performance reasons the card is not validated; it must not be known
+     * already and the total number of cards must not exceed 7.
+     *
+     * @param card
+     *            The index of the extra card.
+     *
+     * @return The hand value.
+     */
+    public int evaluate(int card) {
+        return evaluate(key + LookupHandEvaluator.CARD_KEYS[card], suitCounter + suitIncrement(card),
+                suitRanks | suitRank(card));
+    }
+
+    /**
+     * Returns the value of the known cards plus two extra cards. <br />
+     * <br />
+     *
+     * For performance reasons the cards are not validated; they must be
+     * different, not known already and the total number of cards must not
+     * exceed 7.
+     *
+     * @param card1
+     *            The index of the first extra card.
+     * @param card2
+     *            The index of the second extra card.
+     *
+     * @return The hand value.
+     */
+    public int evaluate(int card1, int card2) {
+        return evaluate(key + LookupHandEvaluator.CARD_KEYS[card1] + LookupHandEvaluator.CARD_KEYS[card2],
+                suitCounter + suitIncrement(card1) + suitIncrement(card2),
+                suitRanks | suitRank(card1) | suitRank(card2));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return CardSet.toString(cards);
+    }
+
+    /**
+     * Returns the value of a hand from its evaluation state.
+     *
+     * @param key
+     *            The sum of the card keys.
+     * @param suitCounter
+     *            The number of cards per suit.
+     * @param suitRanks
+     *            The ranks per suit.
+     *
+     * @return The hand value.
+     */
+    private static int evaluate(int key, int suitCounter, long suitRanks) {
+        int flush = suitCounter & LookupHandEvaluator.SUIT_COUNTER_FLUSH;
+        if (flush != 0) {
+            int flushSuit = Integer.numberOfTrailingZeros(flush) >>> 2;
+            return LookupHandEvaluator.lookupFlush((int) (suitRanks >>> (flushSuit << 4)) & RANK_MASK);
+        } else {
+            return LookupHandEvaluator.lookup(key);
+        }
+    }
+
+    /**
+     * Returns the suit counter increment of a card.
+     *
+     * @param card
+     *            The card index.
+     *
+     * @return The suit counter increment.
+     */
+    private static int suitIncrement(int card) {
+        return 1 << ((card & 3) << 2);
+    }
+
+    /**
+     * Returns the suit ranks bit of a card.
+     *
+     * @param card
+     *            The card index.
+     *
+     * @return The suit ranks bit.
+     */
+    private static long suitRank(int card) {
+        return 1L << (((card & 3) << 4) + (card >>> 2));
+    }
+
+}
@@ -0,0 +1,706 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Table-driven evaluator for hands of up to 7 cards. <br />
+ * <br />
+ *
+ * Produces exactly the same numeric values as {@link HandEvaluator}, so both
+ * can be mixed freely, but without allocating any objects per evaluation. <br />
+ * <br />
+ *
+ * Each rank has an additive key, chosen such that the sum of the keys of any
+ * multiset of up to 7 ranks is unique. The value of every rank multiset is
+ * precomputed and stored in a table, compressed with a perfect hash on the
+ * key sum. Flushes are looked up separately by the 13-bit rank mask of the
+ * flushing suit. With at most 7 cards a flush rules out a Full House or
+ * Four of a Kind, so only one of both tables has to be consulted. <br />
+ * <br />
+ *
+ * <b>NOTE:</b> This class is implemented with the focus on performance (instead of clean design).
+ *
+ * @author Oscar Stigter
+ */
+public abstract class LookupHandEvaluator {
+
+    /** The maximum number of cards in a hand. */
+    public static final int MAX_NO_OF_CARDS = 7;
+
+    /** The number of cards that form the hand value. */
+    public static final int HAND_SIZE = 5;
+
+    /** The ranking factors (powers of 13, the number of ranks). */
+    private static final int[] RANKING_FACTORS = {371293, 28561, 2197, 169, 13, 1};
+
+    /** The additive key per rank (unique sums for up to 7 cards). */
+    private static final int[] RANK_KEYS = {
+        0, 1, 5, 22, 98, 453, 2031, 8698, 22854, 83661, 262349, 636345, 1479181
+    };
+
+    /** Key increment per card, keeping rank sums of different sizes apart. */
+    private static final int CARD_KEY = 1 << 23;
+
+    /** The key of each card, indexed by its hash code (rank * 4 + suit). */
+    /* package */ static final int[] CARD_KEYS = new int[Card.NO_OF_RANKS * Card.NO_OF_SUITS];
+
+    /** Number of bits of the perfect hash bucket index. */
+    private static final int BUCKET_BITS = 15;
+
+    /** Number of bits of the rank table index. */
+    private static final int TABLE_BITS = 17;
+
+    /** Mask for the rank table index. */
+    private static final int TABLE_MASK = (1 << TABLE_BITS) - 1;
+
+    /** Multiplier hashing a key to its bucket. */
+    private static final int BUCKET_MULTIPLIER = 0x9E3779B1;
+
+    /** Multiplier hashing a key to its slot within the rank table. */
+    private static final int SLOT_MULTIPLIER = 0x85EBCA6B;
+
+    /** Perfect hash displacement per bucket. */
+    private static final int[] DISPLACEMENTS = new int[1 << BUCKET_BITS];
+
+    /** Index into {@link #VALUES} per hashed rank multiset. */
+    private static final short[] RANK_TABLE;
+
+    /** The distinct non-flush hand values. */
+    private static final int[] VALUES;
+
+    /** The hand value per 13-bit rank mask of a flushing suit. */
+    private static final int[] FLUSH_TABLE = new int[1 << Card.NO_OF_RANKS];
+
+    /** The hand value types, indexed by their value. */
+    private static final HandValueType[] TYPES = new HandValueType[HandValueType.ROYAL_FLUSH.getValue() + 1];
+
+    /** Suit counter start value; a nibble reaches 8 with 5 cards of a suit. */
+    /* package */ static final int SUIT_COUNTER_BASE = 0x3333;
+
+    /** Mask detecting a flush in the suit counter. */
+    /* package */ static final int SUIT_COUNTER_FLUSH = 0x8888;
+
+    static {
+        for (HandValueType type : HandValueType.values()) {
+            TYPES[type.getValue()] = type;
+        }
+        for (int rank = 0; rank < Card.NO_OF_RANKS; rank++) {
+            for (int suit = 0; suit < Card.NO_OF_SUITS; suit++) {
+                CARD_KEYS[rank * Card.NO_OF_SUITS + suit] = RANK_KEYS[rank] + CARD_KEY;
+            }
+        }
+        for (int mask = 0; mask < FLUSH_TABLE.length; mask++) {
+            if (Integer.bitCount(mask) >= 5) {
+                FLUSH_TABLE[mask] = calculateFlushValue(mask);
+            }
+        }
+
+        // Enumerate all rank multisets with up to 7 cards.
+        int noOfKeys = countMultisets(0, 0);
+        int[] keys = new int[noOfKeys];
+        int[] values = new int[noOfKeys];
+        int[] counts = new int[Card.NO_OF_RANKS];
+        fillMultisets(0, 0, 0, counts, keys, values, new int[1]);
+
+        // Assign an index to each distinct value.
+        int[] distinct = values.clone();
+        Arrays.sort(distinct);
+        int noOfDistinct = 0;
+        for (int i = 0; i < distinct.length; i++) {
+            if (i == 0 || distinct[i] != distinct[i - 1]) {
+                distinct[noOfDistinct++] = distinct[i];
+            }
+        }
+        VALUES = Arrays.copyOf(distinct, noOfDistinct);
+
+        // Build the perfect hash (hash and displace), placing the fullest buckets first.
+        int[] bucketSizes = new int[DISPLACEMENTS.length];
+        for (int key : keys) {
+            bucketSizes[bucket(key)]++;
+        }
+        int[][] buckets = new int[DISPLACEMENTS.length][];
+        for (int bucket = 0; bucket < buckets.length; bucket++) {
+            buckets[bucket] = new int[bucketSizes[bucket]];
+            bucketSizes[bucket] = 0;
+        }
+        for (int key : keys) {
+            int bucket = bucket(key);
+            buckets[bucket][bucketSizes[bucket]++] = baseSlot(key);
+        }
+        final int[][] bucketSlots = buckets;
+        Integer[] order = new Integer[buckets.length];
+        for (int bucket = 0; bucket < buckets.length; bucket++) {
+            order[bucket] = bucket;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer bucket1, Integer bucket2) {
+                return bucketSlots[bucket2].length - bucketSlots[bucket1].length;
+            }
+        });
+        boolean[] used = new boolean[1 << TABLE_BITS];
+        for (int bucket : order) {
+            int[] slots = buckets[bucket];
+            int displacement = 0;
+            boolean fits = false;
+            while (!fits) {
+                if (displacement > TABLE_MASK) {
+                    throw new IllegalStateException("Could not build perfect hash");
+                }
+                fits = true;
+                for (int i = 0; i < slots.length && fits; i++) {
+                    int slot = (slots[i] + displacement) & TABLE_MASK;
+                    // Also reject equal base slots within the bucket.
+                    for (int j = 0; j < i && fits; j++) {
+                        fits = (slots[j] != slots[i]);
+                    }
+                    fits = fits && !used[slot];
+                }
+                if (!fits) {
+                    displacement++;
+                }
+            }
+            for (int slot : slots) {
+                used[(slot + displacement) & TABLE_MASK] = true;
+            }
+            DISPLACEMENTS[bucket] = displacement;
+        }
+        RANK_TABLE = new short[1 << TABLE_BITS];
+        for (int i = 0; i < noOfKeys; i++) {
+            RANK_TABLE[slot(keys[i])] = (short) Arrays.binarySearch(VALUES, values[i]);
+        }
+    }
+
+    /**
+     * Returns the value of a hand.
+     *
+     * @param cards
+     *            The cards (at most 7).
+     *
+     * @return The hand value, equal to {@link HandEvaluator#getValue()}.
+     *
+     * @throws IllegalArgumentException
+     *             If there are too many cards.
+     */
+    public static int evaluate(Card[] cards) {
+        if (cards.length > MAX_NO_OF_CARDS) {
+            throw new IllegalArgumentException("Too many cards");
+        }
+        int key = 0;
+        int suitCounter = SUIT_COUNTER_BASE;
+        for (Card card : cards) {
+            key += CARD_KEYS[card.hashCode()];
+            suitCounter += 1 << (card.getSuit() << 2);
+        }
+        if ((suitCounter & SUIT_COUNTER_FLUSH) != 0) {
+            int flushSuit = Integer.numberOfTrailingZeros(suitCounter & SUIT_COUNTER_FLUSH) >>> 2;
+            int flushMask = 0;
+            for (Card card : cards) {
+                if (card.getSuit() == flushSuit) {
+                    flushMask |= 1 << card.getRank();
+                }
+            }
+            return FLUSH_TABLE[flushMask];
+        } else {
+            return VALUES[RANK_TABLE[slot(key)]];
+        }
+    }
+
+    /**
+     * Returns the value of a hand given as a card set, without allocating
+     * any objects.
+     *
+     * @param cards
+     *            The card set (at most 7 cards; see {@link CardSet}).
+     *
+     * @return The hand value, equal to {@link HandEvaluator#getValue()}.
+     *
+     * @throws IllegalArgumentException
+     *             If there are too many cards.
+     */
+    public static int evaluate(long cards) {
+        if (Long.bitCount(cards) > MAX_NO_OF_CARDS) {
+            throw new IllegalArgumentException("Too many cards");
+        }
+        int key = 0;
+        int suitCounter = SUIT_COUNTER_BASE;
+        for (long mask = cards; mask != 0L; mask &= mask - 1L) {
+            int index = Long.numberOfTrailingZeros(mask);
+            key += CARD_KEYS[index];
+            suitCounter += 1 << ((index & 3) << 2);
+        }
+        if ((suitCounter & SUIT_COUNTER_FLUSH) != 0) {
+            int flushSuit = Integer.numberOfTrailingZeros(suitCounter & SUIT_COUNTER_FLUSH) >>> 2;
+            int flushMask = 0;
+            for (long mask = cards & (CardSet.SUIT_MASK << flushSuit); mask != 0L; mask &= mask - 1L) {
+                flushMask |= 1 << (Long.numberOfTrailingZeros(mask) >>> 2);
+            }
+            return FLUSH_TABLE[flushMask];
+        } else {
+            return VALUES[RANK_TABLE[slot(key)]];
+        }
+    }
+
+    /**
+     * Returns the value of a hand without a Flush.
+     *
+     * @param key
+     *            The sum of the card keys.
+     *
+     * @return The hand value.
+     */
+    /* package */ static int lookup(int key) {
+        return VALUES[RANK_TABLE[slot(key)]];
+    }
+
+    /**
+     * Returns the value of a hand with a Flush.
+     *
+     * @param rankMask
+     *            The ranks of the flushing suit.
+     *
+     * @return The hand value.
+     */
+    /* package */ static int lookupFlush(int rankMask) {
+        return FLUSH_TABLE[rankMask];
+    }
+
+    /**
+     * Returns the hand value type of a hand value.
+     *
+     * @param value
+     *            The hand value.
+     *
+     * @return The hand value type.
+     */
+    public static HandValueType getType(int value) {
+        return TYPES[value / RANKING_FACTORS[0]];
+    }
+
+    /**
+     * Returns the cards that form the value of a hand, i.e. the best five
+     * cards (or all cards for smaller hands). <br />
+     * <br />
+     *
+     * The cards are determined with the same rules as the hand value, but only
+     * on request, so evaluating the value alone stays as cheap as before.
+     *
+     * @param cards
+     *            The card set (at most 7 cards; see {@link CardSet}).
+     *
+     * @return The best cards, the most significant first (e.g. the pair
+     *         before the kickers, or the Straight from its highest card).
+     *
+     * @throws IllegalArgumentException
+     *             If there are too many cards.
+     */
+    public static Card[] getBestCards(long cards) {
+        int noOfCards = Long.bitCount(cards);
+        if (noOfCards > MAX_NO_OF_CARDS) {
+            throw new IllegalArgumentException("Too many cards");
+        }
+        Card[] bestCards = new Card[Math.min(noOfCards, HAND_SIZE)];
+
+        // Flush, Straight Flush or Royal Flush.
+        for (int suit = 0; suit < Card.NO_OF_SUITS; suit++) {
+            long suitCards = cards & (CardSet.SUIT_MASK << suit);
+            if (Long.bitCount(suitCards) >= HAND_SIZE) {
+                int rankMask = getRankMask(suitCards);
+                int straightRank = findStraight(rankMask);
+                if (straightRank != -1) {
+                    addStraight(bestCards, suitCards, straightRank);
+                } else {
+                    addKickers(bestCards, 0, suitCards, rankMask, HAND_SIZE);
+                }
+                return bestCards;
+            }
+        }
+
+        // Same classification as calculateValue().
+        int quadRank = -1;
+        int noOfTriples = 0;
+        int noOfPairs = 0;
+        int[] triples = new int[2];
+        int[] pairs = {-1, -1, -1};
+        int rankMask = getRankMask(cards);
+        for (int rank = Card.NO_OF_RANKS - 1; rank >= 0; rank--) {
+            int count = Long.bitCount(getRankCards(cards, rank));
+            if (count == 4) {
+                quadRank = rank;
+            } else if (count == 3) {
+                triples[noOfTriples++] = rank;
+            } else if (count == 2) {
+                pairs[noOfPairs++] = rank;
+            }
+        }
+        int straightRank = findStraight(rankMask);
+        int n;
+        if (quadRank != -1) {
+            n = addRank(bestCards, 0, cards, quadRank, 4);
+            addKickers(bestCards, n, cards, rankMask & ~(1 << quadRank), 1);
+        } else if (noOfTriples > 1) {
+            n = addRank(bestCards, 0, cards, triples[0], 3);
+            addRank(bestCards, n, cards, Math.max(triples[1], pairs[0]), 2);
+        } else if (noOfTriples == 1 && noOfPairs > 0) {
+            n = addRank(bestCards, 0, cards, triples[0], 3);
+            addRank(bestCards, n, cards, pairs[0], 2);
+        } else if (straightRank != -1) {
+            addStraight(bestCards, cards, straightRank);
+        } else if (noOfTriples == 1) {
+            n = addRank(bestCards, 0, cards, triples[0], 3);
+            addKickers(bestCards, n, cards, rankMask & ~(1 << triples[0]), 2);
+        } else if (noOfPairs > 1) {
+            n = addRank(bestCards, 0, cards, pairs[0], 2);
+            n = addRank(bestCards, n, cards, pairs[1], 2);
+            addKickers(bestCards, n, cards, rankMask & ~(1 << pairs[0]) & ~(1 << pairs[1]), 1);
+        } else if (noOfPairs == 1) {
+            n = addRank(bestCards, 0, cards, pairs[0], 2);
+            addKickers(bestCards, n, cards, rankMask & ~(1 << pairs[0]), 3);
+        } else {
+            addKickers(bestCards, 0, cards, rankMask, HAND_SIZE);
+        }
+        return bestCards;
+    }
+
+    /**
+     * Returns the rank table slot of a rank key.
+     *
+     * @param key
+     *            The rank key.
+     *
+     * @return The slot.
+     */
+    private static int slot(int key) {
+        return (baseSlot(key) + DISPLACEMENTS[bucket(key)]) & TABLE_MASK;
+    }
+
+    /**
+     * Returns the perfect hash bucket of a rank key.
+     *
+     * @param key
+     *            The rank key.
+     *
+     * @return The bucket.
+     */
+    private static int bucket(int key) {
+        return (key * BUCKET_MULTIPLIER) >>> (32 - BUCKET_BITS);
+    }
+
+    /**
+     * Returns the rank table slot of a rank key before displacement.
+     *
+     * @param key
+     *            The rank key.
+     *
+     * @return The slot before displacement.
+     */
+    private static int baseSlot(int key) {
+        return (key * SLOT_MULTIPLIER) >>> (32 - TABLE_BITS);
+    }
+
+    /**
+     * Counts the rank multisets with up to 7 cards, starting at a rank.
+     *
+     * @param rank
+     *            The first rank.
+     * @param noOfCards
+     *            The number of cards already used.
+     *
+     * @return The number of multisets.
+     */
+    private static int countMultisets(int rank, int noOfCards) {
+        if (rank == Card.NO_OF_RANKS) {
+            return 1;
+        }
+        int count = 0;
+        for (int n = 0; n <= Card.NO_OF_SUITS && noOfCards + n <= MAX_NO_OF_CARDS; n++) {
+            count += countMultisets(rank + 1, noOfCards + n);
+        }
+        return count;
+    }
+
+    /**
+     * Enumerates the rank multisets with up to 7 cards, storing the key and
+     * value of each.
+     *
+     * @param rank
+     *            The current rank.
+     * @param noOfCards
+     *            The number of cards already used.
+     * @param key
+     *            The key so far.
+     * @param counts
+     *            The number of cards per rank so far.
+     * @param keys
+     *            The keys found.
+     * @param values
+     *            The values found.
+     * @param index
+     *            The next index in the keys and values.
+     */
+    private static void fillMultisets(int rank, int noOfCards, int key, int[] counts, int[] keys, int[] values, int[] index) {
+        if (rank == Card.NO_OF_RANKS) {
+            keys[index[0]] = key;
+            values[index[0]] = calculateValue(counts);
+            index[0]++;
+        } else {
+            for (int n = 0; n <= Card.NO_OF_SUITS && noOfCards + n <= MAX_NO_OF_CARDS; n++) {
+                counts[rank] = n;
+                fillMultisets(rank + 1, noOfCards + n, key + n * (RANK_KEYS[rank] + CARD_KEY), counts, keys, values, index);
+            }
+            counts[rank] = 0;
+        }
+    }
+
+    /**
+     * Calculates the value of a hand without a Flush.
+     *
+     * @param counts
+     *            The number of cards per rank.
+     *
+     * @return The hand value.
+     */
+    private static int calculateValue(int[] counts) {
+        int quadRank = -1;
+        int noOfTriples = 0;
+        int noOfPairs = 0;
+        int[] triples = new int[2];
+        int[] pairs = {-1, -1, -1};
+        int rankMask = 0;
+        for (int rank = Card.NO_OF_RANKS - 1; rank >= 0; rank--) {
+            int count = counts[rank];
+            if (count > 0) {
+                rankMask |= 1 << rank;
+            }
+            if (count == 4) {
+                quadRank = rank;
+            } else if (count == 3) {
+                triples[noOfTriples++] = rank;
+            } else if (count == 2) {
+                pairs[noOfPairs++] = rank;
+            }
+        }
+        int straightRank = findStraight(rankMask);
+        if (quadRank != -1) {
+            return pack(HandValueType.FOUR_OF_A_KIND, quadRank) + kickers(rankMask & ~(1 << quadRank), 2, 1);
+        } else if (noOfTriples > 1) {
+            // Two triples; the lower one counts as the pair.
+            return pack(HandValueType.FULL_HOUSE, triples[0], Math.max(triples[1], pairs[0]));
+        } else if (noOfTriples == 1 && noOfPairs > 0) {
+            return pack(HandValueType.FULL_HOUSE, triples[0], pairs[0]);
+        } else if (straightRank != -1) {
+            return pack(HandValueType.STRAIGHT, straightRank);
+        } else if (noOfTriples == 1) {
+            return pack(HandValueType.THREE_OF_A_KIND, triples[0]) + kickers(rankMask & ~(1 << triples[0]), 2, 2);
+        } else if (noOfPairs > 1) {
+            int kickerMask = rankMask & ~(1 << pairs[0]) & ~(1 << pairs[1]);
+            return pack(HandValueType.TWO_PAIRS, pairs[0], pairs[1]) + kickers(kickerMask, 3, 1);
+        } else if (noOfPairs == 1) {
+            return pack(HandValueType.ONE_PAIR, pairs[0]) + kickers(rankMask & ~(1 << pairs[0]), 2, 3);
+        } else {
+            return pack(HandValueType.HIGH_CARD) + kickers(rankMask, 1, 5);
+        }
+    }
+
+    /**
+     * Calculates the value of a Flush, Straight Flush or Royal Flush.
+     *
+     * @param rankMask
+     *            The ranks of the flushing suit.
+     *
+     * @return The hand value.
+     */
+    private static int calculateFlushValue(int rankMask) {
+        int straightRank = findStraight(rankMask);
+        if (straightRank == Card.ACE) {
+            return pack(HandValueType.ROYAL_FLUSH);
+        } else if (straightRank != -1) {
+            return pack(HandValueType.STRAIGHT_FLUSH, straightRank);
+        } else {
+            return pack(HandValueType.FLUSH) + kickers(rankMask, 1, 5);
+        }
+    }
+
+    /**
+     * Returns the highest rank of a Straight, if any.
+     *
+     * The Ace has the rank of One in case of a Five-high Straight (5-4-3-2-A).
+     *
+     * @param rankMask
+     *            The ranks present.
+     *
+     * @return The highest rank of the Straight, or -1 if there is none.
+     */
+    private static int findStraight(int rankMask) {
+        int run = rankMask & (rankMask << 1) & (rankMask << 2) & (rankMask << 3) & (rankMask << 4);
+        if (run != 0) {
+            return 31 - Integer.numberOfLeadingZeros(run);
+        }
+        int wheel = (1 << Card.ACE) | (1 << Card.DEUCE) | (1 << Card.THREE) | (1 << Card.FOUR) | (1 << Card.FIVE);
+        if ((rankMask & wheel) == wheel) {
+            return Card.FIVE;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the weighted value of the highest ranks in a rank mask.
+     *
+     * @param rankMask
+     *            The ranks.
+     * @param index
+     *            The ranking index of the first (highest) rank.
+     * @param noOfRanks
+     *            The maximum number of ranks to use.
+     *
+     * @return The weighted value of the ranks.
+     */
+    private static int kickers(int rankMask, int index, int noOfRanks) {
+        int value = 0;
+        for (int i = 0; i < noOfRanks && rankMask != 0; i++) {
+            int rank = 31 - Integer.numberOfLeadingZeros(rankMask);
+            value += rank * RANKING_FACTORS[index + i];
+            rankMask &= ~(1 << rank);
+        }
+        return value;
+    }
+
+    /**
+     * Packs a hand value type and its leading rankings into a hand value,
+     * using the same weights as {@link HandEvaluator}.
+     *
+     * @param type
+     *            The hand value type.
+     * @param ranks
+     *            The leading ranks (highest weight first).
+     *
+     * @return The hand value.
+     */
+    private static int pack(HandValueType type, int... ranks) {
+        int value = type.getValue() * RANKING_FACTORS[0];
+        for (int i = 0; i < ranks.length; i++) {
+            value += ranks[i] * RANKING_FACTORS[i + 1];
+        }
+        return value;
+    }
+
+    /**
+     * Returns the ranks present in a card set.
+     *
+     * @param cards
+     *            The card set.
+     *
+     * @return The rank mask.
+     */
+    private static int getRankMask(long cards) {
+        int rankMask = 0;
+        for (long mask = cards; mask != 0L; mask &= mask - 1L) {
+            rankMask |= 1 << (Long.numberOfTrailingZeros(mask) >>> 2);
+        }
+        return rankMask;
+    }
+
+    /**
+     * Returns the cards of a specific rank in a card set.
+     *
+     * @param cards
+     *            The card set.
+     * @param rank
+     *            The rank.
+     *
+     * @return The cards of the rank.
+     */
+    private static long getRankCards(long cards, int rank) {
+        return cards & (0xfL << (rank * Card.NO_OF_SUITS));
+    }
+
+    /**
+     * Adds the cards of a specific rank to the best cards, the highest suit
+     * first.
+     *
+     * @param bestCards
+     *            The best cards.
+     * @param index
+     *            The index of the first card to add.
+     * @param cards
+     *            The card set.
+     * @param rank
+     *            The rank.
+     * @param noOfCards
+     *            The maximum number of cards to add.
+     *
+     * @return The index after the added cards.
+     */
+    private static int addRank(Card[] bestCards, int index, long cards, int rank, int noOfCards) {
+        long rankCards = getRankCards(cards, rank);
+        for (int i = 0; i < noOfCards && rankCards != 0L; i++) {
+            int card = 63 - Long.numberOfLeadingZeros(rankCards);
+            bestCards[index++] = Card.of(card);
+            rankCards &= ~(1L << card);
+        }
+        return index;
+    }
+
+    /**
+     * Adds one card for each of the highest ranks in a rank mask to the best
+     * cards.
+     *
+     * @param bestCards
+     *            The best cards.
+     * @param index
+     *            The index of the first card to add.
+     * @param cards
+     *            The card set.
+     * @param rankMask
+     *            The ranks.
+     * @param noOfRanks
+     *            The maximum number of ranks to use.
+     *
+     * @return The index after the added cards.
+     */
+    private static int addKickers(Card[] bestCards, int index, long cards, int rankMask, int noOfRanks) {
+        for (int i = 0; i < noOfRanks && rankMask != 0; i++) {
+            int rank = 31 - Integer.numberOfLeadingZeros(rankMask);
+            index = addRank(bestCards, index, cards, rank, 1);
+            rankMask &= ~(1 << rank);
+        }
+        return index;
+    }
+
+    /**
+     * Adds the cards of a Straight to the best cards, from its highest card
+     * down (the Ace last in case of a Five-high Straight).
+     *
+     * @param bestCards
+     *            The best cards.
+     * @param cards
+     *            The card set.
+     * @param straightRank
+     *            The highest rank of the Straight.
+     */
+    private static void addStraight(Card[] bestCards, long cards, int straightRank) {
+        int index = 0;
+        for (int rank = straightRank; rank > straightRank - HAND_SIZE; rank--) {
+            index = addRank(bestCards, index, cards, (rank < 0) ? Card.ACE : rank, 1);
+        }
+    }
+
+}
@@ -21,6 +21,7 @@ import java.io.PrintWriter;
 import java.util.List;
 
 import org.ozsoft.texasholdem.actions.Action;
+import org.ozsoft.texasholdem.actions.ActionType;
 
 /**
  * A Texas Hold'em player. <br />
@@ -33,6 +34,9 @@ import org.ozsoft.texasholdem.actions.Action;
  */
 public class Player {
 
+    /** Empty hand shared by all public snapshots. */
+    private static final Hand NO_CARDS = new Hand();
+
     /** Name. */
     private final String name;
 
@@ -51,8 +55,32 @@ public class Player {
     /** Current bet. */
     private int bet;
 
-    /** Last action performed. */
+    /** Kind of the last action performed (null if none). */
+    private ActionType actionType;
+    
+    /** Amount of the last action performed. */
+    private int actionAmount;
+    
+    /** Last action performed, or null if not created yet. */
     private Action action;
+    
+    /** Remaining time bank in milliseconds. */
+    private long timeBank;
+    
+    /** Number of decisions that timed out. */
+    private int noOfTimeouts;
+    
+    /** Whether a timed decision of the client is still running. */
+    private volatile boolean isDeciding;
+    
+    /** Whether this is a read-only public snapshot of another player. */
+    private final boolean isSnapshot;
+    
+    /** Cached public snapshot, or null if the state has changed since. */
+    private Player publicSnapshot;
+    
+    /** Cached private snapshot, or null if the state has changed since. */
+    private Player privateSnapshot;
 
     /**
      * Constructor.
@@ -68,12 +96,108 @@ public class Player {
         this.name = name;
         this.cash = cash;
         this.client = client;
+        isSnapshot = false;
 
         hand = new Hand();
 
         resetHand();
     }
 
+    /**
+     * Constructor for a read-only snapshot of a player.
+     * 
+     * @param player
+     *            The player.
+     * @param isPrivate
+     *            Whether to include the secret information (the client and
+     *            the hole cards).
+     */
+    private Player(Player player, boolean isPrivate) {
+        name = player.name;
+        if (isPrivate) {
+            client = player.client;
+            hand = new Hand();
+            Card[] cards = player.getCards();
+            if (cards.length > 0) {
+                hand.addCards(cards);
+            }
+        } else {
+            client = null;
+            hand = NO_CARDS;
+        }
+        cash = player.cash;
+        hasCards = player.hasCards;
+        bet = player.bet;
+        actionType = player.actionType;
+        actionAmount = player.actionAmount;
+        action = player.action;
+        timeBank = player.timeBank;
+        noOfTimeouts = player.noOfTimeouts;
+        isSnapshot = true;
+    }
+
+    /**
+     * Constructor for a read-only snapshot from its individual fields.
+     * 
+     * @param name
+     *            The player's name.
+     * @param cash
+     *            The amount of cash.
+     * @param bet
+     *            The current bet.
+     * @param actionType
+     *            The kind of the most recent action (may be null).
+     * @param actionAmount
+     *            The amount of the most recent action.
+     * @param hasCards
+     *            Whether the player has hole cards.
+     * @param cards
+     *            The hole cards if known, otherwise null or empty.
+     */
+    private Player(String name, int cash, int bet, ActionType actionType, int actionAmount, boolean hasCards,
+            Card[] cards) {
+        this.name = name;
+        client = null;
+        if (cards != null && cards.length > 0) {
+            hand = new Hand();
+            hand.addCards(cards);
+        } else {
+            hand = NO_CARDS;
+        }
+        this.cash = cash;
+        this.hasCards = hasCards;
+        this.bet = bet;
+        this.actionType = actionType;
+        this.actionAmount = actionAmount;
+        isSnapshot = true;
+    }
+
+    /**
+     * Creates a read-only snapshot of a player from its individual fields,
+     * e.g. to mirror a player at a remote table.
+     * 
+     * @param name
+     *            The player's name.
+     * @param cash
+     *            The amount of cash.
+     * @param bet
+     *            The current bet.
+     * @param actionType
+     *            The kind of the most recent action (may be null).
+     * @param actionAmount
+     *            The amount of the most recent action.
+     * @param hasCards
+     *            Whether the player has hole cards.
+     * @param cards
+     *            The hole cards if known, otherwise null or empty.
+     * 
+     * @return The snapshot.
+     */
+    public static Player createSnapshot(String name, int cash, int bet, ActionType actionType, int actionAmount,
+            boolean hasCards, Card[] cards) {
+        return new Player(name, cash, bet, actionType, actionAmount, hasCards, cards);
+    }
+
     /**
      * Returns the client.
      * 
@@ -87,6 +211,7 @@ public class Player {
      * Prepares the player for another hand.
      */
     public void resetHand() {
+        checkMutable();
         hasCards = false;
         hand.removeAllCards();
         resetBet();
@@ -96,21 +221,30 @@ public class Player {
      * Resets the player's bet.
      */
     public void resetBet() {
+        checkMutable();
         bet = 0;
-        action = (hasCards() && cash == 0) ? Action.ALL_IN : null;
+        setAction((hasCards() && cash == 0) ? ActionType.ALL_IN : null, 0);
     }
 
     /**
      * Sets the hole cards.
+     * 
+     * @param cards
+     *            The hole cards, or null to clear them.
+     * @param writer
+     *            The writer for the hand log, or null for no logging.
      */
     public void setCards(List<Card> cards, PrintWriter writer) {
+        checkMutable();
         hand.removeAllCards();
         if (cards != null) {
             if (cards.size() == 2) {
                 hand.addCards(cards);
                 hasCards = true;
-                System.out.format("[CHEAT] %s's cards:\t%s\n", name, hand);
-                writer.println(String.format("[CHEAT] %s's cards:\t%s", name, hand));
+                if (writer != null) {
+                    System.out.format("[CHEAT] %s's cards:\t%s\n", name, hand);
+                    writer.println(String.format("[CHEAT] %s's cards:\t%s", name, hand));
+                }
             } else {
                 throw new IllegalArgumentException("Invalid number of cards");
             }
@@ -160,6 +294,7 @@ public class Player {
      *            The current bet.
      */
     public void setBet(int bet) {
+        checkMutable();
         this.bet = bet;
     }
 
@@ -169,9 +304,30 @@ public class Player {
      * @return The action.
      */
     public Action getAction() {
+        if (action == null && actionType != null) {
+            action = actionType.getAction(actionAmount);
+        }
         return action;
     }
     
+    /**
+     * Returns the kind of the player's most recent action.
+     * 
+     * @return The kind of action, or null if none.
+     */
+    public ActionType getActionType() {
+        return actionType;
+    }
+    
+    /**
+     * Returns the amount of the player's most recent action.
+     * 
+     * @return The amount (0 if none).
+     */
+    public int getActionAmount() {
+        return actionAmount;
+    }
+    
     /**
      * Sets the player's most recent action.
      * 
@@ -179,8 +335,94 @@ public class Player {
      *            The action.
      */
     public void setAction(Action action) {
+        checkMutable();
+        if (action != null) {
+            actionType = action.getType();
+            actionAmount = action.getAmount();
+        } else {
+            actionType = null;
+            actionAmount = 0;
+        }
         this.action = action;
     }
+    
+    /**
+     * Sets the player's most recent action without allocating an
+     * {@link Action}.
+     * 
+     * @param type
+     *            The kind of action (may be null).
+     * @param amount
+     *            The amount (for a bet or raise).
+     */
+    public void setAction(ActionType type, int amount) {
+        checkMutable();
+        actionType = type;
+        actionAmount = amount;
+        action = null;
+    }
+
+    /**
+     * Returns the player's remaining time bank, the extra time for decisions
+     * exceeding the table's time limit.
+     * 
+     * @return The remaining time bank in milliseconds.
+     */
+    public long getTimeBank() {
+        return timeBank;
+    }
+    
+    /**
+     * Sets the player's remaining time bank.
+     * 
+     * @param timeBank
+     *            The remaining time bank in milliseconds.
+     */
+    /* package */ void setTimeBank(long timeBank) {
+        checkMutable();
+        this.timeBank = timeBank;
+    }
+    
+    /**
+     * Returns the number of decisions that timed out, in which case the
+     * table checked or folded on behalf of the player.
+     * 
+     * @return The number of timeouts.
+     */
+    public int getNoOfTimeouts() {
+        return noOfTimeouts;
+    }
+    
+    /**
+     * Registers a decision that timed out, which also uses up the time bank.
+     */
+    /* package */ void timedOut() {
+        checkMutable();
+        noOfTimeouts++;
+        timeBank = 0L;
+    }
+    
+    /**
+     * Indicates whether a timed decision of the player's client is still
+     * running, possibly long after it timed out.
+     * 
+     * @return True if still deciding, otherwise false.
+     */
+    /* package */ boolean isDeciding() {
+        return isDeciding;
+    }
+    
+    /**
+     * Sets whether a timed decision of the player's client is running. Called
+     * by the table, and by the decision thread when the client returns.
+     * 
+     * @param isDeciding
+     *            True if deciding, otherwise false.
+     */
+    /* package */ void setDeciding(boolean isDeciding) {
+        checkMutable();
+        this.isDeciding = isDeciding;
+    }
 
     /**
      * Indicates whether this player is all-in.
@@ -200,6 +442,15 @@ public class Player {
         return hand.getCards();
     }
 
+    /**
+     * Returns the player's hole cards as a card set, without copying.
+     * 
+     * @return The hole cards as a card set.
+     */
+    public long getCardSet() {
+        return hand.getCardSet();
+    }
+
     /**
      * Posts the small blind.
      * 
@@ -207,7 +458,8 @@ public class Player {
      *            The small blind.
      */
     public void postSmallBlind(int blind) {
-        action = Action.SMALL_BLIND;
+        checkMutable();
+        setAction(Action.SMALL_BLIND);
         cash -= blind;
         bet += blind;
     }
@@ -219,7 +471,8 @@ public class Player {
      *            The big blind.
      */
     public void postBigBlind(int blind) {
-        action = Action.BIG_BLIND;
+        checkMutable();
+        setAction(Action.BIG_BLIND);
         cash -= blind;
         bet += blind;
     }
@@ -234,9 +487,22 @@ public class Player {
         if (amount > cash) {
             throw new IllegalStateException("Player asked to pay more cash than he owns!");
         }
+        checkMutable();
         cash -= amount;
     }
     
+    /**
+     * Sets the amount of cash, e.g. to restore the starting stack between
+     * hands in the {@link Arena}.
+     * 
+     * @param cash
+     *            The amount of cash.
+     */
+    /* package */ void setCash(int cash) {
+        checkMutable();
+        this.cash = cash;
+    }
+    
     /**
      * Wins an amount of money.
      * 
@@ -244,6 +510,7 @@ public class Player {
      *            The amount won.
      */
     public void win(int amount) {
+        checkMutable();
         cash += amount;
     }
 
@@ -256,14 +523,79 @@ public class Player {
         Player clone = new Player(name, cash, null);
         clone.hasCards = hasCards;
         clone.bet = bet;
+        clone.actionType = actionType;
+        clone.actionAmount = actionAmount;
         clone.action = action;
         return clone;
     }
 
+    /**
+     * Returns a read-only snapshot of this player with only public
+     * information. <br />
+     * <br />
+     * 
+     * The snapshot is cached until the player's state changes, so it is
+     * created once per state change and can be shared by all clients.
+     * 
+     * @return The public snapshot.
+     */
+    public Player getPublicSnapshot() {
+        if (isSnapshot && hand == NO_CARDS) {
+            return this;
+        }
+        if (publicSnapshot == null) {
+            publicSnapshot = new Player(this, false);
+        }
+        return publicSnapshot;
+    }
+    
+    /**
+     * Returns a read-only snapshot of this player including the secret
+     * information, e.g. to deliver to the player's own client later on. <br />
+     * <br />
+     * 
+     * Like the public snapshot, it is cached until the player's state changes.
+     * 
+     * @return The private snapshot.
+     */
+    public Player getPrivateSnapshot() {
+        if (isSnapshot) {
+            return this;
+        }
+        if (privateSnapshot == null) {
+            privateSnapshot = new Player(this, true);
+        }
+        return privateSnapshot;
+    }
+    
+    /**
+     * Indicates whether this is a read-only public snapshot.
+     * 
+     * @return True if a public snapshot, otherwise false.
+     */
+    public boolean isSnapshot() {
+        return isSnapshot;
+    }
+
     /** {@inheritDoc} */
     @Override
     public String toString() {
         return name;
     }
+    
+    /**
+     * Prepares a change of the player's state, invalidating the cached
+     * snapshots.
+     * 
+     * @throws IllegalStateException
+     *             If this is a read-only public snapshot.
+     */
+    private void checkMutable() {
+        if (isSnapshot) {
+            throw new IllegalStateException("Public snapshot is read-only");
+        }
+        publicSnapshot = null;
+        privateSnapshot = null;
+    }
 
 }
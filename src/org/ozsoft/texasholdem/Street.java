@@ -0,0 +1,89 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+/**
+ * The betting rounds of a hand.
+ * 
+ * @author Oscar Stigter
+ */
+public enum Street {
+    
+    /** Before the flop (no board cards). */
+    PRE_FLOP("Pre-Flop"),
+    
+    /** The flop (3 board cards). */
+    FLOP("Flop"),
+    
+    /** The turn (4 board cards). */
+    TURN("Turn"),
+    
+    /** The river (5 board cards). */
+    RIVER("River"),
+    
+    ;
+    
+    /** Display name. */
+    private String name;
+    
+    /**
+     * Constructor.
+     * 
+     * @param name
+     *            The display name.
+     */
+    Street(String name) {
+        this.name = name;
+    }
+    
+    /**
+     * Returns the display name.
+     * 
+     * @return The display name.
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Returns the street with a specific number of board cards.
+     * 
+     * @param noOfBoardCards
+     *            The number of board cards.
+     * 
+     * @return The street.
+     * 
+     * @throws IllegalArgumentException
+     *             If the number of board cards is invalid.
+     */
+    public static Street of(int noOfBoardCards) {
+        switch (noOfBoardCards) {
+            case 0:
+                return PRE_FLOP;
+            case 3:
+                return FLOP;
+            case 4:
+                return TURN;
+            case 5:
+                return RIVER;
+            default:
+                throw new IllegalArgumentException("Invalid number of board cards: " + noOfBoardCards);
+        }
+    }
+
+}
@@ -36,16 +36,22 @@ package org.ozsoft.texasholdem;
 
 import java.io.PrintWriter;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import org.ozsoft.texasholdem.actions.Action;
-import org.ozsoft.texasholdem.actions.BetAction;
-import org.ozsoft.texasholdem.actions.RaiseAction;
+import org.ozsoft.texasholdem.actions.ActionType;
 
 /**
  * Limit Texas Hold'em poker table. <br />
@@ -63,15 +69,51 @@ public class Table {
     /** Whether players will always call the showdown, or fold when no chance. */
     private static final boolean ALWAYS_CALL_SHOWDOWN = false;
     
+    /** The initial capacity of the action history of a hand. */
+    private static final int INITIAL_HISTORY_SIZE = 32;
+    
+    /** The number of the next thread for timed decisions. */
+    private static final AtomicInteger actThreadNumber = new AtomicInteger(1);
+    
+    /** The maximum number of threads for timed decisions, of all tables. */
+    private static final int MAX_ACT_THREADS = 1024;
+    
+    /**
+     * Executor for timed decisions. A client that never returns only keeps
+     * its own (daemon) thread busy, never the table. Each client has at most
+     * one decision running, and the number of running decisions is bounded
+     * by {@link #actPermits}, so hung clients cannot use up an unbounded
+     * number of threads.
+     */
+    private static final ExecutorService actExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L,
+            TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "Table-act-" + actThreadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+    
+    /**
+     * The permits for running a timed decision, of all tables. A table waits
+     * for a permit, so when all threads are taken by hung clients, possibly
+     * at other tables, the waiting is not held against the actor.
+     */
+    private static final Semaphore actPermits = new Semaphore(MAX_ACT_THREADS, true);
+    
     /** Table type (poker variant). */
     private final TableType tableType;
     
     /** The size of the big blind. */
-    private final int bigBlind;
+    private int bigBlind;
     
     /** The players at the table. */
     private final List<Player> players;
     
+    /** The spectators, which only receive the public information. */
+    private final List<Client> spectators;
+    
     /** The active players in the current hand. */
     private final List<Player> activePlayers;
     
@@ -108,8 +150,48 @@ public class Table {
     /** Number of raises in the current betting round. */
     private int raises;
     
+    /** The writer for the hand log (null for none). */
     private PrintWriter writer;
     
+    /** The hand evaluator used at the showdown. */
+    private HandEvaluatorType evaluatorType;
+    
+    /** Whether the hands are shuffled with seeds derived from {@link #seed}. */
+    private boolean seeded;
+    
+    /** The base seed of the shuffles. */
+    private long seed;
+    
+    /** The number of hands played since the seed was set. */
+    private long handNumber;
+    
+    /** The time limit per decision in milliseconds (0 for none). */
+    private long actionTimeout = 0L;
+    
+    /** The initial time bank per player in milliseconds. */
+    private long timeBank = 0L;
+    
+    /** The number of decisions that timed out. */
+    private int noOfTimeouts = 0;
+    
+    /** The actions allowed to the acting player. */
+    private int allowedActions;
+    
+    /** The action codes of the current hand, in order. */
+    private long[] historyActions;
+    
+    /** The seat of the player per action of the current hand. */
+    private int[] historySeats;
+    
+    /** The street per action of the current hand. */
+    private Street[] historyStreets;
+    
+    /** The number of actions of the current hand. */
+    private int noOfActions;
+    
+    /** The read-only view of the game state, passed to the acting player. */
+    private final GameState gameState;
+    
     /**
      * Constructor.
      * 
@@ -120,10 +202,83 @@ public class Table {
         this.tableType = type;
         this.bigBlind = bigBlind;
         players = new ArrayList<Player>();
+        spectators = new ArrayList<Client>();
         activePlayers = new ArrayList<Player>();
         deck = new Deck();
+        deck.setLazy(true);
         board = new ArrayList<Card>();
         pots = new ArrayList<Pot>();
+        evaluatorType = HandValue.getDefaultEvaluatorType();
+        historyActions = new long[INITIAL_HISTORY_SIZE];
+        historySeats = new int[INITIAL_HISTORY_SIZE];
+        historyStreets = new Street[INITIAL_HISTORY_SIZE];
+        gameState = new TableState();
+    }
+    
+    /**
+     * Sets the hand evaluator used at the showdown.
+     * 
+     * @param evaluatorType
+     *            The hand evaluator.
+     */
+    public void setEvaluatorType(HandEvaluatorType evaluatorType) {
+        if (evaluatorType == null) {
+            throw new IllegalArgumentException("Null evaluator type");
+        }
+        this.evaluatorType = evaluatorType;
+    }
+    
+    /**
+     * Makes the dealing reproducible for simulations: from now on, hand
+     * <i>n</i> is shuffled with seed <code>seed + n</code> (see
+     * {@link Deck#shuffle(long)}), so each hand can be replayed on its own.
+     * 
+     * @param seed
+     *            The base seed.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        handNumber = 0L;
+        seeded = true;
+    }
+    
+    /**
+     * Limits the time per decision. A player who exceeds the limit first uses
+     * up his time bank; after that the table checks or folds on his behalf.
+     * <br />
+     * <br />
+     * 
+     * With a time limit, the clients act on a separate thread, so the
+     * {@link Client#act} method should respond to interruption. Each player
+     * gets the full time bank when the table starts.
+     * 
+     * @param actionTimeout
+     *            The time limit per decision in milliseconds, or 0 for no
+     *            limit.
+     * @param timeBank
+     *            The time bank per player in milliseconds.
+     * 
+     * @throws IllegalArgumentException
+     *             If the time limit or time bank is negative.
+     */
+    public void setTimeLimits(long actionTimeout, long timeBank) {
+        if (actionTimeout < 0L) {
+            throw new IllegalArgumentException("Invalid action timeout: " + actionTimeout);
+        }
+        if (timeBank < 0L) {
+            throw new IllegalArgumentException("Invalid time bank: " + timeBank);
+        }
+        this.actionTimeout = actionTimeout;
+        this.timeBank = timeBank;
+    }
+    
+    /**
+     * Returns the number of decisions that timed out at this table.
+     * 
+     * @return The number of timeouts.
+     */
+    public int getNoOfTimeouts() {
+        return noOfTimeouts;
     }
     
     /**
@@ -136,16 +291,82 @@ public class Table {
         players.add(player);
     }
     
+    /**
+     * Adds a spectator, which is notified of all public events but never asked
+     * to act. To keep a slow spectator from stalling the table, wrap it in an
+     * {@link AsyncClient}.
+     * 
+     * @param spectator
+     *            The spectator.
+     * 
+     * @throws IllegalArgumentException
+     *             If the spectator is null.
+     */
+    public void addSpectator(Client spectator) {
+        if (spectator == null) {
+            throw new IllegalArgumentException("Null spectator");
+        }
+        spectators.add(spectator);
+    }
+    
+    /**
+     * Removes a spectator.
+     * 
+     * @param spectator
+     *            The spectator.
+     */
+    public void removeSpectator(Client spectator) {
+        spectators.remove(spectator);
+    }
+    
+    /**
+     * Seats a player at a table that has already started, e.g. when moving a
+     * player in a {@link Tournament}.
+     * 
+     * @param player
+     *            The player.
+     */
+    /* package */ void seatPlayer(Player player) {
+        players.add(player);
+        player.getClient().joinedTable(tableType, bigBlind, getSnapshots(player));
+    }
+    
+    /**
+     * Removes a player between hands, e.g. when busted or moved in a
+     * {@link Tournament}.
+     * 
+     * @param player
+     *            The player.
+     */
+    /* package */ void removePlayer(Player player) {
+        players.remove(player);
+    }
+    
+    /**
+     * Changes the size of the big blind between hands, e.g. for a new blind
+     * level in a {@link Tournament}.
+     * 
+     * @param bigBlind
+     *            The size of the big blind.
+     */
+    /* package */ void setBigBlind(int bigBlind) {
+        this.bigBlind = bigBlind;
+    }
+    
+    /**
+     * Returns the players at the table.
+     * 
+     * @return The players.
+     */
+    /* package */ List<Player> getPlayers() {
+        return players;
+    }
+    
     /**
      * Main game loop.
      */
     public void run(PrintWriter writer) {
-    	this.writer = writer;
-        for (Player player : players) {
-            player.getClient().joinedTable(tableType, bigBlind, players);
-        }
-        dealerPosition = -1;
-        actorPosition = -1;
+        start(writer);
         while (true) {
             int noOfActivePlayers = 0;
             for (Player player : players) {
@@ -170,13 +391,38 @@ public class Table {
         }
         notifyPlayersUpdated(false);
         notifyMessage("Game over.");
-        writer.println("---Game over---");
+        if (writer != null) {
+            writer.println("---Game over---");
+        }
+    }
+    
+    /**
+     * Seats the players and prepares the first hand.
+     * 
+     * @param writer
+     *            The writer for the hand log, or null for no logging at all
+     *            (e.g. in the {@link Arena}).
+     */
+    /* package */ void start(PrintWriter writer) {
+        this.writer = writer;
+        for (Player player : players) {
+            player.setTimeBank(timeBank);
+            player.getClient().joinedTable(tableType, bigBlind, getSnapshots(player));
+        }
+        if (!spectators.isEmpty()) {
+            List<Player> publicPlayers = getSnapshots(null);
+            for (Client spectator : spectators) {
+                spectator.joinedTable(tableType, bigBlind, publicPlayers);
+            }
+        }
+        dealerPosition = -1;
+        actorPosition = -1;
     }
     
     /**
      * Plays a single hand.
      */
-    private void playHand() {
+    /* package */ void playHand() {
         resetHand();
         
         // Small blind.
@@ -229,6 +475,7 @@ public class Table {
         // Clear the board.
         board.clear();
         pots.clear();
+        noOfActions = 0;
         notifyBoardUpdated();
         
         // Determine the active players.
@@ -241,12 +488,20 @@ public class Table {
             }
         }
         
+        if (activePlayers.size() < 2) {
+            throw new IllegalStateException("Less than two players can afford the big blind");
+        }
+        
         // Rotate the dealer button.
         dealerPosition = (dealerPosition + 1) % activePlayers.size();
         dealer = activePlayers.get(dealerPosition);
 
         // Shuffle the deck.
-        deck.shuffle();
+        if (seeded) {
+            deck.shuffle(seed + handNumber++);
+        } else {
+            deck.shuffle();
+        }
 
         // Determine the first player to act.
         actorPosition = dealerPosition;
@@ -258,7 +513,10 @@ public class Table {
         
         // Notify all clients a new hand has started.
         for (Player player : players) {
-            player.getClient().handStarted(dealer);
+            player.getClient().handStarted(getSnapshot(dealer, player));
+        }
+        for (Client spectator : spectators) {
+            spectator.handStarted(dealer.getPublicSnapshot());
         }
         notifyPlayersUpdated(false);
         notifyMessage("New hand, %s is the dealer.", dealer);
@@ -271,7 +529,10 @@ public class Table {
         actorPosition = (actorPosition + 1) % activePlayers.size();
         actor = activePlayers.get(actorPosition);
         for (Player player : players) {
-            player.getClient().actorRotated(actor);
+            player.getClient().actorRotated(getSnapshot(actor, player));
+        }
+        for (Client spectator : spectators) {
+            spectator.actorRotated(actor.getPublicSnapshot());
         }
     }
     
@@ -281,6 +542,7 @@ public class Table {
     private void postSmallBlind() {
         final int smallBlind = bigBlind / 2;
         actor.postSmallBlind(smallBlind);
+        recordAction(ActionType.SMALL_BLIND.toCode());
         contributePot(smallBlind);
         notifyBoardUpdated();
         notifyPlayerActed();
@@ -291,6 +553,7 @@ public class Table {
      */
     private void postBigBlind() {
         actor.postBigBlind(bigBlind);
+        recordAction(ActionType.BIG_BLIND.toCode());
         contributePot(bigBlind);
         notifyBoardUpdated();
         notifyPlayerActed();
@@ -303,7 +566,9 @@ public class Table {
         for (Player player : activePlayers) {
             player.setCards(deck.deal(2),writer);
         }
-        System.out.println();
+        if (writer != null) {
+            System.out.println();
+        }
         notifyPlayersUpdated(false);
         notifyMessage("%s deals the hole cards.", dealer);
     }
@@ -321,7 +586,9 @@ public class Table {
         	//board.add(deck.deal());
         	Card c = deck.deal();
             board.add(c);
-            writer.println("["+phaseName+"] "+c.toString());
+            if (writer != null) {
+                writer.println("["+phaseName+"] "+c.toString());
+            }
         }
         notifyPlayersUpdated(false);
         notifyMessage("%s deals the %s.", dealer, phaseName);
@@ -354,92 +621,108 @@ public class Table {
         
         while (playersToAct > 0) {
             rotateActor();
-            Action action = null;
+            long action;
+            ActionType actionType;
             if (actor.isAllIn()) {
                 // Player is all-in, so must check.
-                action = Action.CHECK;
+                action = ActionType.CHECK.toCode();
+                actionType = ActionType.CHECK;
                 playersToAct--;
             } else {
                 // Otherwise allow client to act.
-                Set<Action> allowedActions = getAllowedActions(actor);
-                Card[] boardarr = board.toArray(new Card[board.size()]);
-                boolean dealer = dealerPosition == actorPosition;
-                action = actor.getClient().act(minBet, bet, allowedActions,boardarr,getTotalPot(),dealer);
+                allowedActions = getAllowedActions(actor);
+                action = requestAction();
+                actionType = ActionType.of(action);
                 // Verify chosen action to guard against broken clients (accidental or on purpose).
-                if (!allowedActions.contains(action)) {
-                    if (action instanceof BetAction && !allowedActions.contains(Action.BET)) {
-                        throw new IllegalStateException(String.format("Player '%s' acted with illegal Bet action", actor));
-                    } else if (action instanceof RaiseAction && !allowedActions.contains(Action.RAISE)) {
-                        throw new IllegalStateException(String.format("Player '%s' acted with illegal Raise action", actor));
-                    }
+                if (actionType.hasAmount() && !actionType.isIn(allowedActions)) {
+                    throw new IllegalStateException(String.format("Player '%s' acted with illegal %s action", actor,
+                            actionType.getName()));
                 }
                 playersToAct--;
-                if (action == Action.CHECK) {
-                    // Do nothing.
-                } else if (action == Action.CALL) {
-                    int betIncrement = bet - actor.getBet();
-                    if (betIncrement > actor.getCash()) {
-                        betIncrement = actor.getCash();
-                    }
-                    actor.payCash(betIncrement);
-                    actor.setBet(actor.getBet() + betIncrement);
-                    contributePot(betIncrement);
-                } else if (action instanceof BetAction) {
-                    int amount = (tableType == TableType.FIXED_LIMIT) ? minBet : action.getAmount();
-                    if (amount < minBet && amount < actor.getCash()) {
-                        throw new IllegalStateException("Illegal client action: bet less than minimum bet!");
-                    }
-                    actor.setBet(amount);
-                    actor.payCash(amount);
-                    contributePot(amount);
-                    bet = amount;
-                    minBet = amount;
-                    lastBettor = actor;
-                    playersToAct = activePlayers.size();
-                } else if (action instanceof RaiseAction) {
-                    int amount = (tableType == TableType.FIXED_LIMIT) ? minBet : action.getAmount();
-                    if (amount < minBet && amount < actor.getCash()) {
-                        throw new IllegalStateException("Illegal client action: raise less than minimum bet!");
-                    }
-                    bet += amount;
-                    minBet = amount;
-                    int betIncrement = bet - actor.getBet();
-                    if (betIncrement > actor.getCash()) {
-                        betIncrement = actor.getCash();
+                switch (actionType) {
+                    case CHECK:
+                        // Do nothing.
+                        break;
+                    case CALL: {
+                        int betIncrement = bet - actor.getBet();
+                        if (betIncrement > actor.getCash()) {
+                            betIncrement = actor.getCash();
+                        }
+                        actor.payCash(betIncrement);
+                        actor.setBet(actor.getBet() + betIncrement);
+                        contributePot(betIncrement);
+                        break;
                     }
-                    actor.setBet(bet);
-                    actor.payCash(betIncrement);
-                    contributePot(betIncrement);
-                    lastBettor = actor;
-                    raises++;
-                    if (tableType == TableType.NO_LIMIT || raises < MAX_RAISES || activePlayers.size() == 2) { 
-                        // All players get another turn.
+                    case BET: {
+                        int amount = (tableType == TableType.FIXED_LIMIT) ? minBet : ActionType.getAmount(action);
+                        if (amount < minBet && amount < actor.getCash()) {
+                            throw new IllegalStateException("Illegal client action: bet less than minimum bet!");
+                        }
+                        if (amount > actor.getCash()) {
+                            // Not enough cash for the full bet, so all-in (like a call or raise).
+                            amount = actor.getCash();
+                        }
+                        action = ActionType.BET.toCode(amount);
+                        actor.setBet(amount);
+                        actor.payCash(amount);
+                        contributePot(amount);
+                        bet = amount;
+                        minBet = amount;
+                        lastBettor = actor;
                         playersToAct = activePlayers.size();
-                    } else {
-                        // Max. number of raises reached; other players get one more turn.
-                        playersToAct = activePlayers.size() - 1;
+                        break;
                     }
-                } else if (action == Action.FOLD) {
-                    actor.setCards(null,writer);
-                    activePlayers.remove(actor);
-                    actorPosition--;
-                    if (activePlayers.size() == 1) {
-                        // Only one player left, so he wins the entire pot.
-                        notifyBoardUpdated();
-                        notifyPlayerActed();
-                        Player winner = activePlayers.get(0);
-                        int amount = getTotalPot();
-                        winner.win(amount);
-                        notifyBoardUpdated();
-                        notifyMessage("%s wins $ %d.", winner, amount);
-                        playersToAct = 0;
+                    case RAISE: {
+                        int amount = (tableType == TableType.FIXED_LIMIT) ? minBet : ActionType.getAmount(action);
+                        if (amount < minBet && amount < actor.getCash()) {
+                            throw new IllegalStateException("Illegal client action: raise less than minimum bet!");
+                        }
+                        action = ActionType.RAISE.toCode(amount);
+                        bet += amount;
+                        minBet = amount;
+                        int betIncrement = bet - actor.getBet();
+                        if (betIncrement > actor.getCash()) {
+                            betIncrement = actor.getCash();
+                        }
+                        actor.setBet(bet);
+                        actor.payCash(betIncrement);
+                        contributePot(betIncrement);
+                        lastBettor = actor;
+                        raises++;
+                        if (tableType == TableType.NO_LIMIT || raises < MAX_RAISES || activePlayers.size() == 2) { 
+                            // All players get another turn.
+                            playersToAct = activePlayers.size();
+                        } else {
+                            // Max. number of raises reached; other players get one more turn.
+                            playersToAct = activePlayers.size() - 1;
+                        }
+                        break;
                     }
-                } else {
-                    // Programming error, should never happen.
-                    throw new IllegalStateException("Invalid action: " + action);
+                    case FOLD:
+                        actor.setCards(null,writer);
+                        activePlayers.remove(actor);
+                        actorPosition--;
+                        if (activePlayers.size() == 1) {
+                            // Only one player left, so he wins the entire pot.
+                            notifyBoardUpdated();
+                            notifyPlayerActed();
+                            Player winner = activePlayers.get(0);
+                            int amount = getTotalPot();
+                            winner.win(amount);
+                            notifyBoardUpdated();
+                            notifyMessage("%s wins $ %d.", winner, amount);
+                            playersToAct = 0;
+                        }
+                        break;
+                    default:
+                        // All-in, blinds and continue are never allowed; broken client.
+                        throw new IllegalStateException(String.format("Player '%s' acted with invalid %s action",
+                                actor, actionType.getName()));
                 }
+                // Record the action with the amount actually bet or raised.
+                recordAction(action);
             }
-            actor.setAction(action);
+            actor.setAction(actionType, ActionType.getAmount(action));
             if (playersToAct > 0) {
                 notifyBoardUpdated();
                 notifyPlayerActed();
@@ -454,39 +737,130 @@ public class Table {
         notifyPlayersUpdated(false);
     }
     
+    /**
+     * Requests the actor to act, enforcing the time limit (if any).
+     * 
+     * @return The selected action code, or check or fold when timed out.
+     */
+    private long requestAction() {
+        final Client client = actor.getClient();
+        if (actionTimeout == 0L) {
+            return client.act(gameState);
+        }
+        
+        // A client still stuck in an earlier decision does not get another
+        // thread; the new decision times out right away.
+        final Player player = actor;
+        if (player.isDeciding()) {
+            return timeOut();
+        }
+        // Wait for a free thread; the player's time starts once it has one.
+        try {
+            if (!actPermits.tryAcquire(actionTimeout + actor.getTimeBank(), TimeUnit.MILLISECONDS)) {
+                // All threads are taken by hung clients; not a timeout of this player.
+                notifyMessage("%s could not act in time; the server is busy.", actor);
+                return ActionType.CHECK.isIn(allowedActions) ? ActionType.CHECK.toCode() : ActionType.FOLD.toCode();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for player " + actor, e);
+        }
+        // The client may still be reading after a timeout, while the table
+        // moves on, so it gets a detached copy instead of the live view.
+        final GameState state = new StateSnapshot(gameState);
+        player.setDeciding(true);
+        final Decision decision = new Decision(client, state, player);
+        FutureTask<Long> future = new FutureTask<Long>(decision) {
+            @Override
+            public void run() {
+                try {
+                    super.run();
+                    if (!decision.isStarted()) {
+                        // Cancelled before it started.
+                        player.setDeciding(false);
+                    }
+                } finally {
+                    actPermits.release();
+                }
+            }
+        };
+        actExecutor.execute(future);
+        long startTime = System.nanoTime();
+        try {
+            long action = future.get(actionTimeout + actor.getTimeBank(), TimeUnit.MILLISECONDS);
+            long overtime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) - actionTimeout;
+            if (overtime > 0L) {
+                actor.setTimeBank(Math.max(actor.getTimeBank() - overtime, 0L));
+            }
+            return action;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return timeOut();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for player " + actor, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new IllegalStateException("Player " + actor + " failed to act", cause);
+            }
+        }
+    }
+    
+    /**
+     * Handles a decision of the actor that ran out of time, by checking or
+     * folding on its behalf.
+     * 
+     * @return The action code.
+     */
+    private long timeOut() {
+        actor.timedOut();
+        noOfTimeouts++;
+        notifyMessage("%s has run out of time.", actor);
+        if (writer != null) {
+            writer.println(String.format("%s has run out of time", actor));
+        }
+        return ActionType.CHECK.isIn(allowedActions) ? ActionType.CHECK.toCode() : ActionType.FOLD.toCode();
+    }
+    
     /**
      * Returns the allowed actions of a specific player.
      * 
      * @param player
      *            The player.
      * 
-     * @return The allowed actions.
+     * @return The allowed actions as a mask (see {@link ActionType#getMask()}).
      */
-    private Set<Action> getAllowedActions(Player player) {
-        Set<Action> actions = new HashSet<Action>();
+    private int getAllowedActions(Player player) {
+        int actions = 0;
         if (player.isAllIn()) {
-            actions.add(Action.CHECK);
+            actions |= ActionType.CHECK.getMask();
         } else {
             int actorBet = actor.getBet();
             if (bet == 0) {
-                actions.add(Action.CHECK);
+                actions |= ActionType.CHECK.getMask();
                 if (tableType == TableType.NO_LIMIT || raises < MAX_RAISES || activePlayers.size() == 2) {
-                    actions.add(Action.BET);
+                    actions |= ActionType.BET.getMask();
                 }
             } else {
                 if (actorBet < bet) {
-                    actions.add(Action.CALL);
+                    actions |= ActionType.CALL.getMask();
                     if (tableType == TableType.NO_LIMIT || raises < MAX_RAISES || activePlayers.size() == 2) {
-                        actions.add(Action.RAISE);
+                        actions |= ActionType.RAISE.getMask();
                     }
                 } else {
-                    actions.add(Action.CHECK);
+                    actions |= ActionType.CHECK.getMask();
                     if (tableType == TableType.NO_LIMIT || raises < MAX_RAISES || activePlayers.size() == 2) {
-                        actions.add(Action.RAISE);
+                        actions |= ActionType.RAISE.getMask();
                     }
                 }
             }
-            actions.add(Action.FOLD);
+            actions |= ActionType.FOLD.getMask();
         }
         return actions;
     }
@@ -557,13 +931,19 @@ public class Table {
             pos = (pos + 1) % activePlayers.size();
         }
         
+        // Evaluate all hands once, against the shared board.
+        Player[] contenders = activePlayers.toArray(new Player[activePlayers.size()]);
+        int noOfContenders = contenders.length;
+        int[] handValues = evaluateHands(contenders);
+        boolean[] folded = new boolean[noOfContenders];
+        
         // Players automatically show or fold in order.
         boolean firstToShow = true;
         int bestHandValue = -1;
         for (Player playerToShow : showingPlayers) {
-            Hand hand = new Hand(board);
-            hand.addCards(playerToShow.getCards());
-            HandValue handValue = new HandValue(hand);
+            int index = indexOf(contenders, playerToShow);
+            int handValue = handValues[index];
+            String description = LookupHandEvaluator.getType(handValue).getDescription();
             boolean doShow = ALWAYS_CALL_SHOWDOWN;
             if (!doShow) {
                 if (playerToShow.isAllIn()) {
@@ -573,81 +953,87 @@ public class Table {
                 } else if (firstToShow) {
                     // First player must always show.
                     doShow = true;
-                    bestHandValue = handValue.getValue();
+                    bestHandValue = handValue;
                     firstToShow = false;
                 } else {
                     // Remaining players only show when having a chance to win.
-                    if (handValue.getValue() >= bestHandValue) {
+                    if (handValue >= bestHandValue) {
                         doShow = true;
-                        bestHandValue = handValue.getValue();
+                        bestHandValue = handValue;
                     }
                 }
             }
             if (doShow) {
                 // Show hand.
+                Player shown = Player.createSnapshot(playerToShow.getName(), playerToShow.getCash(),
+                        playerToShow.getBet(), playerToShow.getActionType(), playerToShow.getActionAmount(),
+                        true, playerToShow.getCards());
                 for (Player player : players) {
-                    player.getClient().playerUpdated(playerToShow);
+                    player.getClient().playerUpdated((player == playerToShow) ? player : shown);
+                }
+                for (Client spectator : spectators) {
+                    spectator.playerUpdated(shown);
+                }
+                notifyMessage("%s has %s.", playerToShow, description);
+                if (writer != null) {
+                    writer.println(String.format("%s has %s", playerToShow, description));
                 }
-                notifyMessage("%s has %s.", playerToShow, handValue.getDescription());
-                writer.println(String.format("%s has %s", playerToShow, handValue.getDescription()));
             } else {
                 // Fold.
                 playerToShow.setCards(null,writer);
                 activePlayers.remove(playerToShow);
+                folded[index] = true;
                 for (Player player : players) {
-                    if (player.equals(playerToShow)) {
-                        player.getClient().playerUpdated(playerToShow);
-                    } else {
-                        // Hide secret information to other players.
-                        player.getClient().playerUpdated(playerToShow.publicClone());
-                    }
+                    player.getClient().playerUpdated(getSnapshot(playerToShow, player));
+                }
+                for (Client spectator : spectators) {
+                    spectator.playerUpdated(playerToShow.getPublicSnapshot());
                 }
                 notifyMessage("%s folds.", playerToShow);
             }
         }
         
-        // Sort players by hand value (highest to lowest).
-        Map<HandValue, List<Player>> rankedPlayers = new TreeMap<HandValue, List<Player>>();
-        for (Player player : activePlayers) {
-            // Create a hand with the community cards and the player's hole cards.
-            Hand hand = new Hand(board);
-            hand.addCards(player.getCards());
-            // Store the player together with other players with the same hand value.
-            HandValue handValue = new HandValue(hand);
-//            System.out.format("[DEBUG] %s: %s\n", player, handValue);
-            List<Player> playerList = rankedPlayers.get(handValue);
-            if (playerList == null) {
-                playerList = new ArrayList<Player>();
-            }
-            playerList.add(player);
-            rankedPlayers.put(handValue, playerList);
+        // Sort the remaining players by hand value (highest to lowest).
+        int[] ranking = new int[noOfContenders];
+        int noOfRanked = 0;
+        for (int i = 0; i < noOfContenders; i++) {
+            if (!folded[i]) {
+                int j = noOfRanked++;
+                while (j > 0 && handValues[ranking[j - 1]] < handValues[i]) {
+                    ranking[j] = ranking[j - 1];
+                    j--;
+                }
+                ranking[j] = i;
+            }
         }
 
         // Per rank (single or multiple winners), calculate pot distribution.
         int totalPot = getTotalPot();
-        Map<Player, Integer> potDivision = new HashMap<Player, Integer>();
-        for (HandValue handValue : rankedPlayers.keySet()) {
-            List<Player> winners = rankedPlayers.get(handValue);
+        int[] potDivision = new int[noOfContenders];
+        boolean[] hasShare = new boolean[noOfContenders];
+        int first = 0;
+        while (first < noOfRanked) {
+            // The winners of this rank are the players with the same hand value.
+            int last = first + 1;
+            while (last < noOfRanked && handValues[ranking[last]] == handValues[ranking[first]]) {
+                last++;
+            }
             for (Pot pot : pots) {
                 // Determine how many winners share this pot.
                 int noOfWinnersInPot = 0;
-                for (Player winner : winners) {
-                    if (pot.hasContributer(winner)) {
+                for (int i = first; i < last; i++) {
+                    if (pot.hasContributer(contenders[ranking[i]])) {
                         noOfWinnersInPot++;
                     }
                 }
                 if (noOfWinnersInPot > 0) {
                     // Divide pot over winners.
                     int potShare = pot.getValue() / noOfWinnersInPot;
-                    for (Player winner : winners) {
-                        if (pot.hasContributer(winner)) {
-                            Integer oldShare = potDivision.get(winner);
-                            if (oldShare != null) {
-                                potDivision.put(winner, oldShare + potShare);
-                            } else {
-                                potDivision.put(winner, potShare);
-                            }
-                            
+                    for (int i = first; i < last; i++) {
+                        int winner = ranking[i];
+                        if (pot.hasContributer(contenders[winner])) {
+                            potDivision[winner] += potShare;
+                            hasShare[winner] = true;
                         }
                     }
                     // Determine if we have any odd chips left in the pot.
@@ -657,11 +1043,9 @@ public class Table {
                         pos = dealerPosition;
                         while (oddChips > 0) {
                             pos = (pos + 1) % activePlayers.size();
-                            Player winner = activePlayers.get(pos);
-                            Integer oldShare = potDivision.get(winner);
-                            if (oldShare != null) {
-                                potDivision.put(winner, oldShare + 1);
-//                                System.out.format("[DEBUG] %s receives an odd chip from the pot.\n", winner);
+                            int winner = indexOf(contenders, activePlayers.get(pos));
+                            if (hasShare[winner]) {
+                                potDivision[winner]++;
                                 oddChips--;
                             }
                         }
@@ -670,20 +1054,27 @@ public class Table {
                     pot.clear();
                 }
             }
+            first = last;
         }
         
         // Divide winnings.
         StringBuilder winnerText = new StringBuilder();
         int totalWon = 0;
-        for (Player winner : potDivision.keySet()) {
-            int potShare = potDivision.get(winner);
+        for (int i = 0; i < noOfContenders; i++) {
+            if (!hasShare[i]) {
+                continue;
+            }
+            Player winner = contenders[i];
+            int potShare = potDivision[i];
             winner.win(potShare);
             totalWon += potShare;
             if (winnerText.length() > 0) {
                 winnerText.append(", ");
             }
             winnerText.append(String.format("%s wins $ %d", winner, potShare));
-            writer.println(String.format("%s wins $ %d\n", winner, potShare));
+            if (writer != null) {
+                writer.println(String.format("%s wins $ %d\n", winner, potShare));
+            }
             notifyPlayersUpdated(true);
         }
         winnerText.append('.');
@@ -695,6 +1086,56 @@ public class Table {
         }
     }
     
+    /**
+     * Returns the hand values of the players at the showdown. <br />
+     * <br />
+     * 
+     * With the lookup table evaluator, the board is prepared once and each
+     * player only adds the hole cards.
+     * 
+     * @param contenders
+     *            The players.
+     * 
+     * @return The hand value per player.
+     */
+    private int[] evaluateHands(Player[] contenders) {
+        int[] handValues = new int[contenders.length];
+        if (evaluatorType == HandEvaluatorType.LOOKUP_TABLE) {
+            IncrementalHandEvaluator boardEvaluator = new IncrementalHandEvaluator(CardSet.of(board));
+            for (int i = 0; i < contenders.length; i++) {
+                long holeCards = contenders[i].getCardSet();
+                handValues[i] = boardEvaluator.evaluate(Long.numberOfTrailingZeros(holeCards),
+                        63 - Long.numberOfLeadingZeros(holeCards));
+            }
+        } else {
+            for (int i = 0; i < contenders.length; i++) {
+                Hand hand = new Hand(board);
+                hand.addCards(contenders[i].getCards());
+                handValues[i] = new HandValue(hand, evaluatorType).getValue();
+            }
+        }
+        return handValues;
+    }
+    
+    /**
+     * Returns the index of a player in an array.
+     * 
+     * @param players
+     *            The players.
+     * @param player
+     *            The player.
+     * 
+     * @return The index, or -1 if not found.
+     */
+    private static int indexOf(Player[] players, Player player) {
+        for (int i = 0; i < players.length; i++) {
+            if (players[i] == player) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
     /**
      * Notifies listeners with a custom game message.
      * 
@@ -708,6 +1149,9 @@ public class Table {
         for (Player player : players) {
             player.getClient().messageReceived(message);
         }
+        for (Client spectator : spectators) {
+            spectator.messageReceived(message);
+        }
     }
     
     /**
@@ -718,6 +1162,28 @@ public class Table {
         for (Player player : players) {
             player.getClient().boardUpdated(board, bet, pot);
         }
+        for (Client spectator : spectators) {
+            spectator.boardUpdated(board, bet, pot);
+        }
+    }
+    
+    /**
+     * Adds an action of the actor to the history of the current hand.
+     * 
+     * @param action
+     *            The action code.
+     */
+    private void recordAction(long action) {
+        if (noOfActions == historyActions.length) {
+            int capacity = 2 * noOfActions;
+            historyActions = Arrays.copyOf(historyActions, capacity);
+            historySeats = Arrays.copyOf(historySeats, capacity);
+            historyStreets = Arrays.copyOf(historyStreets, capacity);
+        }
+        historyActions[noOfActions] = action;
+        historySeats[noOfActions] = players.indexOf(actor);
+        historyStreets[noOfActions] = Street.of(board.size());
+        noOfActions++;
     }
     
     /**
@@ -738,19 +1204,37 @@ public class Table {
      * <br />
      * 
      * A player's secret information is only sent its own client; other clients
-     * see only a player's public information.
+     * all share the same read-only snapshot with only the player's public
+     * information, or at the showdown also the revealed hole cards.
      * 
      * @param showdown
      *            Whether we are at the showdown phase.
      */
     private void notifyPlayersUpdated(boolean showdown) {
+        // At the showdown, one snapshot with the revealed cards per player.
+        Player[] revealed = null;
+        if (showdown) {
+            revealed = new Player[players.size()];
+            for (int i = 0; i < revealed.length; i++) {
+                Player player = players.get(i);
+                revealed[i] = Player.createSnapshot(player.getName(), player.getCash(), player.getBet(),
+                        player.getActionType(), player.getActionAmount(), player.hasCards(), player.getCards());
+            }
+        }
         for (Player playerToNotify : players) {
-            for (Player player : players) {
-                if (!showdown && !player.equals(playerToNotify)) {
-                    // Hide secret information to other players.
-                    player = player.publicClone();
+            Client client = playerToNotify.getClient();
+            for (int i = 0; i < players.size(); i++) {
+                Player player = players.get(i);
+                if (showdown && player != playerToNotify) {
+                    client.playerUpdated(revealed[i]);
+                } else {
+                    client.playerUpdated(getSnapshot(player, playerToNotify));
                 }
-                playerToNotify.getClient().playerUpdated(player);
+            }
+        }
+        for (Client spectator : spectators) {
+            for (int i = 0; i < players.size(); i++) {
+                spectator.playerUpdated(showdown ? revealed[i] : players.get(i).getPublicSnapshot());
             }
         }
     }
@@ -760,9 +1244,540 @@ public class Table {
      */
     private void notifyPlayerActed() {
         for (Player p : players) {
-            Player playerInfo = p.equals(actor) ? actor : actor.publicClone();
-            p.getClient().playerActed(playerInfo);
+            p.getClient().playerActed(getSnapshot(actor, p));
+        }
+        for (Client spectator : spectators) {
+            spectator.playerActed(actor.getPublicSnapshot());
         }
     }
     
+    /**
+     * Returns the information about a player to send to a client. <br />
+     * <br />
+     * 
+     * The player's own client gets the player itself, including the hole
+     * cards; all other clients get the player's cached public snapshot, so no
+     * copies are made unless the player has changed.
+     * 
+     * @param player
+     *            The player.
+     * @param playerToNotify
+     *            The player whose client is notified.
+     * 
+     * @return The player or its public snapshot.
+     */
+    private static Player getSnapshot(Player player, Player playerToNotify) {
+        return (player == playerToNotify) ? player : player.getPublicSnapshot();
+    }
+    
+    /**
+     * Returns the information about all players to send to a client, e.g.
+     * when joining the table (see {@link #getSnapshot(Player, Player)}).
+     * 
+     * @param playerToNotify
+     *            The player whose client is notified, or null for a
+     *            spectator.
+     * 
+     * @return The players or their public snapshots, in seat order.
+     */
+    private List<Player> getSnapshots(Player playerToNotify) {
+        List<Player> snapshots = new ArrayList<Player>(players.size());
+        for (Player player : players) {
+            snapshots.add(getSnapshot(player, playerToNotify));
+        }
+        return snapshots;
+    }
+    
+    
+    /**
+     * A timed decision of a client, run by the decision executor.
+     */
+    private static class Decision implements Callable<Long> {
+        
+        /** The client. */
+        private final Client client;
+        
+        /** The game state. */
+        private final GameState state;
+        
+        /** The deciding player. */
+        private final Player player;
+        
+        /** Whether the client has been called. */
+        private boolean isStarted = false;
+        
+        /**
+         * Constructor.
+         * 
+         * @param client
+         *            The client.
+         * @param state
+         *            The game state.
+         * @param player
+         *            The deciding player.
+         */
+        public Decision(Client client, GameState state, Player player) {
+            this.client = client;
+            this.state = state;
+            this.player = player;
+        }
+        
+        /**
+         * Indicates whether the client has been called. Only valid on the
+         * thread running the decision.
+         * 
+         * @return True if called, otherwise false.
+         */
+        public boolean isStarted() {
+            return isStarted;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public Long call() {
+            isStarted = true;
+            try {
+                return client.act(state);
+            } finally {
+                // Before the result is returned to the table, so the player's
+                // next decision does not find it still deciding.
+                player.setDeciding(false);
+            }
+        }
+        
+    }
+    
+    /**
+     * The read-only view of the game state, backed by the table's fields.
+     */
+    private class TableState implements GameState {
+        
+        /** The board as an unmodifiable view. */
+        private final List<Card> boardView = Collections.unmodifiableList(board);
+        
+        /** {@inheritDoc} */
+        @Override
+        public TableType getTableType() {
+            return tableType;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getBigBlind() {
+            return bigBlind;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public Street getStreet() {
+            return Street.of(board.size());
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public List<Card> getBoard() {
+            return boardView;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public long getBoardCards() {
+            long cards = CardSet.EMPTY;
+            for (int i = 0; i < board.size(); i++) {
+                cards |= CardSet.of(board.get(i));
+            }
+            return cards;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getPot() {
+            return getTotalPot();
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getNoOfPots() {
+            return pots.size();
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getPot(int index) {
+            return pots.get(index).getValue();
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getMinBet() {
+            return minBet;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getCurrentBet() {
+            return bet;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getAllowedActions() {
+            return allowedActions;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public long getHoleCards() {
+            return actor.getCardSet();
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getNoOfPlayers() {
+            return players.size();
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getActorSeat() {
+            return players.indexOf(actor);
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getDealerSeat() {
+            return players.indexOf(dealer);
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public boolean isDealer() {
+            return dealerPosition == actorPosition;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public String getName(int seat) {
+            return players.get(seat).getName();
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getCash(int seat) {
+            return players.get(seat).getCash();
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getBet(int seat) {
+            return players.get(seat).getBet();
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public boolean isActive(int seat) {
+            return activePlayers.contains(players.get(seat));
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getNoOfActions() {
+            return noOfActions;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getActionSeat(int index) {
+            checkActionIndex(index);
+            return historySeats[index];
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public Street getActionStreet(int index) {
+            checkActionIndex(index);
+            return historyStreets[index];
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public long getAction(int index) {
+            checkActionIndex(index);
+            return historyActions[index];
+        }
+        
+        /**
+         * Validates the index of an action in the history.
+         * 
+         * @param index
+         *            The index.
+         * 
+         * @throws IndexOutOfBoundsException
+         *             If the index is invalid.
+         */
+        private void checkActionIndex(int index) {
+            if (index < 0 || index >= noOfActions) {
+                throw new IndexOutOfBoundsException("Invalid action index: " + index);
+            }
+        }
+        
+    }
+
+    /**
+     * A detached copy of the game state, for decisions that may outlive their
+     * turn.
+     */
+    private static class StateSnapshot implements GameState {
+        
+        /** The table type. */
+        private final TableType tableType;
+        
+        /** The big blind. */
+        private final int bigBlind;
+        
+        /** The board. */
+        private final List<Card> board;
+        
+        /** The board as a card set. */
+        private final long boardCards;
+        
+        /** The size of each pot. */
+        private final int[] pots;
+        
+        /** The total of all pots. */
+        private final int pot;
+        
+        /** The minimum bet. */
+        private final int minBet;
+        
+        /** The current bet. */
+        private final int currentBet;
+        
+        /** The allowed actions. */
+        private final int allowedActions;
+        
+        /** The hole cards of the acting player. */
+        private final long holeCards;
+        
+        /** The seat of the acting player. */
+        private final int actorSeat;
+        
+        /** The seat of the dealer. */
+        private final int dealerSeat;
+        
+        /** Whether the acting player is the dealer. */
+        private final boolean isDealer;
+        
+        /** The name per seat. */
+        private final String[] names;
+        
+        /** The cash per seat. */
+        private final int[] cash;
+        
+        /** The bet per seat. */
+        private final int[] bets;
+        
+        /** Whether each seat is still in the hand. */
+        private final boolean[] active;
+        
+        /** The action codes of the history. */
+        private final long[] actions;
+        
+        /** The seats of the history. */
+        private final int[] actionSeats;
+        
+        /** The streets of the history. */
+        private final Street[] actionStreets;
+        
+        /**
+         * Constructor.
+         * 
+         * @param state
+         *            The game state to copy.
+         */
+        public StateSnapshot(GameState state) {
+            tableType = state.getTableType();
+            bigBlind = state.getBigBlind();
+            board = Collections.unmodifiableList(new ArrayList<Card>(state.getBoard()));
+            boardCards = state.getBoardCards();
+            pots = new int[state.getNoOfPots()];
+            for (int i = 0; i < pots.length; i++) {
+                pots[i] = state.getPot(i);
+            }
+            pot = state.getPot();
+            minBet = state.getMinBet();
+            currentBet = state.getCurrentBet();
+            allowedActions = state.getAllowedActions();
+            holeCards = state.getHoleCards();
+            actorSeat = state.getActorSeat();
+            dealerSeat = state.getDealerSeat();
+            isDealer = state.isDealer();
+            int noOfPlayers = state.getNoOfPlayers();
+            names = new String[noOfPlayers];
+            cash = new int[noOfPlayers];
+            bets = new int[noOfPlayers];
+            active = new boolean[noOfPlayers];
+            for (int seat = 0; seat < noOfPlayers; seat++) {
+                names[seat] = state.getName(seat);
+                cash[seat] = state.getCash(seat);
+                bets[seat] = state.getBet(seat);
+                active[seat] = state.isActive(seat);
+            }
+            int noOfActions = state.getNoOfActions();
+            actions = new long[noOfActions];
+            actionSeats = new int[noOfActions];
+            actionStreets = new Street[noOfActions];
+            for (int i = 0; i < noOfActions; i++) {
+                actions[i] = state.getAction(i);
+                actionSeats[i] = state.getActionSeat(i);
+                actionStreets[i] = state.getActionStreet(i);
+            }
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public TableType getTableType() {
+            return tableType;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getBigBlind() {
+            return bigBlind;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public Street getStreet() {
+            return Street.of(board.size());
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public List<Card> getBoard() {
+            return board;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public long getBoardCards() {
+            return boardCards;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getPot() {
+            return pot;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getNoOfPots() {
+            return pots.length;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getPot(int index) {
+            return pots[index];
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getMinBet() {
+            return minBet;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getCurrentBet() {
+            return currentBet;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getAllowedActions() {
+            return allowedActions;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public long getHoleCards() {
+            return holeCards;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getNoOfPlayers() {
+            return names.length;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getActorSeat() {
+            return actorSeat;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getDealerSeat() {
+            return dealerSeat;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public boolean isDealer() {
+            return isDealer;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public String getName(int seat) {
+            return names[seat];
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getCash(int seat) {
+            return cash[seat];
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getBet(int seat) {
+            return bets[seat];
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public boolean isActive(int seat) {
+            return active[seat];
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getNoOfActions() {
+            return actions.length;
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public int getActionSeat(int index) {
+            return actionSeats[index];
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public Street getActionStreet(int index) {
+            return actionStreets[index];
+        }
+        
+        /** {@inheritDoc} */
+        @Override
+        public long getAction(int index) {
+            return actions[index];
+        }
+        
+    }
+
 }
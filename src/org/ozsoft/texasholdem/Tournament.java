@@ -0,0 +1,548 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.ozsoft.texasholdem;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.ozsoft.texasholdem.bots.AiBot;
+import org.ozsoft.texasholdem.bots.DummyBot;
+import org.ozsoft.texasholdem.util.SplitMixRandom;
+
+/**
+ * Headless multi-table tournament between bots, with the tables played in
+ * parallel. <br />
+ * <br />
+ *
+ * The players are seated at tables of at most a fixed size. The tournament is
+ * played in rounds: in each round every table plays a number of hands as a
+ * separate task on a fixed thread pool, so the game logic of a table always
+ * runs on a single thread, while the tables keep all cores busy. A player who
+ * can no longer afford the big blind is eliminated immediately; the finishing
+ * positions are handed out with an atomic counter, so the tables never
+ * block on each other. Players busted in the same hand at one table finish in
+ * order of their stack at the start of that hand. <br />
+ * <br />
+ *
+ * Between rounds the tables are balanced: tables are broken up as soon as the
+ * remaining players fit at fewer tables, and players are moved from the
+ * largest to the smallest table until the table sizes differ by at most one.
+ * The big blind doubles every number of rounds (the blind level). Like in the
+ * {@link Arena}, no hand log or console output is written.
+ *
+ * @author Oscar Stigter
+ */
+public class Tournament {
+
+    /** The default number of hands per table per round. */
+    private static final int DEFAULT_HANDS_PER_ROUND = 10;
+
+    /** The highest blind level (limits the big blind to a safe integer). */
+    private static final int MAX_LEVEL = 20;
+
+    /** The default number of rounds per blind level. */
+    private static final int DEFAULT_ROUNDS_PER_LEVEL = 10;
+
+    /** Table type (betting structure). */
+    private final TableType tableType;
+
+    /** The size of the big blind at the first blind level. */
+    private final int bigBlind;
+
+    /** The starting cash per player. */
+    private final int startingCash;
+
+    /** The maximum number of players per table. */
+    private final int tableSize;
+
+    /** The number of threads. */
+    private final int parallelism;
+
+    /** The players. */
+    private final List<Player> players;
+
+    /** The number of hands per table per round. */
+    private int handsPerRound = DEFAULT_HANDS_PER_ROUND;
+
+    /** The number of rounds per blind level. */
+    private int roundsPerLevel = DEFAULT_ROUNDS_PER_LEVEL;
+
+    /** The time limit per decision in milliseconds (0 for none). */
+    private long actionTimeout = 0L;
+
+    /** The time bank per player in milliseconds. */
+    private long timeBank = 0L;
+
+    /**
+     * Constructor using one thread per available processor.
+     *
+     * @param tableType
+     *            The table type (betting structure).
+     * @param bigBlind
+     *            The size of the big blind.
+     * @param startingCash
+     *            The starting cash per player.
+     * @param tableSize
+     *            The maximum number of players per table.
+     *
+     * @throws IllegalArgumentException
+     *             If any of the parameters is invalid.
+     */
+    public Tournament(TableType tableType, int bigBlind, int startingCash, int tableSize) {
+        this(tableType, bigBlind, startingCash, tableSize, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor with a specific number of threads.
+     *
+     * @param tableType
+     *            The table type (betting structure).
+     * @param bigBlind
+     *            The size of the big blind.
+     * @param startingCash
+     *            The starting cash per player.
+     * @param tableSize
+     *            The maximum number of players per table (2 to 10).
+     * @param parallelism
+     *            The number of threads.
+     *
+     * @throws IllegalArgumentException
+     *             If any of the parameters is invalid.
+     */
+    public Tournament(TableType tableType, int bigBlind, int startingCash, int tableSize, int parallelism) {
+        if (tableType == null) {
+            throw new IllegalArgumentException("Null table type");
+        }
+        if (bigBlind < 2) {
+            throw new IllegalArgumentException("Invalid big blind: " + bigBlind);
+        }
+        if (startingCash < bigBlind) {
+            throw new IllegalArgumentException("Invalid starting cash: " + startingCash);
+        }
+        if (tableSize < 2 || tableSize > 10) {
+            throw new IllegalArgumentException("Invalid table size: " + tableSize);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+        }
+        this.tableType = tableType;
+        this.bigBlind = bigBlind;
+        this.startingCash = startingCash;
+        this.tableSize = tableSize;
+        this.parallelism = parallelism;
+        players = new ArrayList<Player>();
+    }
+
+    /**
+     * Sets the number of hands each table plays per round, i.e. between two
+     * balancing steps.
+     *
+     * @param handsPerRound
+     *            The number of hands per round.
+     *
+     * @throws IllegalArgumentException
+     *             If the number of hands is not positive.
+     */
+    public void setHandsPerRound(int handsPerRound) {
+        if (handsPerRound < 1) {
+            throw new IllegalArgumentException("Invalid number of hands per round: " + handsPerRound);
+        }
+        this.handsPerRound = handsPerRound;
+    }
+
+    /**
+     * Sets the number of rounds per blind level; the big blind doubles at
+     * every new level.
+     *
+     * @param roundsPerLevel
+     *            The number of rounds per blind level.
+     *
+     * @throws IllegalArgumentException
+     *             If the number of rounds is not positive.
+     */
+    public void setRoundsPerLevel(int roundsPerLevel) {
+        if (roundsPerLevel < 1) {
+            throw new IllegalArgumentException("Invalid number of rounds per level: " + roundsPerLevel);
+        }
+        this.roundsPerLevel = roundsPerLevel;
+    }
+
+    /**
+     * Limits the time per decision (see
+     * {@link Table#setTimeLimits(long, long)}), so a slow or hung bot cannot
+     * stall its table and worker thread.
+     *
+     * @param actionTimeout
+     *            The time limit per decision in milliseconds, or 0 for no
+     *            limit.
+     * @param timeBank
+     *            The time bank per player in milliseconds (for the whole
+     *            tournament).
+     *
+     * @throws IllegalArgumentException
+     *             If the time limit or time bank is negative.
+     */
+    public void setTimeLimits(long actionTimeout, long timeBank) {
+        if (actionTimeout < 0L) {
+            throw new IllegalArgumentException("Invalid action timeout: " + actionTimeout);
+        }
+        if (timeBank < 0L) {
+            throw new IllegalArgumentException("Invalid time bank: " + timeBank);
+        }
+        this.actionTimeout = actionTimeout;
+        this.timeBank = timeBank;
+    }
+
+    /**
+     * Adds a bot (or any other client that does not block). Each player
+     * needs its own client instance.
+     *
+     * @param name
+     *            The player's name.
+     * @param client
+     *            The client.
+     *
+     * @throws IllegalArgumentException
+     *             If the name or client is null.
+     */
+    public void addBot(String name, Client client) {
+        if (name == null) {
+            throw new IllegalArgumentException("Null name");
+        }
+        if (client == null) {
+            throw new IllegalArgumentException("Null client");
+        }
+        players.add(new Player(name, startingCash, client));
+    }
+
+    /**
+     * Plays the tournament until one player is left.
+     *
+     * @return The result.
+     *
+     * @throws IllegalStateException
+     *             If there are less than two players, or a table failed.
+     */
+    public TournamentResult run() {
+        int noOfPlayers = players.size();
+        if (noOfPlayers < 2) {
+            throw new IllegalStateException("At least two players required");
+        }
+
+        // Seat the players round-robin.
+        Map<Player, Integer> indexes = new IdentityHashMap<Player, Integer>();
+        String[] names = new String[noOfPlayers];
+        int[] timeouts = new int[noOfPlayers];
+        int noOfTables = (noOfPlayers + tableSize - 1) / tableSize;
+        List<Table> tables = new ArrayList<Table>();
+        for (int i = 0; i < noOfTables; i++) {
+            Table table = new Table(tableType, bigBlind);
+            table.setTimeLimits(actionTimeout, timeBank);
+            tables.add(table);
+        }
+        for (int i = 0; i < noOfPlayers; i++) {
+            Player player = players.get(i);
+            player.setCash(startingCash);
+            indexes.put(player, i);
+            names[i] = player.getName();
+            timeouts[i] = -player.getNoOfTimeouts();
+            tables.get(i % noOfTables).addPlayer(player);
+        }
+        SplitMixRandom random = new SplitMixRandom();
+        for (Table table : tables) {
+            // Fast shuffles, independent per table.
+            table.setSeed(random.nextLong());
+            table.start(null);
+        }
+
+        AtomicInteger nextPosition = new AtomicInteger(noOfPlayers);
+        AtomicIntegerArray positions = new AtomicIntegerArray(noOfPlayers);
+        long noOfHands = 0L;
+        long startTime = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            int round = 0;
+            while (nextPosition.get() > 1) {
+                int levelBigBlind = getBigBlind(round++);
+                List<TableTask> tasks = new ArrayList<TableTask>();
+                for (Table table : tables) {
+                    if (table.getPlayers().size() > 1) {
+                        table.setBigBlind(levelBigBlind);
+                        tasks.add(new TableTask(table, levelBigBlind, indexes, nextPosition, positions));
+                    }
+                }
+                for (Future<Integer> future : executor.invokeAll(tasks)) {
+                    noOfHands += future.get();
+                }
+                balance(tables);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tournament interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Table failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+        long duration = System.nanoTime() - startTime;
+
+        // The last player standing wins.
+        for (Table table : tables) {
+            for (Player player : table.getPlayers()) {
+                positions.set(indexes.get(player), 1);
+            }
+        }
+        int[] result = new int[noOfPlayers];
+        for (int i = 0; i < noOfPlayers; i++) {
+            result[i] = positions.get(i);
+            timeouts[i] += players.get(i).getNoOfTimeouts();
+        }
+        return new TournamentResult(names, result, noOfHands, duration, timeouts);
+    }
+
+    /**
+     * Returns the size of the big blind in a specific round.
+     *
+     * @param round
+     *            The round (starting at 0).
+     *
+     * @return The size of the big blind.
+     */
+    private int getBigBlind(int round) {
+        int level = Math.min(round / roundsPerLevel, MAX_LEVEL);
+        return bigBlind << level;
+    }
+
+    /**
+     * Breaks up and balances the tables.
+     *
+     * @param tables
+     *            The tables.
+     */
+    private void balance(List<Table> tables) {
+        int noOfPlayers = 0;
+        for (Table table : tables) {
+            noOfPlayers += table.getPlayers().size();
+        }
+        int noOfTables = Math.max((noOfPlayers + tableSize - 1) / tableSize, 1);
+
+        // Break up the smallest tables.
+        while (tables.size() > noOfTables) {
+            Table brokenTable = getSmallestTable(tables, null);
+            tables.remove(brokenTable);
+            List<Player> brokenPlayers = brokenTable.getPlayers();
+            while (!brokenPlayers.isEmpty()) {
+                Player player = brokenPlayers.get(brokenPlayers.size() - 1);
+                brokenTable.removePlayer(player);
+                getSmallestTable(tables, null).seatPlayer(player);
+            }
+        }
+
+        // Move players from the largest to the smallest table.
+        while (true) {
+            Table largestTable = getLargestTable(tables);
+            Table smallestTable = getSmallestTable(tables, largestTable);
+            if (smallestTable == null
+                    || largestTable.getPlayers().size() - smallestTable.getPlayers().size() <= 1) {
+                break;
+            }
+            List<Player> largestPlayers = largestTable.getPlayers();
+            Player player = largestPlayers.get(largestPlayers.size() - 1);
+            largestTable.removePlayer(player);
+            smallestTable.seatPlayer(player);
+        }
+    }
+
+    /**
+     * Returns the table with the most players.
+     *
+     * @param tables
+     *            The tables.
+     *
+     * @return The largest table.
+     */
+    private static Table getLargestTable(List<Table> tables) {
+        Table largestTable = null;
+        for (Table table : tables) {
+            if (largestTable == null || table.getPlayers().size() > largestTable.getPlayers().size()) {
+                largestTable = table;
+            }
+        }
+        return largestTable;
+    }
+
+    /**
+     * Returns the table with the fewest players.
+     *
+     * @param tables
+     *            The tables.
+     * @param excludedTable
+     *            A table to skip (may be null).
+     *
+     * @return The smallest table, or null if none.
+     */
+    private static Table getSmallestTable(List<Table> tables, Table excludedTable) {
+        Table smallestTable = null;
+        for (Table table : tables) {
+            if (table != excludedTable
+                    && (smallestTable == null || table.getPlayers().size() < smallestTable.getPlayers().size())) {
+                smallestTable = table;
+            }
+        }
+        return smallestTable;
+    }
+
+    /**
+     * The application's entry point. <br />
+     * <br />
+     *
+     * Plays a tournament between AI bots and dummy bots.
+     *
+     * @param args
+     *            The command line arguments: the number of players (optional).
+     */
+    public static void main(String[] args) {
+        int noOfPlayers = (args.length > 0) ? Integer.parseInt(args[0]) : 100;
+        Tournament tournament = new Tournament(TableType.FIXED_LIMIT, 10, 500, 9);
+        for (int i = 0; i < noOfPlayers; i++) {
+            if (i % 2 == 0) {
+                tournament.addBot("Ai" + i, new AiBot(25, 25));
+            } else {
+                tournament.addBot("Dummy" + i, new DummyBot());
+            }
+        }
+        TournamentResult result = tournament.run();
+        System.out.println(result);
+    }
+
+    /**
+     * Task playing a round of hands at a single table.
+     */
+    private class TableTask implements Callable<Integer> {
+
+        /** The table. */
+        private final Table table;
+
+        /** The size of the big blind. */
+        private final int bigBlind;
+
+        /** The player indexes (read-only). */
+        private final Map<Player, Integer> indexes;
+
+        /** The next (worst) finishing position. */
+        private final AtomicInteger nextPosition;
+
+        /** The finishing position per player. */
+        private final AtomicIntegerArray positions;
+
+        /**
+         * Constructor.
+         *
+         * @param table
+         *            The table.
+         * @param bigBlind
+         *            The size of the big blind.
+         * @param indexes
+         *            The player indexes.
+         * @param nextPosition
+         *            The next finishing position.
+         * @param positions
+         *            The finishing position per player.
+         */
+        public TableTask(Table table, int bigBlind, Map<Player, Integer> indexes, AtomicInteger nextPosition,
+                AtomicIntegerArray positions) {
+            this.table = table;
+            this.bigBlind = bigBlind;
+            this.indexes = indexes;
+            this.nextPosition = nextPosition;
+            this.positions = positions;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Integer call() {
+            List<Player> tablePlayers = table.getPlayers();
+            int[] stacks = new int[tableSize];
+            // The blinds may have gone up since the last round.
+            saveStacks(tablePlayers, stacks);
+            eliminateBustedPlayers(tablePlayers, stacks);
+            int hand = 0;
+            while (hand < handsPerRound && tablePlayers.size() > 1) {
+                saveStacks(tablePlayers, stacks);
+                table.playHand();
+                hand++;
+                eliminateBustedPlayers(tablePlayers, stacks);
+            }
+            return hand;
+        }
+
+        /**
+         * Saves the stack of each player at the table.
+         *
+         * @param tablePlayers
+         *            The players at the table.
+         * @param stacks
+         *            The stack per player.
+         */
+        private void saveStacks(List<Player> tablePlayers, int[] stacks) {
+            for (int i = 0; i < tablePlayers.size(); i++) {
+                stacks[i] = tablePlayers.get(i).getCash();
+            }
+        }
+
+        /**
+         * Eliminates the players who cannot afford the big blind anymore, the
+         * smallest starting stack first.
+         *
+         * @param tablePlayers
+         *            The players at the table.
+         * @param stacks
+         *            The stack per player at the start of the hand or round.
+         */
+        private void eliminateBustedPlayers(List<Player> tablePlayers, int[] stacks) {
+            while (true) {
+                int busted = -1;
+                for (int i = 0; i < tablePlayers.size(); i++) {
+                    if (tablePlayers.get(i).getCash() < bigBlind && (busted == -1 || stacks[i] < stacks[busted])) {
+                        busted = i;
+                    }
+                }
+                if (busted == -1) {
+                    break;
+                }
+                Player player = tablePlayers.get(busted);
+                positions.set(indexes.get(player), nextPosition.getAndDecrement());
+                table.removePlayer(player);
+                int last = tablePlayers.size();
+                System.arraycopy(stacks, busted + 1, stacks, busted, last - busted);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,190 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.ozsoft.texasholdem;
+
+/**
+ * The result of a {@link Tournament}. <br />
+ * <br />
+ *
+ * The players are indexed in the order in which they were added to the
+ * tournament.
+ *
+ * @author Oscar Stigter
+ */
+public class TournamentResult {
+
+    /** The player names. */
+    private final String[] names;
+
+    /** The finishing position per player (1 for the winner). */
+    private final int[] positions;
+
+    /** The total number of hands played over all tables. */
+    private final long noOfHands;
+
+    /** The duration in nanoseconds. */
+    private final long duration;
+
+    /** The number of decisions that timed out per player. */
+    private final int[] timeouts;
+
+    /**
+     * Constructor.
+     *
+     * @param names
+     *            The player names.
+     * @param positions
+     *            The finishing position per player.
+     * @param noOfHands
+     *            The total number of hands played.
+     * @param duration
+     *            The duration in nanoseconds.
+     * @param timeouts
+     *            The number of decisions that timed out per player.
+     */
+    /* package */ TournamentResult(String[] names, int[] positions, long noOfHands, long duration, int[] timeouts) {
+        this.names = names;
+        this.positions = positions;
+        this.noOfHands = noOfHands;
+        this.duration = duration;
+        this.timeouts = timeouts;
+    }
+
+    /**
+     * Returns the number of players.
+     *
+     * @return The number of players.
+     */
+    public int getNoOfPlayers() {
+        return names.length;
+    }
+
+    /**
+     * Returns the name of a player.
+     *
+     * @param player
+     *            The player index.
+     *
+     * @return The name.
+     */
+    public String getName(int player) {
+        return names[player];
+    }
+
+    /**
+     * Returns the finishing position of a player.
+     *
+     * @param player
+     *            The player index.
+     *
+     * @return The finishing position (1 for the winner).
+     */
+    public int getPosition(int player) {
+        return positions[player];
+    }
+
+    /**
+     * Returns the index of the player finishing at a specific position.
+     *
+     * @param position
+     *            The finishing position (1 for the winner).
+     *
+     * @return The player index.
+     *
+     * @throws IllegalArgumentException
+     *             If the position is invalid.
+     */
+    public int getPlayer(int position) {
+        for (int i = 0; i < positions.length; i++) {
+            if (positions[i] == position) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Invalid position: " + position);
+    }
+
+    /**
+     * Returns the total number of hands played over all tables.
+     *
+     * @return The number of hands.
+     */
+    public long getNoOfHands() {
+        return noOfHands;
+    }
+
+    /**
+     * Returns the duration of the tournament.
+     *
+     * @return The duration in milliseconds.
+     */
+    public long getDuration() {
+        return duration / 1000000L;
+    }
+
+    /**
+     * Returns the number of hands played per second (over all tables).
+     *
+     * @return The number of hands per second.
+     */
+    public double getHandsPerSecond() {
+        return (duration > 0L) ? noOfHands * 1.0e9 / duration : 0.0;
+    }
+
+    /**
+     * Returns the number of decisions of a player that timed out.
+     *
+     * @param player
+     *            The player's index.
+     *
+     * @return The number of timeouts.
+     */
+    public int getNoOfTimeouts(int player) {
+        return timeouts[player];
+    }
+
+    /**
+     * Returns the total number of decisions that timed out.
+     *
+     * @return The number of timeouts.
+     */
+    public int getNoOfTimeouts() {
+        int total = 0;
+        for (int count : timeouts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d players, %d hands in %d ms (%.0f hands/s)", names.length, noOfHands,
+                getDuration(), getHandsPerSecond()));
+        for (int position = 1; position <= Math.min(names.length, 3); position++) {
+            sb.append(String.format(", #%d: %s", position, names[getPlayer(position)]));
+        }
+        int noOfTimeouts = getNoOfTimeouts();
+        if (noOfTimeouts > 0) {
+            sb.append(String.format(" [%d timeouts]", noOfTimeouts));
+        }
+        return sb.toString();
+    }
+
+}
@@ -51,11 +51,8 @@ public abstract class Action {
     /** Posting the small blind. */
     public static final Action SMALL_BLIND = new SmallBlindAction();
     
-    /** The action's name. */
-    private final String name;
-    
-    /** The action's verb. */
-    private final String verb;
+    /** The action's kind. */
+    private final ActionType type;
     
     /** The amount (if appropriate). */
     private final int amount;
@@ -63,38 +60,42 @@ public abstract class Action {
     /**
      * Constructor.
      * 
-     * @param name
-     *            The action's name.
-     * @param verb
-     *            The action's verb.
+     * @param type
+     *            The action's kind.
      */
-    public Action(String name, String verb) {
-        this(name, verb, 0);
+    public Action(ActionType type) {
+        this(type, 0);
     }
     
     /**
      * Constructor.
      * 
-     * @param name
-     *            The action's name.
-     * @param verb
-     *            The action's verb.
+     * @param type
+     *            The action's kind.
      * @param amount
      *            The action's amount.
      */
-    public Action(String name, String verb, int amount) {
-        this.name = name;
-        this.verb = verb;
+    public Action(ActionType type, int amount) {
+        this.type = type;
         this.amount = amount;
     }
     
+    /**
+     * Returns the action's kind.
+     * 
+     * @return The action's kind.
+     */
+    public final ActionType getType() {
+        return type;
+    }
+    
     /**
      * Returns the action's name.
      * 
      * @return The action's name.
      */
     public final String getName() {
-        return name;
+        return type.getName();
     }
     
     /**
@@ -103,7 +104,7 @@ public abstract class Action {
      * @return The action's verb.
      */
     public final String getVerb() {
-        return verb;
+        return type.getVerb();
     }
     
     /**
@@ -115,10 +116,19 @@ public abstract class Action {
         return amount;
     }
     
+    /**
+     * Returns the action code (see {@link ActionType#toCode(int)}).
+     * 
+     * @return The action code.
+     */
+    public final long toCode() {
+        return type.toCode(amount);
+    }
+    
     /** {@inheritDoc} */
     @Override
     public String toString() {
-        return name;
+        return type.getName();
     }
 
 }
@@ -0,0 +1,289 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.actions;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The kind of a player action. <br />
+ * <br />
+ * 
+ * Together with an amount (for a bet or raise), the kind forms an action
+ * without any object allocation: an <i>action code</i>, which packs both into
+ * a long (see {@link #toCode(int)}). A set of allowed actions is represented
+ * by a bit mask of kinds (see {@link #getMask()}). The {@link Action} classes
+ * remain available as adapters (see {@link #toAction(long)} and
+ * {@link Action#toCode()}). <br />
+ * <br />
+ * 
+ * The ordinals are part of the action codes and the network protocol, so new
+ * kinds must be added at the end.
+ * 
+ * @author Oscar Stigter
+ */
+public enum ActionType {
+    
+    /** Check. */
+    CHECK("Check", "checks"),
+    
+    /** Call. */
+    CALL("Call", "calls"),
+    
+    /** Bet (with an amount). */
+    BET("Bet", "bets"),
+    
+    /** Raise (with an amount). */
+    RAISE("Raise", "raises"),
+    
+    /** Fold. */
+    FOLD("Fold", "folds"),
+    
+    /** Player went all-in. */
+    ALL_IN("All-in", "goes all-in"),
+    
+    /** Posting the small blind. */
+    SMALL_BLIND("Small blind", "posts the small blind"),
+    
+    /** Posting the big blind. */
+    BIG_BLIND("Big blind", "posts the big blind"),
+    
+    /** Continue. */
+    CONTINUE("Continue", "continues"),
+    
+    ;
+    
+    /** The kinds by ordinal (cached, since values() copies the array). */
+    private static final ActionType[] VALUES = values();
+    
+    /** The number of bits of an action code holding the kind. */
+    private static final int TYPE_BITS = 32;
+    
+    /** Name. */
+    private final String name;
+    
+    /** Verb. */
+    private final String verb;
+    
+    /**
+     * Constructor.
+     * 
+     * @param name
+     *            The name.
+     * @param verb
+     *            The verb.
+     */
+    ActionType(String name, String verb) {
+        this.name = name;
+        this.verb = verb;
+    }
+    
+    /**
+     * Returns the name.
+     * 
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Returns the verb.
+     * 
+     * @return The verb.
+     */
+    public String getVerb() {
+        return verb;
+    }
+    
+    /**
+     * Indicates whether actions of this kind have an amount.
+     * 
+     * @return True for a bet or raise, otherwise false.
+     */
+    public boolean hasAmount() {
+        return this == BET || this == RAISE;
+    }
+    
+    /**
+     * Returns the bit of this kind in a mask of allowed actions.
+     * 
+     * @return The bit mask.
+     */
+    public int getMask() {
+        return 1 << ordinal();
+    }
+    
+    /**
+     * Indicates whether this kind is part of a mask of allowed actions.
+     * 
+     * @param mask
+     *            The mask of allowed actions.
+     * 
+     * @return True if allowed, otherwise false.
+     */
+    public boolean isIn(int mask) {
+        return (mask & (1 << ordinal())) != 0;
+    }
+    
+    /**
+     * Returns the action code of this kind without an amount.
+     * 
+     * @return The action code.
+     */
+    public long toCode() {
+        return ordinal();
+    }
+    
+    /**
+     * Returns the action code of this kind with an amount.
+     * 
+     * @param amount
+     *            The amount (for a bet or raise).
+     * 
+     * @return The action code.
+     */
+    public long toCode(int amount) {
+        return ((long) amount << TYPE_BITS) | ordinal();
+    }
+    
+    /**
+     * Returns the action of this kind (without an amount).
+     * 
+     * @return The action.
+     */
+    public Action getAction() {
+        switch (this) {
+            case CHECK:
+                return Action.CHECK;
+            case CALL:
+                return Action.CALL;
+            case BET:
+                return Action.BET;
+            case RAISE:
+                return Action.RAISE;
+            case FOLD:
+                return Action.FOLD;
+            case ALL_IN:
+                return Action.ALL_IN;
+            case SMALL_BLIND:
+                return Action.SMALL_BLIND;
+            case BIG_BLIND:
+                return Action.BIG_BLIND;
+            default:
+                return Action.CONTINUE;
+        }
+    }
+    
+    /**
+     * Returns the action of this kind with an amount; only a bet or raise is
+     * allocated.
+     * 
+     * @param amount
+     *            The amount (for a bet or raise).
+     * 
+     * @return The action.
+     */
+    public Action getAction(int amount) {
+        if (this == BET) {
+            return new BetAction(amount);
+        } else if (this == RAISE) {
+            return new RaiseAction(amount);
+        } else {
+            return getAction();
+        }
+    }
+    
+    /**
+     * Returns the kind of an action code.
+     * 
+     * @param code
+     *            The action code.
+     * 
+     * @return The kind.
+     * 
+     * @throws IllegalArgumentException
+     *             If the action code is invalid.
+     */
+    public static ActionType of(long code) {
+        int ordinal = (int) code;
+        if (ordinal < 0 || ordinal >= VALUES.length) {
+            throw new IllegalArgumentException("Invalid action code: " + code);
+        }
+        return VALUES[ordinal];
+    }
+    
+    /**
+     * Returns the amount of an action code.
+     * 
+     * @param code
+     *            The action code.
+     * 
+     * @return The amount (0 if none).
+     */
+    public static int getAmount(long code) {
+        return (int) (code >>> TYPE_BITS);
+    }
+    
+    /**
+     * Returns the action of an action code.
+     * 
+     * @param code
+     *            The action code.
+     * 
+     * @return The action.
+     */
+    public static Action toAction(long code) {
+        return of(code).getAction(getAmount(code));
+    }
+    
+    /**
+     * Returns the mask of a set of actions.
+     * 
+     * @param actions
+     *            The actions.
+     * 
+     * @return The mask.
+     */
+    public static int toMask(Set<Action> actions) {
+        int mask = 0;
+        for (Action action : actions) {
+            mask |= action.getType().getMask();
+        }
+        return mask;
+    }
+    
+    /**
+     * Returns the set of actions of a mask.
+     * 
+     * @param mask
+     *            The mask.
+     * 
+     * @return The actions.
+     */
+    public static Set<Action> toSet(int mask) {
+        Set<Action> actions = new HashSet<Action>();
+        for (ActionType type : VALUES) {
+            if (type.isIn(mask)) {
+                actions.add(type.getAction());
+            }
+        }
+        return actions;
+    }
+    
+}
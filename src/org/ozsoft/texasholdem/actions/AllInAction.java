@@ -28,7 +28,7 @@ public class AllInAction extends Action {
      * Constructor.
      */
     /* package */ AllInAction() {
-        super("All-in", "goes all-in");
+        super(ActionType.ALL_IN);
     }
 
 }
@@ -31,7 +31,7 @@ public class BetAction extends Action {
      *            The amount to bet.
      */
     public BetAction(int amount) {
-        super("Bet", "bets", amount);
+        super(ActionType.BET, amount);
     }
     
     /** {@inheritDoc} */
@@ -28,7 +28,7 @@ public class BigBlindAction extends Action {
      * Constructor.
      */
     /* package */ BigBlindAction() {
-        super("Big blind", "posts the big blind");
+        super(ActionType.BIG_BLIND);
     }
     
 }
@@ -28,7 +28,7 @@ public class CallAction extends Action {
      * Constructor.
      */
     /* package */ CallAction() {
-        super("Call", "calls");
+        super(ActionType.CALL);
     }
     
 }
@@ -28,7 +28,7 @@ public class CheckAction extends Action {
      * Constructor.
      */
     /* package */ CheckAction() {
-        super("Check", "checks");
+        super(ActionType.CHECK);
     }
     
 }
@@ -28,7 +28,7 @@ public class ContinueAction extends Action {
      * Constructor.
      */
     /* package */ ContinueAction() {
-        super("Continue", "continues");
+        super(ActionType.CONTINUE);
     }
     
 }
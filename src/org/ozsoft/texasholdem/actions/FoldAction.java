@@ -28,7 +28,7 @@ public class FoldAction extends Action {
      * Constructor.
      */
     /* package */ FoldAction() {
-        super("Fold", "folds");
+        super(ActionType.FOLD);
     }
     
 }
@@ -31,7 +31,7 @@ public class RaiseAction extends Action {
      *            The amount to raise with.
      */
     public RaiseAction(int amount) {
-        super("Raise", "raises", amount);
+        super(ActionType.RAISE, amount);
     }
     
     /** {@inheritDoc} */
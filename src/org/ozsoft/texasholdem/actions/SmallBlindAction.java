@@ -28,7 +28,7 @@ public class SmallBlindAction extends Action {
      * Constructor.
      */
     /* package */ SmallBlindAction() {
-        super("Small blind", "posts the small blind");
+        super(ActionType.SMALL_BLIND);
     }
     
 }
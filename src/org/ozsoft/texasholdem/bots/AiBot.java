@@ -18,24 +18,24 @@
 package org.ozsoft.texasholdem.bots;
 
 import java.util.List;
-import java.util.Set;
 
 import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.CardSet;
+import org.ozsoft.texasholdem.GameState;
 import org.ozsoft.texasholdem.Player;
 import org.ozsoft.texasholdem.TableType;
 import org.ozsoft.texasholdem.AiUtil;
-import org.ozsoft.texasholdem.actions.Action;
-import org.ozsoft.texasholdem.actions.BetAction;
-import org.ozsoft.texasholdem.actions.RaiseAction;
+import org.ozsoft.texasholdem.actions.ActionType;
 import org.ozsoft.texasholdem.util.PokerUtils;
 
 /**
  * Basic Texas Hold'em poker bot. <br />
  * <br />
  * 
- * The current implementation acts purely on the bot's hole cards, based on the
- * Chen formula, combined with a configurable level of tightness (when to play
- * or fold a hand ) and aggression (how much to bet or raise in case of good
+ * The current implementation acts on the bot's hole cards, based on the
+ * precomputed preflop equity table before the flop and on the evaluation of
+ * the whole hand after it, combined with a configurable level of tightness
+ * (when to play or fold a hand ) and aggression (how much to bet or raise in case of good
  * cards or when bluffing). <br />
  * <br />
  * 
@@ -130,11 +130,11 @@ public class AiBot extends Bot {
 
     /** {@inheritDoc} */
     @Override
-    public Action act(int minBet, int currentBet, Set<Action> allowedActions, Card[] commuCards, int pot,boolean dealer) {
-        Action action = null;
-        if (allowedActions.size() == 1) {
+    public long act(int minBet, int currentBet, int allowedActions, Card[] commuCards, int pot,boolean dealer) {
+        long action;
+        if (Integer.bitCount(allowedActions) == 1) {
             // No choice, must check.
-            action = Action.CHECK;
+            action = ActionType.CHECK.toCode();
         } else {
         	int len = 0;
         	for (Card c: commuCards) {
@@ -144,98 +144,139 @@ public class AiBot extends Bot {
             double callScore = AiUtil.cutoff(len)[0];
             double betScore = AiUtil.cutoff(len)[1];
             
-            Card[] allCards = new Card[len+2];
-            allCards[0] = cards[0];
-            allCards[1] = cards[1];
-            for(int i=2; i<len+2; i++) {
-            	allCards[i] = commuCards[i-2];
+            long board = CardSet.EMPTY;
+            for (int i = 0; i < len; i++) {
+                board |= CardSet.of(commuCards[i]);
             }
-            int l = AiUtil.level(allCards);
-            
-            if ((l==0)) {
-                if (allowedActions.contains(Action.CHECK)) {
-                    // Always check for free if possible.
-                    action = Action.CHECK;
-                } else {
-                    // Bad hole cards; play tight.
-                    action = Action.FOLD;
-                }
+            action = decide(CardSet.of(cards), board, tableType, minBet, currentBet, allowedActions, pot, dealer);
+        }
+        return action;
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public long act(GameState state) {
+        int allowedActions = state.getAllowedActions();
+        if (Integer.bitCount(allowedActions) == 1) {
+            // No choice, must check.
+            return ActionType.CHECK.toCode();
+        }
+        
+        // Hole cards and board straight from the table as card sets; no
+        // bookkeeping or copying needed.
+        return decide(state.getHoleCards(), state.getBoardCards(), state.getTableType(), state.getMinBet(),
+                state.getCurrentBet(), allowedActions, state.getPot(), state.isDealer());
+    }
+    
+    /**
+     * Selects an action.
+     * 
+     * @param holeCards
+     *            The hole cards as a card set.
+     * @param board
+     *            The board cards as a card set.
+     * @param tableType
+     *            The table type.
+     * @param minBet
+     *            The minimum bet.
+     * @param currentBet
+     *            The current bet.
+     * @param allowedActions
+     *            The allowed actions.
+     * @param pot
+     *            The pot.
+     * @param dealer
+     *            Whether this bot is the dealer.
+     * 
+     * @return The action code.
+     */
+    private long decide(long holeCards, long board, TableType tableType, int minBet, int currentBet,
+            int allowedActions, int pot, boolean dealer) {
+        long action;
+        int l = AiUtil.level(holeCards, board);
+        
+        if ((l==0)) {
+            if (ActionType.CHECK.isIn(allowedActions)) {
+                // Always check for free if possible.
+                action = ActionType.CHECK.toCode();
             } else {
-                // Good enough hole cards, play hand.
-                if (l==2) {
-                    // Very good hole cards; bet or raise!
-                    if (aggression == 0) {
-                        // Never bet.
-                        if (allowedActions.contains(Action.CALL)) {
-                            action = Action.CALL;
+                // Bad hole cards; play tight.
+                action = ActionType.FOLD.toCode();
+            }
+        } else {
+            // Good enough hole cards, play hand.
+            if (l==2) {
+                // Very good hole cards; bet or raise!
+                if (aggression == 0) {
+                    // Never bet.
+                    if (ActionType.CALL.isIn(allowedActions)) {
+                        action = ActionType.CALL.toCode();
+                    } else {
+                        action = ActionType.CHECK.toCode();
+                    }
+                } else if (aggression == 100) {
+                    // Always go all-in!
+                    //FIXME: Check and bet/raise player's remaining cash.
+                    int amount = (tableType == TableType.FIXED_LIMIT) ? minBet : 100 * minBet;
+                    if (ActionType.BET.isIn(allowedActions)) {
+                        action = ActionType.BET.toCode(amount);
+                    } else if (ActionType.RAISE.isIn(allowedActions)) {
+                        action = ActionType.RAISE.toCode(amount);
+                    } else if (ActionType.CALL.isIn(allowedActions)) {
+                        action = ActionType.CALL.toCode();
+                    } else {
+                        action = ActionType.CHECK.toCode();
+                    }
+                } else {
+                    int amount = minBet;
+                    if (tableType == TableType.NO_LIMIT) {
+                        int betLevel = aggression / 20;
+                        for (int i = 0; i < betLevel; i++) {
+                            amount *= 2;
+                        }
+                    }
+                    if (currentBet < amount) {
+                        if (ActionType.BET.isIn(allowedActions)) {
+                            action = ActionType.BET.toCode(amount);
+                        } else if (ActionType.RAISE.isIn(allowedActions)) {
+                            action = ActionType.RAISE.toCode(amount);
+                        } else if (ActionType.CALL.isIn(allowedActions)) {
+                            action = ActionType.CALL.toCode();
                         } else {
-                            action = Action.CHECK;
+                            action = ActionType.CHECK.toCode();
                         }
-                    } else if (aggression == 100) {
-                        // Always go all-in!
-                        //FIXME: Check and bet/raise player's remaining cash.
-                        int amount = (tableType == TableType.FIXED_LIMIT) ? minBet : 100 * minBet;
-                        if (allowedActions.contains(Action.BET)) {
-                            action = new BetAction(amount);
-                        } else if (allowedActions.contains(Action.RAISE)) {
-                            action = new RaiseAction(amount);
-                        } else if (allowedActions.contains(Action.CALL)) {
-                            action = Action.CALL;
+                    } else {
+                        if (ActionType.CALL.isIn(allowedActions)) {
+                            action = ActionType.CALL.toCode();
                         } else {
-                            action = Action.CHECK;
+                            action = ActionType.CHECK.toCode();
                         }
+                    }
+                }
+            } else {
+                // Decent hole cards; check or call.
+                if (!dealer) {
+                    // The player acts first.
+                    if (ActionType.CHECK.isIn(allowedActions)) {
+                        action = ActionType.CHECK.toCode();
                     } else {
-                        int amount = minBet;
-                        if (tableType == TableType.NO_LIMIT) {
-                            int betLevel = aggression / 20;
-                            for (int i = 0; i < betLevel; i++) {
-                                amount *= 2;
-                            }
+                        action = ActionType.CALL.toCode();
+                    }
+                } else {
+                    // The opponent acts first.
+                    if (currentBet <= 0.5 * pot) {
+                        if (ActionType.CHECK.isIn(allowedActions)) {
+                            action = ActionType.CHECK.toCode();
+                        } else {
+                            action = ActionType.CALL.toCode();
                         }
-                        if (currentBet < amount) {
-                            if (allowedActions.contains(Action.BET)) {
-                                action = new BetAction(amount);
-                            } else if (allowedActions.contains(Action.RAISE)) {
-                                action = new RaiseAction(amount);
-                            } else if (allowedActions.contains(Action.CALL)) {
-                                action = Action.CALL;
-                            } else {
-                                action = Action.CHECK;
-                            }
+                    } else {
+                        if (ActionType.CHECK.isIn(allowedActions)) {
+                            action = ActionType.CHECK.toCode();
                         } else {
-                            if (allowedActions.contains(Action.CALL)) {
-                                action = Action.CALL;
-                            } else {
-                                action = Action.CHECK;
-                            }
+                            action = ActionType.FOLD.toCode();
                         }
                     }
-                } else {
-                    // Decent hole cards; check or call.
-                	// The player acts first
-                	if (!dealer) {
-	                    if (allowedActions.contains(Action.CHECK)) {
-	                        action = Action.CHECK;
-	                    } else {
-	                        action = Action.CALL;
-	                    }
-                	} 
-                	// The opponent acts first
-                	else {
-                		if (currentBet<=0.5*pot) {
-                			if (allowedActions.contains(Action.CHECK)) {
-    	                        action = Action.CHECK;
-    	                    } else {
-    	                        action = Action.CALL;
-    	                    }
-                		} else {
-                			if (allowedActions.contains(Action.CHECK)) {
-    	                        action = Action.CHECK;
-    	                    } else {
-    	                        action = Action.FOLD;
-    	                    }
-                		}
-                	}
                 }
             }
         }
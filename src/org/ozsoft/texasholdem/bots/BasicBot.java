@@ -18,22 +18,19 @@
 package org.ozsoft.texasholdem.bots;
 
 import java.util.List;
-import java.util.Set;
 
 import org.ozsoft.texasholdem.Card;
 import org.ozsoft.texasholdem.Player;
 import org.ozsoft.texasholdem.TableType;
-import org.ozsoft.texasholdem.actions.Action;
-import org.ozsoft.texasholdem.actions.BetAction;
-import org.ozsoft.texasholdem.actions.RaiseAction;
-import org.ozsoft.texasholdem.util.PokerUtils;
+import org.ozsoft.texasholdem.actions.ActionType;
+import org.ozsoft.texasholdem.equity.PreflopEquityTable;
 
 /**
  * Basic Texas Hold'em poker bot. <br />
  * <br />
  * 
  * The current implementation acts purely on the bot's hole cards, based on the
- * Chen formula, combined with a configurable level of tightness (when to play
+ * precomputed preflop equity table, combined with a configurable level of tightness (when to play
  * or fold a hand ) and aggression (how much to bet or raise in case of good
  * cards or when bluffing). <br />
  * <br />
@@ -129,45 +126,46 @@ public class BasicBot extends Bot {
 
     /** {@inheritDoc} */
     @Override
-    public Action act(int minBet, int currentBet, Set<Action> allowedActions, Card[] cards, int pot,boolean dealer) {
-        Action action = null;
-        if (allowedActions.size() == 1) {
+    public long act(int minBet, int currentBet, int allowedActions, Card[] cards, int pot,boolean dealer) {
+        long action;
+        if (Integer.bitCount(allowedActions) == 1) {
             // No choice, must check.
-            action = Action.CHECK;
+            action = ActionType.CHECK.toCode();
         } else {
-            double chenScore = PokerUtils.getChenScore(cards);
-            double chenScoreToPlay = tightness * 0.2;
-            if ((chenScore < chenScoreToPlay)) {
-                if (allowedActions.contains(Action.CHECK)) {
+            // Preflop strength of the hole cards (not the board cards).
+            double strength = PreflopEquityTable.getStrength(this.cards[0], this.cards[1], 1);
+            double strengthToPlay = tightness / 100.0;
+            if ((strength < strengthToPlay)) {
+                if (ActionType.CHECK.isIn(allowedActions)) {
                     // Always check for free if possible.
-                    action = Action.CHECK;
+                    action = ActionType.CHECK.toCode();
                 } else {
                     // Bad hole cards; play tight.
-                    action = Action.FOLD;
+                    action = ActionType.FOLD.toCode();
                 }
             } else {
                 // Good enough hole cards, play hand.
-                if ((chenScore - chenScoreToPlay) >= ((20.0 - chenScoreToPlay) / 2.0)) {
+                if ((strength - strengthToPlay) >= ((1.0 - strengthToPlay) / 2.0)) {
                     // Very good hole cards; bet or raise!
                     if (aggression == 0) {
                         // Never bet.
-                        if (allowedActions.contains(Action.CALL)) {
-                            action = Action.CALL;
+                        if (ActionType.CALL.isIn(allowedActions)) {
+                            action = ActionType.CALL.toCode();
                         } else {
-                            action = Action.CHECK;
+                            action = ActionType.CHECK.toCode();
                         }
                     } else if (aggression == 100) {
                         // Always go all-in!
                         //FIXME: Check and bet/raise player's remaining cash.
                         int amount = (tableType == TableType.FIXED_LIMIT) ? minBet : 100 * minBet;
-                        if (allowedActions.contains(Action.BET)) {
-                            action = new BetAction(amount);
-                        } else if (allowedActions.contains(Action.RAISE)) {
-                            action = new RaiseAction(amount);
-                        } else if (allowedActions.contains(Action.CALL)) {
-                            action = Action.CALL;
+                        if (ActionType.BET.isIn(allowedActions)) {
+                            action = ActionType.BET.toCode(amount);
+                        } else if (ActionType.RAISE.isIn(allowedActions)) {
+                            action = ActionType.RAISE.toCode(amount);
+                        } else if (ActionType.CALL.isIn(allowedActions)) {
+                            action = ActionType.CALL.toCode();
                         } else {
-                            action = Action.CHECK;
+                            action = ActionType.CHECK.toCode();
                         }
                     } else {
                         int amount = minBet;
@@ -178,29 +176,29 @@ public class BasicBot extends Bot {
                             }
                         }
                         if (currentBet < amount) {
-                            if (allowedActions.contains(Action.BET)) {
-                                action = new BetAction(amount);
-                            } else if (allowedActions.contains(Action.RAISE)) {
-                                action = new RaiseAction(amount);
-                            } else if (allowedActions.contains(Action.CALL)) {
-                                action = Action.CALL;
+                            if (ActionType.BET.isIn(allowedActions)) {
+                                action = ActionType.BET.toCode(amount);
+                            } else if (ActionType.RAISE.isIn(allowedActions)) {
+                                action = ActionType.RAISE.toCode(amount);
+                            } else if (ActionType.CALL.isIn(allowedActions)) {
+                                action = ActionType.CALL.toCode();
                             } else {
-                                action = Action.CHECK;
+                                action = ActionType.CHECK.toCode();
                             }
                         } else {
-                            if (allowedActions.contains(Action.CALL)) {
-                                action = Action.CALL;
+                            if (ActionType.CALL.isIn(allowedActions)) {
+                                action = ActionType.CALL.toCode();
                             } else {
-                                action = Action.CHECK;
+                                action = ActionType.CHECK.toCode();
                             }
                         }
                     }
                 } else {
                     // Decent hole cards; check or call.
-                    if (allowedActions.contains(Action.CHECK)) {
-                        action = Action.CHECK;
+                    if (ActionType.CHECK.isIn(allowedActions)) {
+                        action = ActionType.CHECK.toCode();
                     } else {
-                        action = Action.CALL;
+                        action = ActionType.CALL.toCode();
                     }
                 }
             }
@@ -17,10 +17,22 @@
 
 package org.ozsoft.texasholdem.bots;
 
+import java.util.Set;
+
+import org.ozsoft.texasholdem.Card;
 import org.ozsoft.texasholdem.Client;
+import org.ozsoft.texasholdem.GameState;
+import org.ozsoft.texasholdem.actions.Action;
+import org.ozsoft.texasholdem.actions.ActionType;
 
 /**
- * Base class for all Texas Hold'em poker bot implementations.
+ * Base class for all Texas Hold'em poker bot implementations. <br />
+ * <br />
+ * 
+ * Bots implement the allocation-free variant of <code>act</code>; the
+ * {@link Action} based variant is adapted to it, and so is the
+ * {@link GameState} based variant, unless overridden by a bot using the
+ * extra information.
  *  
  * @author Oscar Stigter
  */
@@ -29,4 +41,15 @@ public abstract class Bot implements Client {
     /** Number of hole cards. */
     protected static final int NO_OF_HOLE_CARDS = 2;
     
+    /** {@inheritDoc} */
+    @Override
+    public Action act(int minBet, int currentBet, Set<Action> allowedActions, Card[] commuCards, int pot, boolean dealer) {
+        return ActionType.toAction(act(minBet, currentBet, ActionType.toMask(allowedActions), commuCards, pot, dealer));
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public abstract long act(int minBet, int currentBet, int allowedActions, Card[] commuCards, int pot,
+            boolean dealer);
+    
 }
@@ -18,12 +18,12 @@
 package org.ozsoft.texasholdem.bots;
 
 import java.util.List;
-import java.util.Set;
 
 import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.GameState;
 import org.ozsoft.texasholdem.Player;
 import org.ozsoft.texasholdem.TableType;
-import org.ozsoft.texasholdem.actions.Action;
+import org.ozsoft.texasholdem.actions.ActionType;
 
 /**
  * Dummy Texas Hold'em poker bot that always just checks or calls. <br />
@@ -79,11 +79,21 @@ public class DummyBot extends Bot {
 
     /** {@inheritDoc} */
     @Override
-    public Action act(int minBet, int currentBet, Set<Action> allowedActions, Card[] cards, int pot,boolean dealer) {
-        if (allowedActions.contains(Action.CHECK)) {
-            return Action.CHECK;
+    public long act(int minBet, int currentBet, int allowedActions, Card[] cards, int pot, boolean dealer) {
+        if (ActionType.CHECK.isIn(allowedActions)) {
+            return ActionType.CHECK.toCode();
         } else {
-            return Action.CALL;
+            return ActionType.CALL.toCode();
+        }
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public long act(GameState state) {
+        if (ActionType.CHECK.isIn(state.getAllowedActions())) {
+            return ActionType.CHECK.toCode();
+        } else {
+            return ActionType.CALL.toCode();
         }
     }
     
@@ -0,0 +1,427 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.equity;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.CardSet;
+import org.ozsoft.texasholdem.IncrementalHandEvaluator;
+
+/**
+ * Exact equity calculator for two or more players with known hole cards. <br />
+ * <br />
+ *
+ * All possible completions of the board are enumerated, split over the
+ * threads of a fork-join pool by the first dealt card. Each player's hole
+ * cards and the known board are prepared once with an
+ * {@link IncrementalHandEvaluator}, so each board only costs a table lookup
+ * per player. <br />
+ * <br />
+ *
+ * Example: <code>calculate(new Card[][] {{Ah, Kh}, {Qs, Qd}}, new Card[0])</code>
+ * enumerates all 1,712,304 preflop boards. <br />
+ * <br />
+ *
+ * By default the common fork-join pool is used. A calculator with its own
+ * number of threads owns its pool, and should be closed when no longer
+ * needed.
+ *
+ * @author Oscar Stigter
+ */
+public class EquityCalculator implements AutoCloseable {
+
+    /** The number of cards on a complete board. */
+    public static final int BOARD_SIZE = 5;
+
+    /** The number of hole cards per player. */
+    public static final int NO_OF_HOLE_CARDS = 2;
+
+    /** The fork-join pool executing the enumeration. */
+    private final ForkJoinPool pool;
+
+    /** Whether the pool was created by (and is shut down with) this calculator. */
+    private final boolean ownsPool;
+
+    /**
+     * Constructor using the common fork-join pool.
+     */
+    public EquityCalculator() {
+        this(ForkJoinPool.commonPool(), false);
+    }
+
+    /**
+     * Constructor with its own pool of a specific number of threads, which is
+     * shut down by {@link #close()}.
+     *
+     * @param parallelism
+     *            The number of threads.
+     *
+     * @throws IllegalArgumentException
+     *             If the number of threads is not positive.
+     */
+    public EquityCalculator(int parallelism) {
+        this(new ForkJoinPool(parallelism), true);
+    }
+
+    /**
+     * Constructor using an existing fork-join pool, which is left running by
+     * {@link #close()}.
+     *
+     * @param pool
+     *            The fork-join pool.
+     *
+     * @throws IllegalArgumentException
+     *             If the pool is null.
+     */
+    public EquityCalculator(ForkJoinPool pool) {
+        this(pool, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param pool
+     *            The fork-join pool.
+     * @param ownsPool
+     *            Whether to shut down the pool when closed.
+     *
+     * @throws IllegalArgumentException
+     *             If the pool is null.
+     */
+    private EquityCalculator(ForkJoinPool pool, boolean ownsPool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Null pool");
+        }
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+    }
+
+    /**
+     * Calculates the equity of each player by enumerating all boards.
+     *
+     * @param holeCards
+     *            The hole cards per player.
+     * @param board
+     *            The known board cards (0 to 5).
+     *
+     * @return The equity per player.
+     *
+     * @throws IllegalArgumentException
+     *             If the players or cards are invalid.
+     */
+    public EquityResult calculate(Card[][] holeCards, Card[] board) {
+        return calculate(holeCards, board, new Card[0]);
+    }
+
+    /**
+     * Calculates the equity of each player by enumerating all boards, excluding
+     * dead cards (e.g. folded or exposed cards).
+     *
+     * @param holeCards
+     *            The hole cards per player.
+     * @param board
+     *            The known board cards (0 to 5).
+     * @param deadCards
+     *            The dead cards, which can not appear on the board.
+     *
+     * @return The equity per player.
+     *
+     * @throws IllegalArgumentException
+     *             If the players or cards are invalid.
+     */
+    public EquityResult calculate(Card[][] holeCards, Card[] board, Card[] deadCards) {
+        long usedCards = getUsedCards(holeCards, board, deadCards, false);
+        int noOfCards = BOARD_SIZE - board.length;
+        int[] deck = getDeck(usedCards);
+        if (deck.length < noOfCards) {
+            throw new IllegalArgumentException("Not enough cards left to complete the board");
+        }
+
+        IncrementalHandEvaluator[] players = getEvaluators(holeCards, board);
+        if (noOfCards == 0) {
+            Tally tally = new Tally(players.length);
+            for (int i = 0; i < players.length; i++) {
+                tally.values[i] = players[i].evaluate();
+            }
+            tally.score();
+            return tally.toResult();
+        } else {
+            return pool.invoke(new BoardTask(players, deck, noOfCards, 0, deck.length - noOfCards + 1)).toResult();
+        }
+    }
+
+    /**
+     * Shuts down the pool if this calculator created it.
+     */
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Validates the cards of an equity calculation and returns them as a card
+     * set.
+     *
+     * @param holeCards
+     *            The hole cards per player.
+     * @param board
+     *            The known board cards.
+     * @param deadCards
+     *            The dead cards.
+     * @param allowUnknown
+     *            Whether the hole cards of a player may be null (unknown).
+     *
+     * @return The card set with all specified cards.
+     *
+     * @throws IllegalArgumentException
+     *             If the players or cards are invalid.
+     */
+    /* package */ static long getUsedCards(Card[][] holeCards, Card[] board, Card[] deadCards,
+            boolean allowUnknown) {
+        if (holeCards == null) {
+            throw new IllegalArgumentException("Null hole cards");
+        }
+        if (holeCards.length < 2) {
+            throw new IllegalArgumentException("Invalid number of players: " + holeCards.length);
+        }
+        if (board == null) {
+            throw new IllegalArgumentException("Null board");
+        }
+        if (board.length > BOARD_SIZE) {
+            throw new IllegalArgumentException("Invalid number of board cards: " + board.length);
+        }
+        if (deadCards == null) {
+            throw new IllegalArgumentException("Null dead cards");
+        }
+        long usedCards = CardSet.EMPTY;
+        for (Card[] cards : holeCards) {
+            if (cards == null && allowUnknown) {
+                continue;
+            }
+            if (cards == null || cards.length != NO_OF_HOLE_CARDS) {
+                throw new IllegalArgumentException("Invalid hole cards");
+            }
+            usedCards = addCards(usedCards, cards);
+        }
+        usedCards = addCards(usedCards, board);
+        usedCards = addCards(usedCards, deadCards);
+        return usedCards;
+    }
+
+    /**
+     * Returns the indices of the cards not in a card set, in ascending order.
+     *
+     * @param usedCards
+     *            The card set.
+     *
+     * @return The remaining card indices.
+     */
+    /* package */ static int[] getDeck(long usedCards) {
+        long remaining = CardSet.FULL_DECK & ~usedCards;
+        int[] deck = new int[Long.bitCount(remaining)];
+        for (int i = 0; i < deck.length; i++) {
+            deck[i] = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1L;
+        }
+        return deck;
+    }
+
+    /**
+     * Returns the evaluator state of each player's hole cards plus the known
+     * board.
+     *
+     * @param holeCards
+     *            The hole cards per player.
+     * @param board
+     *            The known board cards.
+     *
+     * @return The evaluator state per player.
+     */
+    /* package */ static IncrementalHandEvaluator[] getEvaluators(Card[][] holeCards, Card[] board) {
+        long boardCards = CardSet.of(board);
+        IncrementalHandEvaluator[] players = new IncrementalHandEvaluator[holeCards.length];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = new IncrementalHandEvaluator(boardCards | CardSet.of(holeCards[i]));
+        }
+        return players;
+    }
+
+    /**
+     * Adds cards to a card set, checking for duplicates.
+     *
+     * @param mask
+     *            The card set.
+     * @param cards
+     *            The cards to add.
+     *
+     * @return The card set with the added cards.
+     *
+     * @throws IllegalArgumentException
+     *             If a card is null or already in the card set.
+     */
+    /* package */ static long addCards(long mask, Card[] cards) {
+        for (Card card : cards) {
+            if (card == null) {
+                throw new IllegalArgumentException("Null card");
+            }
+            long bit = CardSet.of(card);
+            if ((mask & bit) != 0L) {
+                throw new IllegalArgumentException("Duplicate card: " + card);
+            }
+            mask |= bit;
+        }
+        return mask;
+    }
+
+    /**
+     * Task enumerating the boards starting with the remaining cards at a range
+     * of positions.
+     */
+    private static class BoardTask extends RecursiveTask<Tally> {
+
+        /** Serial version UID. */
+        private static final long serialVersionUID = 1L;
+
+        /** The evaluator state per player. */
+        private final IncrementalHandEvaluator[] players;
+
+        /** The remaining card indices. */
+        private final int[] deck;
+
+        /** The number of cards to deal. */
+        private final int noOfCards;
+
+        /** The first position of the first dealt card (inclusive). */
+        private final int from;
+
+        /** The last position of the first dealt card (exclusive). */
+        private final int to;
+
+        /**
+         * Constructor.
+         *
+         * @param players
+         *            The evaluator state per player.
+         * @param deck
+         *            The remaining card indices.
+         * @param noOfCards
+         *            The number of cards to deal.
+         * @param from
+         *            The first position of the first dealt card (inclusive).
+         * @param to
+         *            The last position of the first dealt card (exclusive).
+         */
+        public BoardTask(IncrementalHandEvaluator[] players, int[] deck, int noOfCards, int from, int to) {
+            this.players = players;
+            this.deck = deck;
+            this.noOfCards = noOfCards;
+            this.from = from;
+            this.to = to;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected Tally compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                BoardTask left = new BoardTask(players, deck, noOfCards, from, middle);
+                BoardTask right = new BoardTask(players, deck, noOfCards, middle, to);
+                left.fork();
+                Tally tally = right.compute();
+                tally.add(left.join());
+                return tally;
+            } else {
+                Tally tally = new Tally(players.length);
+                if (noOfCards == 1) {
+                    for (int i = 0; i < players.length; i++) {
+                        tally.values[i] = players[i].evaluate(deck[from]);
+                    }
+                    tally.score();
+                } else {
+                    enumerate(extend(players, deck[from]), from + 1, noOfCards - 1, tally);
+                }
+                return tally;
+            }
+        }
+
+        /**
+         * Enumerates the boards completed with the remaining cards from a
+         * specific position.
+         *
+         * @param states
+         *            The evaluator state per player.
+         * @param start
+         *            The position of the first card that may be dealt.
+         * @param remaining
+         *            The number of cards to deal (at least 1).
+         * @param tally
+         *            The tally to add the results to.
+         */
+        private void enumerate(IncrementalHandEvaluator[] states, int start, int remaining, Tally tally) {
+            int[] values = tally.values;
+            if (remaining == 1) {
+                for (int i = start; i < deck.length; i++) {
+                    int card = deck[i];
+                    for (int p = 0; p < states.length; p++) {
+                        values[p] = states[p].evaluate(card);
+                    }
+                    tally.score();
+                }
+            } else if (remaining == 2) {
+                for (int i = start; i < deck.length - 1; i++) {
+                    int card1 = deck[i];
+                    for (int j = i + 1; j < deck.length; j++) {
+                        int card2 = deck[j];
+                        for (int p = 0; p < states.length; p++) {
+                            values[p] = states[p].evaluate(card1, card2);
+                        }
+                        tally.score();
+                    }
+                }
+            } else {
+                for (int i = start; i <= deck.length - remaining; i++) {
+                    enumerate(extend(states, deck[i]), i + 1, remaining - 1, tally);
+                }
+            }
+        }
+
+        /**
+         * Returns the evaluator states extended with one card.
+         *
+         * @param states
+         *            The evaluator state per player.
+         * @param card
+         *            The card index.
+         *
+         * @return The extended evaluator states.
+         */
+        private static IncrementalHandEvaluator[] extend(IncrementalHandEvaluator[] states, int card) {
+            IncrementalHandEvaluator[] extended = new IncrementalHandEvaluator[states.length];
+            for (int i = 0; i < states.length; i++) {
+                extended[i] = states[i].extend(card);
+            }
+            return extended;
+        }
+
+    }
+
+}
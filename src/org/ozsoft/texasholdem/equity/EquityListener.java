@@ -0,0 +1,42 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.equity;
+
+/**
+ * Listener receiving the intermediate results of a sampling equity
+ * calculation.
+ *
+ * @author Oscar Stigter
+ */
+public interface EquityListener {
+
+    /**
+     * Handles an intermediate result. <br />
+     * <br />
+     *
+     * Called from the calculation threads, possibly concurrently, so
+     * implementations must be thread-safe. A result may arrive after one
+     * covering more boards; use {@link EquityResult#getNoOfBoards()} to
+     * discard stale results.
+     *
+     * @param result
+     *            The result so far, including the standard errors.
+     */
+    void equityUpdated(EquityResult result);
+
+}
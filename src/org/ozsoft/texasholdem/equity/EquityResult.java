@@ -0,0 +1,181 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.equity;
+
+/**
+ * The result of an equity calculation for a number of players. <br />
+ * <br />
+ *
+ * For each player the number of boards won outright, the number of boards
+ * tied and the equity (the expected share of the pot) are reported. The
+ * players are indexed in the order in which their hole cards were specified.
+ * <br />
+ * <br />
+ *
+ * Results of a sampling calculation also carry the standard error of each
+ * player's equity; for an exact enumeration the standard errors are zero.
+ *
+ * @author Oscar Stigter
+ */
+public class EquityResult {
+
+    /** The number of evaluated boards. */
+    private final long noOfBoards;
+
+    /** The number of boards won outright per player. */
+    private final long[] wins;
+
+    /** The number of boards tied per player. */
+    private final long[] ties;
+
+    /** The total pot share per player. */
+    private final double[] shares;
+
+    /** The standard error of the equity per player. */
+    private final double[] standardErrors;
+
+    /**
+     * Constructor.
+     *
+     * @param noOfBoards
+     *            The number of evaluated boards.
+     * @param wins
+     *            The number of boards won outright per player.
+     * @param ties
+     *            The number of boards tied per player.
+     * @param shares
+     *            The total pot share per player.
+     * @param standardErrors
+     *            The standard error of the equity per player.
+     */
+    /* package */ EquityResult(long noOfBoards, long[] wins, long[] ties, double[] shares, double[] standardErrors) {
+        this.noOfBoards = noOfBoards;
+        this.wins = wins;
+        this.ties = ties;
+        this.shares = shares;
+        this.standardErrors = standardErrors;
+    }
+
+    /**
+     * Returns the number of players.
+     *
+     * @return The number of players.
+     */
+    public int getNoOfPlayers() {
+        return wins.length;
+    }
+
+    /**
+     * Returns the number of evaluated boards.
+     *
+     * @return The number of boards.
+     */
+    public long getNoOfBoards() {
+        return noOfBoards;
+    }
+
+    /**
+     * Returns the number of boards a player has won outright.
+     *
+     * @param player
+     *            The player index.
+     *
+     * @return The number of boards won.
+     */
+    public long getWins(int player) {
+        return wins[player];
+    }
+
+    /**
+     * Returns the number of boards a player has tied with one or more other
+     * players.
+     *
+     * @param player
+     *            The player index.
+     *
+     * @return The number of boards tied.
+     */
+    public long getTies(int player) {
+        return ties[player];
+    }
+
+    /**
+     * Returns the probability that a player wins outright.
+     *
+     * @param player
+     *            The player index.
+     *
+     * @return The win probability (between 0.0 and 1.0).
+     */
+    public double getWinProbability(int player) {
+        return (noOfBoards > 0L) ? (double) wins[player] / noOfBoards : 0.0;
+    }
+
+    /**
+     * Returns the probability that a player ties.
+     *
+     * @param player
+     *            The player index.
+     *
+     * @return The tie probability (between 0.0 and 1.0).
+     */
+    public double getTieProbability(int player) {
+        return (noOfBoards > 0L) ? (double) ties[player] / noOfBoards : 0.0;
+    }
+
+    /**
+     * Returns the equity of a player, which is the expected share of the pot,
+     * with split pots divided equally among the winners.
+     *
+     * @param player
+     *            The player index.
+     *
+     * @return The equity (between 0.0 and 1.0).
+     */
+    public double getEquity(int player) {
+        return (noOfBoards > 0L) ? shares[player] / noOfBoards : 0.0;
+    }
+
+    /**
+     * Returns the standard error of a player's equity.
+     *
+     * @param player
+     *            The player index.
+     *
+     * @return The standard error (0.0 for an exact result).
+     */
+    public double getStandardError(int player) {
+        return standardErrors[player];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d boards", noOfBoards));
+        for (int i = 0; i < wins.length; i++) {
+            sb.append(String.format(", player %d: win %.2f%%, tie %.2f%%, equity %.2f%%", i,
+                    getWinProbability(i) * 100.0, getTieProbability(i) * 100.0, getEquity(i) * 100.0));
+            if (standardErrors[i] > 0.0) {
+                sb.append(String.format(" (+/- %.2f%%)", standardErrors[i] * 100.0));
+            }
+        }
+        return sb.toString();
+    }
+
+}
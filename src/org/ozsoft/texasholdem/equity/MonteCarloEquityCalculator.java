@@ -0,0 +1,409 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.equity;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.CardSet;
+import org.ozsoft.texasholdem.LookupHandEvaluator;
+
+/**
+ * Sampling (Monte Carlo) equity calculator for multiway spots. <br />
+ * <br />
+ *
+ * Random boards are dealt on every thread of a fork-join pool, each thread
+ * with its own random number generator, until the requested precision
+ * (standard error of the equity) or time budget is reached. The hole cards of
+ * a player may be unknown (<code>null</code>), in which case they are dealt at
+ * random as well, so a bot can estimate its equity against a number of
+ * opponents from within {@link org.ozsoft.texasholdem.Client#act}. <br />
+ * <br />
+ *
+ * Example: <code>calculate(new Card[][] {myCards, null, null}, board, new Card[0], 0.005, 50L)</code>
+ * estimates the equity against two random hands to within half a percent, or
+ * whatever is reached within 50 ms. <br />
+ * <br />
+ *
+ * By default the common fork-join pool is used. A calculator with its own
+ * number of threads owns its pool, and should be closed when no longer
+ * needed.
+ *
+ * @author Oscar Stigter
+ */
+public class MonteCarloEquityCalculator implements AutoCloseable {
+
+    /** The number of boards a thread deals before reporting its results. */
+    private static final int BATCH_SIZE = 1000;
+
+    /** The minimum number of boards before the precision is trusted. */
+    private static final long MIN_NO_OF_BOARDS = 10000L;
+
+    /** The fork-join pool executing the simulation. */
+    private final ForkJoinPool pool;
+
+    /** Whether the pool was created by (and is shut down with) this calculator. */
+    private final boolean ownsPool;
+
+    /** The generator seeding the per-thread generators. */
+    private final SplittableRandom random;
+
+    /** The listener receiving intermediate results (may be null). */
+    private volatile EquityListener listener;
+
+    /**
+     * Constructor using the common fork-join pool.
+     */
+    public MonteCarloEquityCalculator() {
+        this(ForkJoinPool.commonPool(), false, new SplittableRandom());
+    }
+
+    /**
+     * Constructor with its own pool of a specific number of threads, which is
+     * shut down by {@link #close()}.
+     *
+     * @param parallelism
+     *            The number of threads.
+     *
+     * @throws IllegalArgumentException
+     *             If the number of threads is not positive.
+     */
+    public MonteCarloEquityCalculator(int parallelism) {
+        this(new ForkJoinPool(parallelism), true, new SplittableRandom());
+    }
+
+    /**
+     * Constructor with its own pool of a specific number of threads and a
+     * fixed seed. The pool is shut down by {@link #close()}. <br />
+     * <br />
+     *
+     * Note that with more than one thread the results are still not
+     * reproducible, since the number of boards dealt per thread depends on
+     * the scheduling.
+     *
+     * @param parallelism
+     *            The number of threads.
+     * @param seed
+     *            The seed.
+     *
+     * @throws IllegalArgumentException
+     *             If the number of threads is not positive.
+     */
+    public MonteCarloEquityCalculator(int parallelism, long seed) {
+        this(new ForkJoinPool(parallelism), true, new SplittableRandom(seed));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param pool
+     *            The fork-join pool.
+     * @param ownsPool
+     *            Whether to shut down the pool when closed.
+     * @param random
+     *            The generator seeding the per-thread generators.
+     */
+    private MonteCarloEquityCalculator(ForkJoinPool pool, boolean ownsPool, SplittableRandom random) {
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+        this.random = random;
+    }
+
+    /**
+     * Sets the listener receiving intermediate results.
+     *
+     * @param listener
+     *            The listener, or null for none.
+     */
+    public void setListener(EquityListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Estimates the equity of each player by dealing random boards.
+     *
+     * @param holeCards
+     *            The hole cards per player, or null for unknown hole cards.
+     * @param board
+     *            The known board cards (0 to 5).
+     * @param deadCards
+     *            The dead cards, which can not be dealt.
+     * @param precision
+     *            The requested standard error of each player's equity (e.g.
+     *            0.001 for a tenth of a percent), or 0.0 for none.
+     * @param timeBudget
+     *            The maximum duration in milliseconds, or 0 for none.
+     *
+     * @return The estimated equity per player, including the standard errors.
+     *
+     * @throws IllegalArgumentException
+     *             If the players or cards are invalid, or if neither a
+     *             precision nor a time budget is specified.
+     */
+    public EquityResult calculate(Card[][] holeCards, Card[] board, Card[] deadCards, double precision,
+            long timeBudget) {
+        if (precision < 0.0 || timeBudget < 0L) {
+            throw new IllegalArgumentException("Invalid precision or time budget");
+        }
+        if (precision == 0.0 && timeBudget == 0L) {
+            throw new IllegalArgumentException("No precision or time budget specified");
+        }
+        long usedCards = EquityCalculator.getUsedCards(holeCards, board, deadCards, true);
+        int noOfCards = EquityCalculator.BOARD_SIZE - board.length;
+        for (Card[] cards : holeCards) {
+            if (cards == null) {
+                noOfCards += EquityCalculator.NO_OF_HOLE_CARDS;
+            }
+        }
+        if (CardSet.size(CardSet.FULL_DECK & ~usedCards) < noOfCards) {
+            throw new IllegalArgumentException("Not enough cards left to deal");
+        }
+
+        long[] holeMasks = new long[holeCards.length];
+        for (int i = 0; i < holeCards.length; i++) {
+            holeMasks[i] = (holeCards[i] != null) ? CardSet.of(holeCards[i]) : CardSet.EMPTY;
+        }
+        long deadline = (timeBudget > 0L) ? System.nanoTime() + timeBudget * 1000000L : Long.MAX_VALUE;
+        Simulation simulation = new Simulation(holeCards, holeMasks, CardSet.of(board),
+                EquityCalculator.getDeck(usedCards), EquityCalculator.BOARD_SIZE - board.length, precision, deadline,
+                listener);
+        int parallelism = pool.getParallelism();
+        final SimulationTask[] tasks = new SimulationTask[parallelism];
+        synchronized (random) {
+            for (int i = 0; i < parallelism; i++) {
+                tasks[i] = new SimulationTask(simulation, random.split());
+            }
+        }
+        pool.invoke(new RecursiveAction() {
+
+            /** Serial version UID. */
+            private static final long serialVersionUID = 1L;
+
+            /** {@inheritDoc} */
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(tasks);
+            }
+
+        });
+        return simulation.getResult();
+    }
+
+    /**
+     * Shuts down the pool if this calculator created it.
+     */
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * The shared state of a running simulation.
+     */
+    private static class Simulation {
+
+        /** The hole cards per player (null if unknown). */
+        private final Card[][] holeCards;
+
+        /** The known hole cards per player as card sets. */
+        private final long[] holeMasks;
+
+        /** The known board cards as a card set. */
+        private final long boardMask;
+
+        /** The card indices that can be dealt. */
+        private final int[] deck;
+
+        /** The number of board cards to deal. */
+        private final int noOfBoardCards;
+
+        /** The requested standard error. */
+        private final double precision;
+
+        /** The deadline (in nanoseconds, based on {@link System#nanoTime()}). */
+        private final long deadline;
+
+        /** The listener receiving intermediate results (may be null). */
+        private final EquityListener listener;
+
+        /** The combined results of all threads. */
+        private final Tally tally;
+
+        /** Whether the simulation has finished. */
+        private volatile boolean isDone = false;
+
+        /**
+         * Constructor.
+         *
+         * @param holeCards
+         *            The hole cards per player (null if unknown).
+         * @param holeMasks
+         *            The known hole cards per player as card sets.
+         * @param boardMask
+         *            The known board cards as a card set.
+         * @param deck
+         *            The card indices that can be dealt.
+         * @param noOfBoardCards
+         *            The number of board cards to deal.
+         * @param precision
+         *            The requested standard error.
+         * @param deadline
+         *            The deadline.
+         * @param listener
+         *            The listener receiving intermediate results (may be
+         *            null).
+         */
+        public Simulation(Card[][] holeCards, long[] holeMasks, long boardMask, int[] deck, int noOfBoardCards,
+                double precision, long deadline, EquityListener listener) {
+            this.holeCards = holeCards;
+            this.holeMasks = holeMasks;
+            this.boardMask = boardMask;
+            this.deck = deck;
+            this.noOfBoardCards = noOfBoardCards;
+            this.precision = precision;
+            this.deadline = deadline;
+            this.listener = listener;
+            tally = new Tally(holeCards.length);
+        }
+
+        /**
+         * Adds the results of a batch and checks whether the simulation has
+         * finished. <br />
+         * <br />
+         *
+         * The listener is notified after releasing the lock, so a slow
+         * listener does not block the other threads.
+         *
+         * @param batch
+         *            The results of the batch.
+         */
+        public void report(Tally batch) {
+            EquityResult result = null;
+            synchronized (this) {
+                tally.add(batch);
+                if (System.nanoTime() >= deadline) {
+                    isDone = true;
+                } else if (precision > 0.0 && tally.getNoOfBoards() >= MIN_NO_OF_BOARDS
+                        && tally.getMaxStandardError() <= precision) {
+                    isDone = true;
+                }
+                if (listener != null) {
+                    result = tally.toSampledResult();
+                }
+            }
+            if (result != null) {
+                listener.equityUpdated(result);
+            }
+        }
+
+        /**
+         * Returns the combined result of all threads.
+         *
+         * @return The result.
+         */
+        public synchronized EquityResult getResult() {
+            return tally.toSampledResult();
+        }
+
+    }
+
+    /**
+     * Task dealing random boards on a single thread until the simulation has
+     * finished.
+     */
+    private static class SimulationTask extends RecursiveAction {
+
+        /** Serial version UID. */
+        private static final long serialVersionUID = 1L;
+
+        /** The simulation. */
+        private final Simulation simulation;
+
+        /** The random number generator of this thread. */
+        private final SplittableRandom random;
+
+        /**
+         * Constructor.
+         *
+         * @param simulation
+         *            The simulation.
+         * @param random
+         *            The random number generator of this thread.
+         */
+        public SimulationTask(Simulation simulation, SplittableRandom random) {
+            this.simulation = simulation;
+            this.random = random;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void compute() {
+            Card[][] holeCards = simulation.holeCards;
+            long[] holeMasks = simulation.holeMasks;
+            int[] deck = simulation.deck.clone();
+            int noOfBoardCards = simulation.noOfBoardCards;
+            Tally batch = new Tally(holeCards.length);
+            int[] values = batch.values;
+            while (!simulation.isDone) {
+                for (int n = 0; n < BATCH_SIZE; n++) {
+                    // Partial Fisher-Yates shuffle; the deck does not need to be restored.
+                    int dealt = 0;
+                    long boardMask = simulation.boardMask;
+                    for (int i = 0; i < noOfBoardCards; i++) {
+                        boardMask |= 1L << deal(deck, dealt++);
+                    }
+                    for (int p = 0; p < holeCards.length; p++) {
+                        long cards = holeMasks[p];
+                        if (holeCards[p] == null) {
+                            cards = (1L << deal(deck, dealt++)) | (1L << deal(deck, dealt++));
+                        }
+                        values[p] = LookupHandEvaluator.evaluate(cards | boardMask);
+                    }
+                    batch.score();
+                }
+                simulation.report(batch);
+                batch.reset();
+            }
+        }
+
+        /**
+         * Deals a random card by swapping it to a position in the deck.
+         *
+         * @param deck
+         *            The card indices.
+         * @param position
+         *            The position; the cards before it are already dealt.
+         *
+         * @return The dealt card index.
+         */
+        private int deal(int[] deck, int position) {
+            int index = position + random.nextInt(deck.length - position);
+            int card = deck[index];
+            deck[index] = deck[position];
+            deck[position] = card;
+            return card;
+        }
+
+    }
+
+}
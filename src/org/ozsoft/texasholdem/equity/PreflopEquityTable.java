@@ -0,0 +1,323 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.equity;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.ozsoft.texasholdem.Card;
+
+/**
+ * Precomputed preflop equity of the 169 distinct starting hands against 1 to 9
+ * random opponents. <br />
+ * <br />
+ *
+ * Under suit permutation the 1,326 possible hole card combinations collapse to
+ * 13 pairs, 78 suited and 78 offsuit hands. Each starting hand has an index in
+ * a 13x13 matrix: pairs on the diagonal (<code>rank * 13 + rank</code>),
+ * suited hands above it (<code>high * 13 + low</code>) and offsuit hands
+ * below it (<code>low * 13 + high</code>). <br />
+ * <br />
+ *
+ * The table is generated by {@link PreflopEquityTableGenerator} and read from
+ * the resource {@value #RESOURCE_PATH} with a single bulk read on the first
+ * lookup. Each equity is stored as an unsigned 16-bit fraction
+ * (big-endian), ordered by starting hand index, then by number of opponents.
+ *
+ * @author Oscar Stigter
+ */
+public abstract class PreflopEquityTable {
+
+    /** The number of distinct starting hands. */
+    public static final int NO_OF_STARTING_HANDS = Card.NO_OF_RANKS * Card.NO_OF_RANKS;
+
+    /** The maximum number of opponents. */
+    public static final int MAX_NO_OF_OPPONENTS = 9;
+
+    /** The path of the table resource on the classpath. */
+    public static final String RESOURCE_PATH = "/data/preflop_equity.dat";
+
+    /** The scale of the stored equities. */
+    /* package */ static final int SCALE = 0xffff;
+
+    /**
+     * Returns the equity of two hole cards against a number of random
+     * opponents.
+     *
+     * @param card1
+     *            The first hole card.
+     * @param card2
+     *            The second hole card.
+     * @param noOfOpponents
+     *            The number of opponents (1 to 9).
+     *
+     * @return The equity (between 0.0 and 1.0).
+     *
+     * @throws IllegalArgumentException
+     *             If the number of opponents is invalid.
+     */
+    public static double getEquity(Card card1, Card card2, int noOfOpponents) {
+        return getEquity(getIndex(card1, card2), noOfOpponents);
+    }
+
+    /**
+     * Returns the equity of a starting hand against a number of random
+     * opponents.
+     *
+     * @param index
+     *            The starting hand index.
+     * @param noOfOpponents
+     *            The number of opponents (1 to 9).
+     *
+     * @return The equity (between 0.0 and 1.0).
+     *
+     * @throws IllegalArgumentException
+     *             If the number of opponents is invalid.
+     */
+    public static double getEquity(int index, int noOfOpponents) {
+        if (noOfOpponents < 1 || noOfOpponents > MAX_NO_OF_OPPONENTS) {
+            throw new IllegalArgumentException("Invalid number of opponents: " + noOfOpponents);
+        }
+        return Table.EQUITIES[index * MAX_NO_OF_OPPONENTS + noOfOpponents - 1];
+    }
+
+    /**
+     * Returns the strength of two hole cards against a number of random
+     * opponents, as the fraction of all 1,326 hole card combinations with a
+     * lower equity. <br />
+     * <br />
+     *
+     * Unlike the equity itself, the strength does not shrink with the number
+     * of opponents, so it can be compared against a fixed threshold.
+     *
+     * @param card1
+     *            The first hole card.
+     * @param card2
+     *            The second hole card.
+     * @param noOfOpponents
+     *            The number of opponents (1 to 9).
+     *
+     * @return The strength (between 0.0 and 1.0).
+     *
+     * @throws IllegalArgumentException
+     *             If the number of opponents is invalid.
+     */
+    public static double getStrength(Card card1, Card card2, int noOfOpponents) {
+        return getStrength(getIndex(card1, card2), noOfOpponents);
+    }
+
+    /**
+     * Returns the strength of a starting hand against a number of random
+     * opponents, as the fraction of all 1,326 hole card combinations with a
+     * lower equity.
+     *
+     * @param index
+     *            The starting hand index.
+     * @param noOfOpponents
+     *            The number of opponents (1 to 9).
+     *
+     * @return The strength (between 0.0 and 1.0).
+     *
+     * @throws IllegalArgumentException
+     *             If the number of opponents is invalid.
+     */
+    public static double getStrength(int index, int noOfOpponents) {
+        if (noOfOpponents < 1 || noOfOpponents > MAX_NO_OF_OPPONENTS) {
+            throw new IllegalArgumentException("Invalid number of opponents: " + noOfOpponents);
+        }
+        return Table.STRENGTHS[index * MAX_NO_OF_OPPONENTS + noOfOpponents - 1];
+    }
+
+    /**
+     * Returns the starting hand index of two hole cards.
+     *
+     * @param card1
+     *            The first hole card.
+     * @param card2
+     *            The second hole card.
+     *
+     * @return The starting hand index (0 to 168).
+     *
+     * @throws IllegalArgumentException
+     *             If the cards are null or equal.
+     */
+    public static int getIndex(Card card1, Card card2) {
+        if (card1 == null || card2 == null) {
+            throw new IllegalArgumentException("Null card");
+        }
+        if (card1.equals(card2)) {
+            throw new IllegalArgumentException("Duplicate card: " + card1);
+        }
+        int high = Math.max(card1.getRank(), card2.getRank());
+        int low = Math.min(card1.getRank(), card2.getRank());
+        if (card1.getSuit() == card2.getSuit()) {
+            return high * Card.NO_OF_RANKS + low;
+        } else {
+            return low * Card.NO_OF_RANKS + high;
+        }
+    }
+
+    /**
+     * Returns the name of a starting hand, e.g. "AA", "AKs" or "72o".
+     *
+     * @param index
+     *            The starting hand index.
+     *
+     * @return The name.
+     *
+     * @throws IllegalArgumentException
+     *             If the index is invalid.
+     */
+    public static String getName(int index) {
+        if (index < 0 || index >= NO_OF_STARTING_HANDS) {
+            throw new IllegalArgumentException("Invalid starting hand index: " + index);
+        }
+        int row = index / Card.NO_OF_RANKS;
+        int column = index % Card.NO_OF_RANKS;
+        if (row == column) {
+            return Card.RANK_SYMBOLS[row] + Card.RANK_SYMBOLS[column];
+        } else if (row > column) {
+            return Card.RANK_SYMBOLS[row] + Card.RANK_SYMBOLS[column] + 's';
+        } else {
+            return Card.RANK_SYMBOLS[column] + Card.RANK_SYMBOLS[row] + 'o';
+        }
+    }
+
+    /**
+     * Returns representative hole cards of a starting hand.
+     *
+     * @param index
+     *            The starting hand index.
+     *
+     * @return The hole cards.
+     *
+     * @throws IllegalArgumentException
+     *             If the index is invalid.
+     */
+    public static Card[] getCards(int index) {
+        if (index < 0 || index >= NO_OF_STARTING_HANDS) {
+            throw new IllegalArgumentException("Invalid starting hand index: " + index);
+        }
+        int row = index / Card.NO_OF_RANKS;
+        int column = index % Card.NO_OF_RANKS;
+        if (row > column) {
+            return new Card[] { Card.of(row, Card.SPADES), Card.of(column, Card.SPADES) };
+        } else {
+            return new Card[] { Card.of(column, Card.SPADES), Card.of(row, Card.HEARTS) };
+        }
+    }
+
+    /**
+     * Loads the table resource.
+     *
+     * @return The equities.
+     *
+     * @throws IllegalStateException
+     *             If the resource could not be found or read.
+     */
+    private static double[] load() {
+        byte[] data = new byte[NO_OF_STARTING_HANDS * MAX_NO_OF_OPPONENTS * 2];
+        InputStream is = PreflopEquityTable.class.getResourceAsStream(RESOURCE_PATH);
+        if (is == null) {
+            throw new IllegalStateException("Resource file not found: " + RESOURCE_PATH);
+        }
+        try {
+            DataInputStream dis = new DataInputStream(is);
+            try {
+                dis.readFully(data);
+                if (dis.read() != -1) {
+                    throw new IllegalStateException("Invalid resource file: " + RESOURCE_PATH);
+                }
+            } finally {
+                dis.close();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read resource file: " + RESOURCE_PATH, e);
+        }
+        double[] equities = new double[NO_OF_STARTING_HANDS * MAX_NO_OF_OPPONENTS];
+        for (int i = 0; i < equities.length; i++) {
+            int value = ((data[i * 2] & 0xff) << 8) | (data[i * 2 + 1] & 0xff);
+            equities[i] = (double) value / SCALE;
+        }
+        return equities;
+    }
+
+    /**
+     * Ranks the starting hands by equity, per number of opponents.
+     *
+     * @param equities
+     *            The equities.
+     *
+     * @return The strengths.
+     */
+    private static double[] rank(double[] equities) {
+        int noOfCards = Card.NO_OF_RANKS * Card.NO_OF_SUITS;
+        int noOfCombinations = noOfCards * (noOfCards - 1) / 2;
+        double[] strengths = new double[equities.length];
+        for (int opponents = 0; opponents < MAX_NO_OF_OPPONENTS; opponents++) {
+            for (int index = 0; index < NO_OF_STARTING_HANDS; index++) {
+                double equity = equities[index * MAX_NO_OF_OPPONENTS + opponents];
+                int weaker = 0;
+                for (int other = 0; other < NO_OF_STARTING_HANDS; other++) {
+                    if (equities[other * MAX_NO_OF_OPPONENTS + opponents] < equity) {
+                        weaker += getNoOfCombinations(other);
+                    }
+                }
+                strengths[index * MAX_NO_OF_OPPONENTS + opponents] = (double) weaker / noOfCombinations;
+            }
+        }
+        return strengths;
+    }
+
+    /**
+     * Returns the number of hole card combinations of a starting hand.
+     *
+     * @param index
+     *            The starting hand index.
+     *
+     * @return The number of combinations (6 for a pair, 4 for a suited and 12
+     *         for an offsuit hand).
+     */
+    private static int getNoOfCombinations(int index) {
+        int row = index / Card.NO_OF_RANKS;
+        int column = index % Card.NO_OF_RANKS;
+        if (row == column) {
+            return 6;
+        } else if (row > column) {
+            return 4;
+        } else {
+            return 12;
+        }
+    }
+
+    /**
+     * Holder of the table, so the resource is loaded on the first lookup
+     * instead of when the class is initialized.
+     */
+    private static class Table {
+
+        /** The equities, indexed by starting hand and number of opponents. */
+        private static final double[] EQUITIES = load();
+
+        /** The strengths, indexed like the equities. */
+        private static final double[] STRENGTHS = rank(EQUITIES);
+
+    }
+
+}
@@ -0,0 +1,76 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.equity;
+
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.ozsoft.texasholdem.Card;
+
+/**
+ * Generates the resource file of the {@link PreflopEquityTable}. <br />
+ * <br />
+ *
+ * Usage: <code>PreflopEquityTableGenerator [file [precision]]</code>, with
+ * the file defaulting to <code>src/data/preflop_equity.dat</code> and the
+ * precision (the standard error of each equity) to 0.0005.
+ *
+ * @author Oscar Stigter
+ */
+public class PreflopEquityTableGenerator {
+
+    /** The default output file. */
+    private static final String DEFAULT_FILE = "src" + PreflopEquityTable.RESOURCE_PATH;
+
+    /** The default precision. */
+    private static final double DEFAULT_PRECISION = 0.0005;
+
+    /**
+     * The application's entry point.
+     *
+     * @param args
+     *            The command line arguments.
+     *
+     * @throws IOException
+     *             If the file could not be written.
+     */
+    public static void main(String[] args) throws IOException {
+        String file = (args.length > 0) ? args[0] : DEFAULT_FILE;
+        double precision = (args.length > 1) ? Double.parseDouble(args[1]) : DEFAULT_PRECISION;
+        MonteCarloEquityCalculator calculator = new MonteCarloEquityCalculator();
+        DataOutputStream dos = new DataOutputStream(new FileOutputStream(file));
+        try {
+            for (int index = 0; index < PreflopEquityTable.NO_OF_STARTING_HANDS; index++) {
+                StringBuilder sb = new StringBuilder(PreflopEquityTable.getName(index));
+                for (int noOfOpponents = 1; noOfOpponents <= PreflopEquityTable.MAX_NO_OF_OPPONENTS; noOfOpponents++) {
+                    Card[][] holeCards = new Card[noOfOpponents + 1][];
+                    holeCards[0] = PreflopEquityTable.getCards(index);
+                    EquityResult result = calculator.calculate(holeCards, new Card[0], new Card[0], precision, 0L);
+                    double equity = result.getEquity(0);
+                    dos.writeShort((int) Math.round(equity * PreflopEquityTable.SCALE));
+                    sb.append(String.format(" %.4f", equity));
+                }
+                System.out.println(sb);
+            }
+        } finally {
+            dos.close();
+        }
+    }
+
+}
@@ -0,0 +1,186 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.equity;
+
+/**
+ * Mutable accumulator of showdown results, used by the equity calculators.
+ * Not thread-safe; each thread keeps its own tally and tallies are added up
+ * afterwards.
+ *
+ * @author Oscar Stigter
+ */
+/* package */ class Tally {
+
+    /** The hand value per player of the current board. */
+    /* package */ final int[] values;
+
+    /** The number of scored boards. */
+    private long noOfBoards;
+
+    /** The number of boards won outright per player. */
+    private final long[] wins;
+
+    /** The number of boards tied per player. */
+    private final long[] ties;
+
+    /** The total pot share per player. */
+    private final double[] shares;
+
+    /** The total squared pot share per player. */
+    private final double[] squaredShares;
+
+    /**
+     * Constructor.
+     *
+     * @param noOfPlayers
+     *            The number of players.
+     */
+    public Tally(int noOfPlayers) {
+        values = new int[noOfPlayers];
+        wins = new long[noOfPlayers];
+        ties = new long[noOfPlayers];
+        shares = new double[noOfPlayers];
+        squaredShares = new double[noOfPlayers];
+    }
+
+    /**
+     * Scores the showdown of the current board, based on the hand values.
+     */
+    public void score() {
+        int best = -1;
+        int noOfWinners = 0;
+        int winner = -1;
+        for (int i = 0; i < values.length; i++) {
+            int value = values[i];
+            if (value > best) {
+                best = value;
+                noOfWinners = 1;
+                winner = i;
+            } else if (value == best) {
+                noOfWinners++;
+            }
+        }
+        noOfBoards++;
+        if (noOfWinners == 1) {
+            wins[winner]++;
+            shares[winner] += 1.0;
+            squaredShares[winner] += 1.0;
+        } else {
+            double share = 1.0 / noOfWinners;
+            for (int i = winner; i < values.length; i++) {
+                if (values[i] == best) {
+                    ties[i]++;
+                    shares[i] += share;
+                    squaredShares[i] += share * share;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the results of another tally.
+     *
+     * @param tally
+     *            The other tally.
+     */
+    public void add(Tally tally) {
+        noOfBoards += tally.noOfBoards;
+        for (int i = 0; i < wins.length; i++) {
+            wins[i] += tally.wins[i];
+            ties[i] += tally.ties[i];
+            shares[i] += tally.shares[i];
+            squaredShares[i] += tally.squaredShares[i];
+        }
+    }
+
+    /**
+     * Clears the results.
+     */
+    public void reset() {
+        noOfBoards = 0L;
+        for (int i = 0; i < wins.length; i++) {
+            wins[i] = 0L;
+            ties[i] = 0L;
+            shares[i] = 0.0;
+            squaredShares[i] = 0.0;
+        }
+    }
+
+    /**
+     * Returns the number of scored boards.
+     *
+     * @return The number of scored boards.
+     */
+    public long getNoOfBoards() {
+        return noOfBoards;
+    }
+
+    /**
+     * Returns the standard error of a player's equity, treating the scored
+     * boards as a random sample.
+     *
+     * @param player
+     *            The player index.
+     *
+     * @return The standard error.
+     */
+    public double getStandardError(int player) {
+        if (noOfBoards < 2L) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double mean = shares[player] / noOfBoards;
+        double variance = (squaredShares[player] / noOfBoards - mean * mean) * noOfBoards / (noOfBoards - 1L);
+        return Math.sqrt(Math.max(variance, 0.0) / noOfBoards);
+    }
+
+    /**
+     * Returns the largest standard error of all players.
+     *
+     * @return The largest standard error.
+     */
+    public double getMaxStandardError() {
+        double max = 0.0;
+        for (int i = 0; i < wins.length; i++) {
+            max = Math.max(max, getStandardError(i));
+        }
+        return max;
+    }
+
+    /**
+     * Returns the tally as an exact result (all boards enumerated).
+     *
+     * @return The result.
+     */
+    public EquityResult toResult() {
+        return new EquityResult(noOfBoards, wins.clone(), ties.clone(), shares.clone(), new double[wins.length]);
+    }
+
+    /**
+     * Returns the tally as a sampled result, including the standard errors.
+     *
+     * @return The result.
+     */
+    public EquityResult toSampledResult() {
+        double[] standardErrors = new double[wins.length];
+        for (int i = 0; i < standardErrors.length; i++) {
+            standardErrors[i] = getStandardError(i);
+        }
+        return new EquityResult(noOfBoards, wins.clone(), ties.clone(), shares.clone(), standardErrors);
+    }
+
+}
@@ -0,0 +1,356 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.net;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.CardSet;
+import org.ozsoft.texasholdem.Client;
+import org.ozsoft.texasholdem.Player;
+import org.ozsoft.texasholdem.TableType;
+import org.ozsoft.texasholdem.actions.ActionType;
+import org.ozsoft.texasholdem.bots.AiBot;
+
+/**
+ * Connects a local client (e.g. a bot) to a remote {@link NetServer}, so it
+ * plays exactly like a local client. <br />
+ * <br />
+ *
+ * The socket I/O is done by an {@link EventLoop} thread; the messages are
+ * decoded and passed to the client in order on a separate thread, so a slow
+ * client never blocks the I/O. The players are mirrored from the received
+ * deltas and passed to the client as read-only snapshots.
+ *
+ * @author Oscar Stigter
+ */
+public class ClientConnector implements ConnectionListener {
+
+    /** The maximum time to wait for the handshake in milliseconds. */
+    private static final long HANDSHAKE_TIMEOUT = 10000L;
+
+    /** The local client. */
+    private final Client client;
+
+    /** The thread decoding the messages and calling the client. */
+    private final ExecutorService dispatcher;
+
+    /** The message writer (used by the dispatcher thread). */
+    private final MessageWriter writer;
+
+    /** The mirrored state per seat (used by the dispatcher thread). */
+    private final List<SeatState> seatStates;
+
+    /** Signals the end of the handshake. */
+    private final CountDownLatch handshakeDone;
+
+    /** Signals the end of the connection. */
+    private final CountDownLatch connectionDone;
+
+    /** The event loop. */
+    private EventLoop eventLoop;
+
+    /** The connection. */
+    private Connection connection;
+
+    /** The error message from the server, or null if none. */
+    private volatile String error;
+
+    /**
+     * Constructor.
+     *
+     * @param client
+     *            The local client.
+     *
+     * @throws IllegalArgumentException
+     *             If the client is null.
+     */
+    public ClientConnector(Client client) {
+        if (client == null) {
+            throw new IllegalArgumentException("Null client");
+        }
+        this.client = client;
+        dispatcher = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "ClientConnector");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        writer = new MessageWriter();
+        seatStates = new ArrayList<SeatState>();
+        handshakeDone = new CountDownLatch(1);
+        connectionDone = new CountDownLatch(1);
+    }
+
+    /**
+     * Connects to a server and joins as a player.
+     *
+     * @param host
+     *            The server's host name or address.
+     * @param port
+     *            The server's port.
+     * @param name
+     *            The player's name.
+     *
+     * @throws IOException
+     *             If the connection or handshake failed.
+     * @throws IllegalStateException
+     *             If already connected.
+     */
+    public synchronized void connect(String host, int port, String name) throws IOException {
+        if (connection != null) {
+            throw new IllegalStateException("Already connected");
+        }
+        eventLoop = new EventLoop("ClientConnector-" + name);
+        connection = eventLoop.connect(new InetSocketAddress(host, port), this);
+        MessageWriter helloWriter = new MessageWriter();
+        helloWriter.start(Protocol.HELLO).writeVarint(Protocol.VERSION).writeString(name);
+        connection.send(helloWriter.toFrame());
+        try {
+            if (!handshakeDone.await(HANDSHAKE_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                close();
+                throw new IOException("Handshake timed out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new IOException("Interrupted during handshake", e);
+        }
+        if (error != null || connection.isClosed()) {
+            close();
+            throw new IOException("Connection refused: " + error);
+        }
+    }
+
+    /**
+     * Indicates whether the connection is open.
+     *
+     * @return True if connected, otherwise false.
+     */
+    public synchronized boolean isConnected() {
+        return connection != null && !connection.isClosed();
+    }
+
+    /**
+     * Closes the connection.
+     */
+    public synchronized void close() {
+        if (eventLoop != null) {
+            eventLoop.close();
+        }
+        dispatcher.shutdown();
+        connectionDone.countDown();
+    }
+
+    /**
+     * Waits until the connection is closed, either by the server or by
+     * {@link #close()}.
+     *
+     * @throws InterruptedException
+     *             If interrupted while waiting.
+     */
+    public void awaitDisconnect() throws InterruptedException {
+        connectionDone.await();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void frameReceived(Connection connection, ByteBuffer frame) {
+        byte opcode = frame.get(frame.position());
+        if (opcode == Protocol.WELCOME) {
+            handshakeDone.countDown();
+        } else if (opcode == Protocol.ERROR) {
+            frame.get();
+            error = Protocol.readString(frame);
+            handshakeDone.countDown();
+        } else {
+            // Copy the frame; the buffer is reused by the connection.
+            final ByteBuffer message = ByteBuffer.allocate(frame.remaining());
+            message.put(frame);
+            message.flip();
+            dispatcher.execute(new Runnable() {
+                @Override
+                public void run() {
+                    dispatch(message);
+                }
+            });
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void disconnected(Connection connection) {
+        handshakeDone.countDown();
+        dispatcher.shutdown();
+        connectionDone.countDown();
+    }
+
+    /**
+     * Decodes a message and passes it to the client (executed by the
+     * dispatcher thread).
+     *
+     * @param message
+     *            The message.
+     */
+    private void dispatch(ByteBuffer message) {
+        try {
+            byte opcode = message.get();
+            switch (opcode) {
+                case Protocol.MESSAGE_RECEIVED:
+                    client.messageReceived(Protocol.readString(message));
+                    break;
+                case Protocol.JOINED_TABLE:
+                    TableType type = TableType.values()[message.get()];
+                    int bigBlind = Protocol.readVarint(message);
+                    int noOfPlayers = Protocol.readVarint(message);
+                    List<Player> players = new ArrayList<Player>(noOfPlayers);
+                    for (int i = 0; i < noOfPlayers; i++) {
+                        players.add(readPlayer(message));
+                    }
+                    client.joinedTable(type, bigBlind, players);
+                    break;
+                case Protocol.HAND_STARTED:
+                    client.handStarted(readPlayer(message));
+                    break;
+                case Protocol.ACTOR_ROTATED:
+                    client.actorRotated(readPlayer(message));
+                    break;
+                case Protocol.PLAYER_UPDATED:
+                    client.playerUpdated(readPlayer(message));
+                    break;
+                case Protocol.BOARD_UPDATED:
+                    List<Card> board = new ArrayList<Card>();
+                    for (Card card : Protocol.readCards(message)) {
+                        board.add(card);
+                    }
+                    int bet = Protocol.readVarint(message);
+                    int pot = Protocol.readVarint(message);
+                    client.boardUpdated(board, bet, pot);
+                    break;
+                case Protocol.PLAYER_ACTED:
+                    client.playerActed(readPlayer(message));
+                    break;
+                case Protocol.ACT_REQUEST:
+                    act(message);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unexpected message: " + opcode);
+            }
+        } catch (RuntimeException e) {
+            // Invalid message or broken client; leave the table.
+            e.printStackTrace();
+            connection.close();
+        }
+    }
+
+    /**
+     * Requests the client to act and sends the response.
+     *
+     * @param message
+     *            The act request.
+     */
+    private void act(ByteBuffer message) {
+        int requestId = Protocol.readVarint(message);
+        int minBet = Protocol.readVarint(message);
+        int currentBet = Protocol.readVarint(message);
+        int allowedActions = Protocol.readVarint(message);
+        Card[] board = Protocol.readCards(message);
+        int pot = Protocol.readVarint(message);
+        boolean dealer = (message.get() != 0);
+        long action = client.act(minBet, currentBet, allowedActions, board, pot, dealer);
+        writer.start(Protocol.ACT_RESPONSE).writeVarint(requestId)
+                .writeAction(ActionType.of(action), ActionType.getAmount(action));
+        connection.send(writer.toFrame());
+    }
+
+    /**
+     * Reads a player reference and delta, and returns the updated player.
+     *
+     * @param message
+     *            The message.
+     *
+     * @return The player as a read-only snapshot.
+     */
+    private Player readPlayer(ByteBuffer message) {
+        int seat = Protocol.readVarint(message);
+        if (seat == seatStates.size()) {
+            seatStates.add(new SeatState(Protocol.readString(message)));
+        } else if (seat > seatStates.size()) {
+            throw new IllegalArgumentException("Invalid seat: " + seat);
+        }
+        SeatState state = seatStates.get(seat);
+        int fields = message.get();
+        if ((fields & Protocol.PLAYER_CASH) != 0) {
+            state.cash = Protocol.readVarint(message);
+        }
+        if ((fields & Protocol.PLAYER_BET) != 0) {
+            state.bet = Protocol.readVarint(message);
+        }
+        if ((fields & Protocol.PLAYER_ACTION) != 0) {
+            state.actionOpcode = message.get();
+            state.actionAmount = Protocol.hasAmount(state.actionOpcode) ? Protocol.readVarint(message) : 0;
+        }
+        if ((fields & Protocol.PLAYER_CARDS) != 0) {
+            state.hasCards = (message.get() != 0);
+            state.cards = CardSet.of(Protocol.readCards(message));
+        }
+        ActionType actionType = Protocol.getActionType(state.actionOpcode);
+        Card[] cards = (state.cards != CardSet.EMPTY) ? CardSet.toCards(state.cards) : null;
+        return Player.createSnapshot(state.name, state.cash, state.bet, actionType, state.actionAmount, state.hasCards,
+                cards);
+    }
+
+    /**
+     * The application's entry point. <br />
+     * <br />
+     *
+     * Connects an AI bot to a server, and plays until the connection is
+     * closed.
+     *
+     * @param args
+     *            The command line arguments: the host, port and player name
+     *            (all optional).
+     *
+     * @throws IOException
+     *             If the connection or handshake failed.
+     * @throws InterruptedException
+     *             If interrupted while playing.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String host = (args.length > 0) ? args[0] : "localhost";
+        int port = (args.length > 1) ? Integer.parseInt(args[1]) : NetServer.DEFAULT_PORT;
+        String name = (args.length > 2) ? args[2] : "RemoteBot";
+        ClientConnector connector = new ClientConnector(new AiBot(25, 25));
+        connector.connect(host, port, name);
+        System.out.format("%s connected to %s:%d\n", name, host, port);
+        connector.awaitDisconnect();
+        System.out.format("%s disconnected\n", name);
+    }
+
+}
@@ -0,0 +1,269 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.net;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Non-blocking, framed connection, driven by an {@link EventLoop}. <br />
+ * <br />
+ *
+ * Frames can be sent from any thread; they are queued and written by the
+ * event loop as soon as the socket accepts them, so a sender never blocks.
+ * Received frames are passed to the {@link ConnectionListener} on the event
+ * loop thread.
+ *
+ * @author Oscar Stigter
+ */
+public class Connection {
+
+    /** The initial size of the read buffer. */
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    /** The event loop. */
+    private final EventLoop eventLoop;
+
+    /** The socket channel. */
+    private final SocketChannel channel;
+
+    /** The listener. */
+    private final ConnectionListener listener;
+
+    /** The frames waiting to be written. */
+    private final Queue<ByteBuffer> writeQueue;
+
+    /** Whether a flush is scheduled on the event loop. */
+    private final AtomicBoolean isFlushScheduled;
+
+    /** The task flushing the write queue. */
+    private final Runnable flushTask;
+
+    /** The selection key (set by the event loop). */
+    private SelectionKey key;
+
+    /** The read buffer (in write mode between reads). */
+    private ByteBuffer readBuffer;
+
+    /** Whether the connection is closed. */
+    private volatile boolean isClosed = false;
+
+    /** An object attached by the listener (e.g. the session). */
+    private volatile Object attachment;
+
+    /**
+     * Constructor.
+     *
+     * @param eventLoop
+     *            The event loop.
+     * @param channel
+     *            The (non-blocking) socket channel.
+     * @param listener
+     *            The listener.
+     */
+    /* package */ Connection(EventLoop eventLoop, SocketChannel channel, ConnectionListener listener) {
+        this.eventLoop = eventLoop;
+        this.channel = channel;
+        this.listener = listener;
+        writeQueue = new ConcurrentLinkedQueue<ByteBuffer>();
+        isFlushScheduled = new AtomicBoolean();
+        flushTask = new Runnable() {
+            @Override
+            public void run() {
+                isFlushScheduled.set(false);
+                flush();
+            }
+        };
+        readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    }
+
+    /**
+     * Sends a frame (see {@link MessageWriter#toFrame()}). Ignored if the
+     * connection is closed.
+     *
+     * @param frame
+     *            The frame, including its length.
+     */
+    public void send(ByteBuffer frame) {
+        if (!isClosed) {
+            writeQueue.add(frame);
+            if (isFlushScheduled.compareAndSet(false, true)) {
+                eventLoop.execute(flushTask);
+            }
+        }
+    }
+
+    /**
+     * Returns the attached object.
+     *
+     * @return The attached object, or null if none.
+     */
+    public Object getAttachment() {
+        return attachment;
+    }
+
+    /**
+     * Attaches an object, e.g. the session of this connection.
+     *
+     * @param attachment
+     *            The object.
+     */
+    public void setAttachment(Object attachment) {
+        this.attachment = attachment;
+    }
+
+    /**
+     * Indicates whether the connection is closed.
+     *
+     * @return True if closed, otherwise false.
+     */
+    public boolean isClosed() {
+        return isClosed;
+    }
+
+    /**
+     * Closes the connection, after writing the queued frames if possible.
+     */
+    public void close() {
+        eventLoop.execute(new Runnable() {
+            @Override
+            public void run() {
+                flush();
+                closeNow();
+            }
+        });
+    }
+
+    /**
+     * Registers the connection with the selector (executed by the event
+     * loop).
+     *
+     * @param key
+     *            The selection key.
+     */
+    /* package */ void setKey(SelectionKey key) {
+        this.key = key;
+    }
+
+    /**
+     * Reads the available bytes and passes the complete frames to the
+     * listener (executed by the event loop).
+     */
+    /* package */ void read() {
+        try {
+            if (channel.read(readBuffer) < 0) {
+                closeNow();
+                return;
+            }
+        } catch (IOException e) {
+            closeNow();
+            return;
+        }
+        readBuffer.flip();
+        while (readBuffer.hasRemaining() && !isClosed) {
+            int start = readBuffer.position();
+            int length;
+            try {
+                length = Protocol.readVarint(readBuffer);
+            } catch (BufferUnderflowException e) {
+                readBuffer.position(start);
+                break;
+            }
+            if (length < 1 || length > Protocol.MAX_FRAME_SIZE) {
+                closeNow();
+                return;
+            }
+            if (readBuffer.remaining() < length) {
+                readBuffer.position(start);
+                if (start == 0 && readBuffer.limit() == readBuffer.capacity()) {
+                    // Frame larger than the buffer.
+                    ByteBuffer largerBuffer = ByteBuffer.allocate(readBuffer.capacity() + length);
+                    largerBuffer.put(readBuffer);
+                    readBuffer = largerBuffer;
+                    readBuffer.flip();
+                }
+                break;
+            }
+            int end = readBuffer.position() + length;
+            ByteBuffer frame = readBuffer.duplicate();
+            frame.limit(end);
+            readBuffer.position(end);
+            try {
+                listener.frameReceived(this, frame);
+            } catch (RuntimeException e) {
+                // Invalid frame or broken listener; drop the connection.
+                e.printStackTrace();
+                closeNow();
+                return;
+            }
+        }
+        readBuffer.compact();
+    }
+
+    /**
+     * Writes the queued frames as far as the socket accepts them (executed by
+     * the event loop).
+     */
+    /* package */ void flush() {
+        if (isClosed || key == null) {
+            return;
+        }
+        try {
+            ByteBuffer frame;
+            while ((frame = writeQueue.peek()) != null) {
+                channel.write(frame);
+                if (frame.hasRemaining()) {
+                    // Socket buffer full; continue when writable.
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+                writeQueue.poll();
+            }
+            key.interestOps(SelectionKey.OP_READ);
+        } catch (IOException e) {
+            closeNow();
+        }
+    }
+
+    /**
+     * Closes the connection immediately (executed by the event loop).
+     */
+    /* package */ void closeNow() {
+        if (isClosed) {
+            return;
+        }
+        isClosed = true;
+        writeQueue.clear();
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Ignore.
+        }
+        listener.disconnected(this);
+    }
+
+}
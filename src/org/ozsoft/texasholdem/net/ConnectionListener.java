@@ -0,0 +1,49 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.net;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Listener for the events of {@link Connection}s. Called by the connection's
+ * {@link EventLoop} thread, so it must never block.
+ *
+ * @author Oscar Stigter
+ */
+public interface ConnectionListener {
+
+    /**
+     * Handles a received frame.
+     *
+     * @param connection
+     *            The connection.
+     * @param frame
+     *            The frame (opcode and body, without the length); only valid
+     *            during this call.
+     */
+    void frameReceived(Connection connection, ByteBuffer frame);
+
+    /**
+     * Handles a closed connection.
+     *
+     * @param connection
+     *            The connection.
+     */
+    void disconnected(Connection connection);
+
+}
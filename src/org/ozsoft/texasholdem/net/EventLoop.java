@@ -0,0 +1,247 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.net;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Single selector thread driving any number of non-blocking
+ * {@link Connection}s and listening sockets. <br />
+ * <br />
+ *
+ * All socket I/O happens on this thread; other threads hand over work with
+ * {@link #execute(Runnable)}.
+ *
+ * @author Oscar Stigter
+ */
+public class EventLoop {
+
+    /** The selector. */
+    private final Selector selector;
+
+    /** The tasks to execute on the event loop thread. */
+    private final Queue<Runnable> tasks;
+
+    /** The event loop thread. */
+    private final Thread thread;
+
+    /** Whether the event loop is running. */
+    private volatile boolean isRunning = true;
+
+    /**
+     * Constructor; starts the event loop thread (a daemon thread).
+     *
+     * @param name
+     *            The name of the thread.
+     *
+     * @throws IOException
+     *             If the selector could not be opened.
+     */
+    public EventLoop(String name) throws IOException {
+        selector = Selector.open();
+        tasks = new ConcurrentLinkedQueue<Runnable>();
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                loop();
+            }
+        }, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Executes a task on the event loop thread.
+     *
+     * @param task
+     *            The task.
+     */
+    public void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * Starts listening for connections.
+     *
+     * @param address
+     *            The local address (port 0 for any free port).
+     * @param listener
+     *            The listener for all accepted connections.
+     *
+     * @return The bound address.
+     *
+     * @throws IOException
+     *             If the address could not be bound.
+     */
+    public InetSocketAddress listen(SocketAddress address, final ConnectionListener listener) throws IOException {
+        final ServerSocketChannel serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        serverChannel.bind(address);
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    serverChannel.register(selector, SelectionKey.OP_ACCEPT, listener);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+        return (InetSocketAddress) serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Connects to a remote address.
+     *
+     * @param address
+     *            The remote address.
+     * @param listener
+     *            The listener for the connection.
+     *
+     * @return The connection.
+     *
+     * @throws IOException
+     *             If the connection could not be established.
+     */
+    public Connection connect(SocketAddress address, ConnectionListener listener) throws IOException {
+        SocketChannel channel = SocketChannel.open(address);
+        return register(channel, listener);
+    }
+
+    /**
+     * Stops the event loop, closing all connections.
+     */
+    public void close() {
+        isRunning = false;
+        selector.wakeup();
+    }
+
+    /**
+     * Registers a connected socket channel.
+     *
+     * @param channel
+     *            The socket channel.
+     * @param listener
+     *            The listener for the connection.
+     *
+     * @return The connection.
+     *
+     * @throws IOException
+     *             If the channel could not be configured.
+     */
+    private Connection register(final SocketChannel channel, ConnectionListener listener) throws IOException {
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        final Connection connection = new Connection(this, channel, listener);
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    connection.setKey(channel.register(selector, SelectionKey.OP_READ, connection));
+                } catch (IOException e) {
+                    connection.closeNow();
+                }
+            }
+        });
+        return connection;
+    }
+
+    /**
+     * The event loop (executed by the event loop thread).
+     */
+    private void loop() {
+        while (isRunning) {
+            try {
+                selector.select();
+            } catch (IOException e) {
+                e.printStackTrace();
+                break;
+            }
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+            Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+            while (it.hasNext()) {
+                SelectionKey key = it.next();
+                it.remove();
+                if (!key.isValid()) {
+                    continue;
+                }
+                if (key.isAcceptable()) {
+                    accept(key);
+                } else {
+                    Connection connection = (Connection) key.attachment();
+                    if (key.isReadable()) {
+                        connection.read();
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        connection.flush();
+                    }
+                }
+            }
+        }
+
+        // Closed; close all channels.
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection) {
+                ((Connection) key.attachment()).closeNow();
+            } else {
+                try {
+                    key.channel().close();
+                } catch (IOException e) {
+                    // Ignore.
+                }
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            // Ignore.
+        }
+    }
+
+    /**
+     * Accepts a new connection.
+     *
+     * @param key
+     *            The selection key of the listening socket.
+     */
+    private void accept(SelectionKey key) {
+        try {
+            SocketChannel channel = ((ServerSocketChannel) key.channel()).accept();
+            if (channel != null) {
+                register(channel, (ConnectionListener) key.attachment());
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+}
@@ -0,0 +1,238 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.net;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.actions.Action;
+import org.ozsoft.texasholdem.actions.ActionType;
+
+/**
+ * Reusable writer composing a single {@link Protocol} message. <br />
+ * <br />
+ *
+ * Not thread-safe; each sender uses its own writer.
+ *
+ * @author Oscar Stigter
+ */
+public class MessageWriter {
+
+    /** The bytes reserved for the frame length (enough for the maximum frame size). */
+    private static final int LENGTH_SIZE = 3;
+
+    /** The initial buffer size. */
+    private static final int INITIAL_SIZE = 256;
+
+    /** The buffer. */
+    private byte[] bytes = new byte[INITIAL_SIZE];
+
+    /** The position after the last written byte. */
+    private int position;
+
+    /**
+     * Starts a new message.
+     *
+     * @param opcode
+     *            The message opcode.
+     *
+     * @return This writer.
+     */
+    public MessageWriter start(byte opcode) {
+        position = LENGTH_SIZE;
+        return writeByte(opcode);
+    }
+
+    /**
+     * Writes a byte.
+     *
+     * @param value
+     *            The byte.
+     *
+     * @return This writer.
+     */
+    public MessageWriter writeByte(int value) {
+        ensureCapacity(1);
+        bytes[position++] = (byte) value;
+        return this;
+    }
+
+    /**
+     * Writes an unsigned varint.
+     *
+     * @param value
+     *            The value (treated as unsigned).
+     *
+     * @return This writer.
+     */
+    public MessageWriter writeVarint(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7f) != 0) {
+            bytes[position++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        bytes[position++] = (byte) value;
+        return this;
+    }
+
+    /**
+     * Writes a string.
+     *
+     * @param s
+     *            The string.
+     *
+     * @return This writer.
+     */
+    public MessageWriter writeString(String s) {
+        byte[] stringBytes = Protocol.getBytes(s);
+        writeVarint(stringBytes.length);
+        ensureCapacity(stringBytes.length);
+        System.arraycopy(stringBytes, 0, bytes, position, stringBytes.length);
+        position += stringBytes.length;
+        return this;
+    }
+
+    /**
+     * Writes a card.
+     *
+     * @param card
+     *            The card.
+     *
+     * @return This writer.
+     */
+    public MessageWriter writeCard(Card card) {
+        return writeByte(Protocol.toByte(card));
+    }
+
+    /**
+     * Writes a list of cards (count and cards).
+     *
+     * @param cards
+     *            The cards.
+     *
+     * @return This writer.
+     */
+    public MessageWriter writeCards(Card[] cards) {
+        writeByte(cards.length);
+        for (Card card : cards) {
+            writeCard(card);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a list of cards (count and cards).
+     *
+     * @param cards
+     *            The cards.
+     *
+     * @return This writer.
+     */
+    public MessageWriter writeCards(List<Card> cards) {
+        writeByte(cards.size());
+        for (Card card : cards) {
+            writeCard(card);
+        }
+        return this;
+    }
+
+    /**
+     * Writes an action (opcode and amount).
+     *
+     * @param action
+     *            The action (may be null).
+     *
+     * @return This writer.
+     */
+    public MessageWriter writeAction(Action action) {
+        if (action != null) {
+            return writeAction(action.getType(), action.getAmount());
+        } else {
+            return writeAction(null, 0);
+        }
+    }
+
+    /**
+     * Writes an action (opcode and amount) from its kind and amount.
+     *
+     * @param type
+     *            The kind of action (may be null).
+     * @param amount
+     *            The amount (for a bet or raise).
+     *
+     * @return This writer.
+     */
+    public MessageWriter writeAction(ActionType type, int amount) {
+        writeByte(Protocol.getOpcode(type));
+        if (type != null && type.hasAmount()) {
+            writeVarint(amount);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the size of the current message (without the frame length).
+     *
+     * @return The size in bytes.
+     */
+    public int size() {
+        return position - LENGTH_SIZE;
+    }
+
+    /**
+     * Finishes the message and returns it as a frame, ready to be sent.
+     *
+     * @return The frame (a copy, so this writer can be reused).
+     *
+     * @throws IllegalStateException
+     *             If the message is too large.
+     */
+    public ByteBuffer toFrame() {
+        int size = size();
+        if (size > Protocol.MAX_FRAME_SIZE) {
+            throw new IllegalStateException("Message too large: " + size);
+        }
+        int lengthSize = (size < 0x80) ? 1 : (size < 0x4000) ? 2 : 3;
+        ByteBuffer frame = ByteBuffer.allocate(lengthSize + size);
+        int value = size;
+        for (int i = 1; i < lengthSize; i++) {
+            frame.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        frame.put((byte) value);
+        frame.put(bytes, LENGTH_SIZE, size);
+        frame.flip();
+        return frame;
+    }
+
+    /**
+     * Makes sure a number of bytes can be written.
+     *
+     * @param length
+     *            The number of bytes.
+     */
+    private void ensureCapacity(int length) {
+        if (position + length > bytes.length) {
+            byte[] newBytes = new byte[Math.max(bytes.length * 2, position + length)];
+            System.arraycopy(bytes, 0, newBytes, 0, position);
+            bytes = newBytes;
+        }
+    }
+
+}
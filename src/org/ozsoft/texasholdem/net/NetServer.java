@@ -0,0 +1,169 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.net;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.ozsoft.texasholdem.GameServer;
+import org.ozsoft.texasholdem.TableType;
+import org.ozsoft.texasholdem.bots.AiBot;
+
+/**
+ * Network endpoint accepting remote clients (see {@link ClientConnector}).
+ * <br />
+ * <br />
+ *
+ * All connections are served by a single {@link EventLoop} thread. After a
+ * successful handshake, each remote client is available as a
+ * {@link RemoteClient}, which can be seated like any local client, e.g. at a
+ * {@link GameServer} table.
+ *
+ * @author Oscar Stigter
+ */
+public class NetServer implements ConnectionListener {
+
+    /** The default port. */
+    public static final int DEFAULT_PORT = 7070;
+
+    /** The event loop. */
+    private final EventLoop eventLoop;
+
+    /** The bound address. */
+    private final InetSocketAddress address;
+
+    /** The remote clients that have connected but have not been accepted yet. */
+    private final BlockingQueue<RemoteClient> newClients;
+
+    /**
+     * Constructor; starts listening.
+     *
+     * @param port
+     *            The port (0 for any free port).
+     *
+     * @throws IOException
+     *             If the port could not be bound.
+     */
+    public NetServer(int port) throws IOException {
+        newClients = new LinkedBlockingQueue<RemoteClient>();
+        eventLoop = new EventLoop("NetServer-" + port);
+        address = eventLoop.listen(new InetSocketAddress(port), this);
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     *
+     * @return The port.
+     */
+    public int getPort() {
+        return address.getPort();
+    }
+
+    /**
+     * Waits for the next remote client.
+     *
+     * @param timeout
+     *            The maximum time to wait in milliseconds.
+     *
+     * @return The remote client, or null if the timeout expired.
+     *
+     * @throws IllegalStateException
+     *             If interrupted while waiting.
+     */
+    public RemoteClient accept(long timeout) {
+        try {
+            return newClients.poll(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a client", e);
+        }
+    }
+
+    /**
+     * Stops the server, disconnecting all remote clients.
+     */
+    public void close() {
+        eventLoop.close();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void frameReceived(Connection connection, ByteBuffer frame) {
+        RemoteClient client = (RemoteClient) connection.getAttachment();
+        if (client != null) {
+            client.frameReceived(frame);
+            return;
+        }
+
+        // Handshake.
+        MessageWriter writer = new MessageWriter();
+        byte opcode = frame.get();
+        int version = (opcode == Protocol.HELLO) ? Protocol.readVarint(frame) : -1;
+        if (version != Protocol.VERSION) {
+            writer.start(Protocol.ERROR).writeString("Unsupported protocol version: " + version);
+            connection.send(writer.toFrame());
+            connection.close();
+            return;
+        }
+        String name = Protocol.readString(frame);
+        client = new RemoteClient(name, connection);
+        connection.setAttachment(client);
+        writer.start(Protocol.WELCOME).writeVarint(Protocol.VERSION);
+        connection.send(writer.toFrame());
+        newClients.add(client);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void disconnected(Connection connection) {
+        RemoteClient client = (RemoteClient) connection.getAttachment();
+        if (client != null) {
+            client.disconnected();
+        }
+    }
+
+    /**
+     * The application's entry point. <br />
+     * <br />
+     *
+     * Hosts a game server where each remote client plays Heads Up against an
+     * AI bot at its own table.
+     *
+     * @param args
+     *            The command line arguments: the port (optional).
+     */
+    public static void main(String[] args) throws IOException {
+        int port = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        NetServer netServer = new NetServer(port);
+        GameServer gameServer = new GameServer();
+        gameServer.setTimeLimits(5000L, 30000L);
+        System.out.format("Listening on port %d\n", netServer.getPort());
+        while (true) {
+            RemoteClient client = netServer.accept(Long.MAX_VALUE);
+            int tableId = gameServer.createTable(TableType.NO_LIMIT, 10);
+            gameServer.seatPlayer(tableId, client.getName(), 1000, client);
+            gameServer.seatPlayer(tableId, "AiBot", 1000, new AiBot(25, 25));
+            System.out.format("%s joined table %d\n", client.getName(), tableId);
+        }
+    }
+
+}
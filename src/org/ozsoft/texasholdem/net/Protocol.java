@@ -0,0 +1,299 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.net;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.actions.Action;
+import org.ozsoft.texasholdem.actions.ActionType;
+
+/**
+ * The compact binary protocol between a game server and remote clients. <br />
+ * <br />
+ *
+ * Each message is a frame: its length as a varint, followed by the opcode
+ * (one byte) and the body. Integers are unsigned varints (7 bits per byte,
+ * least significant first), strings are UTF-8 with a varint length, and a
+ * card is a single byte (<code>rank * 4 + suit</code>). An action is its
+ * opcode (the {@link ActionType} ordinal plus one, 0 for none), followed by
+ * the amount for a bet or raise; a set of allowed actions is the mask of
+ * {@link ActionType#getMask()}. <br />
+ * <br />
+ *
+ * Players are referred to by their seat: the index in the order in which the
+ * client got to know them. A seat one past the last known seat introduces a
+ * new player and is followed by the player's name. Player updates only
+ * contain the fields that changed since the previous update of that player
+ * (see {@link #PLAYER_CASH} etc.). <br />
+ * <br />
+ *
+ * A connection starts with a {@link #HELLO} from the client, answered by a
+ * {@link #WELCOME} or an {@link #ERROR} from the server.
+ *
+ * @author Oscar Stigter
+ */
+public final class Protocol {
+
+    /** The protocol version. */
+    public static final int VERSION = 1;
+
+    /** The maximum frame size in bytes. */
+    public static final int MAX_FRAME_SIZE = 65536;
+
+    /** Client: hello (version, player name). */
+    public static final byte HELLO = 0x01;
+
+    /** Server: welcome (version). */
+    public static final byte WELCOME = 0x02;
+
+    /** Either side: error (message); the connection is closed. */
+    public static final byte ERROR = 0x0f;
+
+    /** Server: message received (message). */
+    public static final byte MESSAGE_RECEIVED = 0x10;
+
+    /** Server: joined table (table type, big blind, player count, players). */
+    public static final byte JOINED_TABLE = 0x11;
+
+    /** Server: hand started (dealer seat). */
+    public static final byte HAND_STARTED = 0x12;
+
+    /** Server: actor rotated (actor seat). */
+    public static final byte ACTOR_ROTATED = 0x13;
+
+    /** Server: player updated (seat, player delta). */
+    public static final byte PLAYER_UPDATED = 0x14;
+
+    /** Server: board updated (cards, bet, pot). */
+    public static final byte BOARD_UPDATED = 0x15;
+
+    /** Server: player acted (seat, player delta). */
+    public static final byte PLAYER_ACTED = 0x16;
+
+    /**
+     * Server: act request (request ID, minimum bet, current bet, allowed
+     * actions, board cards, pot, dealer flag).
+     */
+    public static final byte ACT_REQUEST = 0x17;
+
+    /** Client: act response (request ID, action). */
+    public static final byte ACT_RESPONSE = 0x20;
+
+    /** Player delta field flag: cash. */
+    public static final int PLAYER_CASH = 0x01;
+
+    /** Player delta field flag: bet. */
+    public static final int PLAYER_BET = 0x02;
+
+    /** Player delta field flag: action. */
+    public static final int PLAYER_ACTION = 0x04;
+
+    /** Player delta field flag: hole cards (has-cards flag and known cards). */
+    public static final int PLAYER_CARDS = 0x08;
+
+    /** All player delta fields. */
+    public static final int PLAYER_ALL = 0x0f;
+
+    /** Action opcode: none. */
+    public static final int NO_ACTION = 0;
+
+    /** The kinds of action. */
+    private static final ActionType[] ACTION_TYPES = ActionType.values();
+
+    /** The character set of strings. */
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * Private constructor (static utility class).
+     */
+    private Protocol() {
+        // Empty implementation.
+    }
+
+    /**
+     * Returns the opcode of an action.
+     *
+     * @param action
+     *            The action (may be null).
+     *
+     * @return The opcode.
+     */
+    public static int getOpcode(Action action) {
+        return (action != null) ? getOpcode(action.getType()) : NO_ACTION;
+    }
+
+    /**
+     * Returns the opcode of a kind of action.
+     *
+     * @param type
+     *            The kind of action (may be null).
+     *
+     * @return The opcode.
+     */
+    public static int getOpcode(ActionType type) {
+        return (type != null) ? type.ordinal() + 1 : NO_ACTION;
+    }
+
+    /**
+     * Returns the kind of action of an opcode.
+     *
+     * @param opcode
+     *            The opcode.
+     *
+     * @return The kind of action (null for {@link #NO_ACTION}).
+     *
+     * @throws IllegalArgumentException
+     *             If the opcode is invalid.
+     */
+    public static ActionType getActionType(int opcode) {
+        if (opcode < 0 || opcode > ACTION_TYPES.length) {
+            throw new IllegalArgumentException("Invalid action opcode: " + opcode);
+        }
+        return (opcode != NO_ACTION) ? ACTION_TYPES[opcode - 1] : null;
+    }
+
+    /**
+     * Indicates whether an action opcode is followed by an amount.
+     *
+     * @param opcode
+     *            The opcode.
+     *
+     * @return True if followed by an amount, otherwise false.
+     */
+    public static boolean hasAmount(int opcode) {
+        ActionType type = getActionType(opcode);
+        return type != null && type.hasAmount();
+    }
+
+    /**
+     * Returns the byte of a card.
+     *
+     * @param card
+     *            The card.
+     *
+     * @return The byte.
+     */
+    public static byte toByte(Card card) {
+        return (byte) (card.getRank() * Card.NO_OF_SUITS + card.getSuit());
+    }
+
+    /**
+     * Reads a varint.
+     *
+     * @param buffer
+     *            The buffer.
+     *
+     * @return The value.
+     *
+     * @throws IllegalArgumentException
+     *             If the varint is too long.
+     */
+    public static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = buffer.get();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint too long");
+    }
+
+    /**
+     * Reads a string.
+     *
+     * @param buffer
+     *            The buffer.
+     *
+     * @return The string.
+     */
+    public static String readString(ByteBuffer buffer) {
+        int length = readVarint(buffer);
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid string length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    /**
+     * Reads a card.
+     *
+     * @param buffer
+     *            The buffer.
+     *
+     * @return The card.
+     */
+    public static Card readCard(ByteBuffer buffer) {
+        return Card.of(buffer.get());
+    }
+
+    /**
+     * Reads a list of cards (count and cards).
+     *
+     * @param buffer
+     *            The buffer.
+     *
+     * @return The cards.
+     */
+    public static Card[] readCards(ByteBuffer buffer) {
+        int count = buffer.get();
+        if (count < 0 || count > Card.NO_OF_RANKS * Card.NO_OF_SUITS) {
+            throw new IllegalArgumentException("Invalid number of cards: " + count);
+        }
+        Card[] cards = new Card[count];
+        for (int i = 0; i < count; i++) {
+            cards[i] = readCard(buffer);
+        }
+        return cards;
+    }
+
+    /**
+     * Reads an action (opcode and amount).
+     *
+     * @param buffer
+     *            The buffer.
+     *
+     * @return The action code (see {@link ActionType#toCode(int)}), or -1 for
+     *         no action.
+     */
+    public static long readAction(ByteBuffer buffer) {
+        ActionType type = getActionType(buffer.get());
+        if (type == null) {
+            return -1L;
+        }
+        return type.toCode(type.hasAmount() ? readVarint(buffer) : 0);
+    }
+
+    /**
+     * Returns the bytes of a string.
+     *
+     * @param s
+     *            The string.
+     *
+     * @return The UTF-8 bytes.
+     */
+    /* package */ static byte[] getBytes(String s) {
+        return s.getBytes(UTF8);
+    }
+
+}
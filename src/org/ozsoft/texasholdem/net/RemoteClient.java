@@ -0,0 +1,400 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.net;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.CardSet;
+import org.ozsoft.texasholdem.Client;
+import org.ozsoft.texasholdem.GameState;
+import org.ozsoft.texasholdem.Player;
+import org.ozsoft.texasholdem.TableType;
+import org.ozsoft.texasholdem.actions.Action;
+import org.ozsoft.texasholdem.actions.ActionType;
+
+/**
+ * Server-side proxy of a client in another process, connected through a
+ * {@link NetServer}. <br />
+ * <br />
+ *
+ * The events are encoded with the {@link Protocol} and queued on the
+ * connection without blocking; players are sent as deltas against the state
+ * the remote client already knows. {@link #act} sends a request and waits for
+ * the response. If the connection is lost, or the response is not one of the
+ * allowed actions, the player checks or folds.
+ *
+ * @author Oscar Stigter
+ */
+public class RemoteClient implements Client {
+
+    /** The player's name, as given by the remote client. */
+    private final String name;
+
+    /** The connection. */
+    private final Connection connection;
+
+    /** The message writer. */
+    private final MessageWriter writer;
+
+    /** The seat per player name. */
+    private final Map<String, Integer> seats;
+
+    /** The last transmitted state per seat. */
+    private final List<SeatState> seatStates;
+
+    /** The ID of the pending act request. */
+    private int requestId = 0;
+
+    /** Whether the pending act request has been answered. */
+    private boolean hasResponse;
+
+    /** The action code of the response to the pending act request. */
+    private long response;
+
+    /** The number of messages sent. */
+    private long noOfMessages = 0L;
+
+    /** The number of bytes sent. */
+    private long noOfBytes = 0L;
+
+    /**
+     * Constructor.
+     *
+     * @param name
+     *            The player's name.
+     * @param connection
+     *            The connection.
+     */
+    /* package */ RemoteClient(String name, Connection connection) {
+        this.name = name;
+        this.connection = connection;
+        writer = new MessageWriter();
+        seats = new HashMap<String, Integer>();
+        seatStates = new ArrayList<SeatState>();
+    }
+
+    /**
+     * Returns the player's name, as given by the remote client.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Indicates whether the remote client is still connected.
+     *
+     * @return True if connected, otherwise false.
+     */
+    public boolean isConnected() {
+        return !connection.isClosed();
+    }
+
+    /**
+     * Returns the number of messages sent to the remote client.
+     *
+     * @return The number of messages.
+     */
+    public synchronized long getNoOfMessages() {
+        return noOfMessages;
+    }
+
+    /**
+     * Returns the number of bytes sent to the remote client.
+     *
+     * @return The number of bytes.
+     */
+    public synchronized long getNoOfBytes() {
+        return noOfBytes;
+    }
+
+    /**
+     * Disconnects the remote client.
+     */
+    public void close() {
+        connection.close();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void messageReceived(String message) {
+        writer.start(Protocol.MESSAGE_RECEIVED).writeString(message);
+        send();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void joinedTable(TableType type, int bigBlind, List<Player> players) {
+        writer.start(Protocol.JOINED_TABLE).writeByte(type.ordinal()).writeVarint(bigBlind).writeVarint(players.size());
+        for (Player player : players) {
+            writePlayer(player);
+        }
+        send();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void handStarted(Player dealer) {
+        writer.start(Protocol.HAND_STARTED);
+        writePlayer(dealer);
+        send();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void actorRotated(Player actor) {
+        writer.start(Protocol.ACTOR_ROTATED);
+        writePlayer(actor);
+        send();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void playerUpdated(Player player) {
+        writer.start(Protocol.PLAYER_UPDATED);
+        writePlayer(player);
+        send();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void boardUpdated(List<Card> cards, int bet, int pot) {
+        writer.start(Protocol.BOARD_UPDATED).writeCards(cards).writeVarint(bet).writeVarint(pot);
+        send();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void playerActed(Player player) {
+        writer.start(Protocol.PLAYER_ACTED);
+        writePlayer(player);
+        send();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Action act(int minBet, int currentBet, Set<Action> allowedActions, Card[] commuCards, int pot,
+            boolean dealer) {
+        return ActionType.toAction(act(minBet, currentBet, ActionType.toMask(allowedActions), commuCards, pot, dealer));
+    }
+
+    /**
+     * {@inheritDoc} <br />
+     * <br />
+     *
+     * Waits for the remote client's response; checks or folds if the
+     * connection is lost or the response is invalid.
+     *
+     * @throws IllegalStateException
+     *             If interrupted while waiting (e.g. on a timeout).
+     */
+    @Override
+    public synchronized long act(int minBet, int currentBet, int allowedActions, Card[] commuCards, int pot,
+            boolean dealer) {
+        requestId++;
+        writer.start(Protocol.ACT_REQUEST).writeVarint(requestId).writeVarint(minBet).writeVarint(currentBet)
+                .writeVarint(allowedActions).writeCards(commuCards).writeVarint(pot).writeByte(dealer ? 1 : 0);
+        return awaitResponse(minBet, allowedActions);
+    }
+
+    /**
+     * {@inheritDoc} <br />
+     * <br />
+     *
+     * Sends the same request as the other variants, encoding the board
+     * straight from the view; checks or folds if the connection is lost or
+     * the response is invalid.
+     *
+     * @throws IllegalStateException
+     *             If interrupted while waiting (e.g. on a timeout).
+     */
+    @Override
+    public synchronized long act(GameState state) {
+        int allowedActions = state.getAllowedActions();
+        requestId++;
+        writer.start(Protocol.ACT_REQUEST).writeVarint(requestId).writeVarint(state.getMinBet())
+                .writeVarint(state.getCurrentBet()).writeVarint(allowedActions).writeCards(state.getBoard())
+                .writeVarint(state.getPot()).writeByte(state.isDealer() ? 1 : 0);
+        return awaitResponse(state.getMinBet(), allowedActions);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * Handles a frame from the remote client (executed by the event loop).
+     *
+     * @param frame
+     *            The frame.
+     */
+    /* package */ synchronized void frameReceived(ByteBuffer frame) {
+        byte opcode = frame.get();
+        if (opcode != Protocol.ACT_RESPONSE) {
+            throw new IllegalArgumentException("Unexpected message: " + opcode);
+        }
+        int id = Protocol.readVarint(frame);
+        long action = Protocol.readAction(frame);
+        if (id == requestId) {
+            // Late responses to earlier (timed out) requests are ignored;
+            // invalid actions are replaced by awaitResponse().
+            hasResponse = true;
+            response = action;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Handles the loss of the connection (executed by the event loop).
+     */
+    /* package */ synchronized void disconnected() {
+        notifyAll();
+    }
+
+    /**
+     * Writes a player reference followed by the fields that changed since the
+     * previous time.
+     *
+     * @param player
+     *            The player.
+     */
+    private void writePlayer(Player player) {
+        String playerName = player.getName();
+        Integer seat = seats.get(playerName);
+        SeatState state;
+        int fields;
+        if (seat == null) {
+            seat = seatStates.size();
+            state = new SeatState(playerName);
+            seats.put(playerName, seat);
+            seatStates.add(state);
+            writer.writeVarint(seat).writeString(playerName);
+            fields = Protocol.PLAYER_ALL;
+        } else {
+            state = seatStates.get(seat);
+            writer.writeVarint(seat);
+            fields = 0;
+        }
+
+        int cash = player.getCash();
+        int bet = player.getBet();
+        ActionType actionType = player.getActionType();
+        int actionOpcode = Protocol.getOpcode(actionType);
+        int actionAmount = player.getActionAmount();
+        boolean hasCards = player.hasCards();
+        long cards = player.getCardSet();
+        if (cash != state.cash) {
+            fields |= Protocol.PLAYER_CASH;
+        }
+        if (bet != state.bet) {
+            fields |= Protocol.PLAYER_BET;
+        }
+        if (actionOpcode != state.actionOpcode || actionAmount != state.actionAmount) {
+            fields |= Protocol.PLAYER_ACTION;
+        }
+        if (hasCards != state.hasCards || cards != state.cards) {
+            fields |= Protocol.PLAYER_CARDS;
+        }
+
+        writer.writeByte(fields);
+        if ((fields & Protocol.PLAYER_CASH) != 0) {
+            writer.writeVarint(cash);
+            state.cash = cash;
+        }
+        if ((fields & Protocol.PLAYER_BET) != 0) {
+            writer.writeVarint(bet);
+            state.bet = bet;
+        }
+        if ((fields & Protocol.PLAYER_ACTION) != 0) {
+            writer.writeAction(actionType, actionAmount);
+            state.actionOpcode = actionOpcode;
+            state.actionAmount = actionAmount;
+        }
+        if ((fields & Protocol.PLAYER_CARDS) != 0) {
+            writer.writeByte(hasCards ? 1 : 0).writeCards(CardSet.toCards(cards));
+            state.hasCards = hasCards;
+            state.cards = cards;
+        }
+    }
+
+    /**
+     * Sends the current act request and waits for the response. <br />
+     * <br />
+     *
+     * The response is checked, so a broken or malicious remote client cannot
+     * make the table fail: an action that is not allowed or has a negative
+     * amount is replaced by check or fold, and a bet or raise below the
+     * minimum bet is raised to the minimum bet (which the table caps to the
+     * player's cash).
+     *
+     * @param minBet
+     *            The minimum bet.
+     * @param allowedActions
+     *            The allowed actions.
+     *
+     * @return The action code of the response, or check or fold if the
+     *         connection is lost or the response is invalid.
+     *
+     * @throws IllegalStateException
+     *             If interrupted while waiting.
+     */
+    private long awaitResponse(int minBet, int allowedActions) {
+        hasResponse = false;
+        send();
+        while (!hasResponse && !connection.isClosed()) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for remote client " + name, e);
+            }
+        }
+        if (hasResponse && response != -1L) {
+            ActionType type = ActionType.of(response);
+            int amount = ActionType.getAmount(response);
+            if (type.isIn(allowedActions) && amount >= 0) {
+                if (type.hasAmount() && amount < minBet) {
+                    return type.toCode(minBet);
+                } else {
+                    return response;
+                }
+            }
+        }
+        return ActionType.CHECK.isIn(allowedActions) ? ActionType.CHECK.toCode() : ActionType.FOLD.toCode();
+    }
+
+    /**
+     * Sends the current message.
+     */
+    private void send() {
+        ByteBuffer frame = writer.toFrame();
+        noOfMessages++;
+        noOfBytes += frame.remaining();
+        connection.send(frame);
+    }
+
+}
@@ -0,0 +1,59 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.net;
+
+/**
+ * The last transmitted state of a player, on both ends of a connection, so
+ * player updates only need to contain the changed fields.
+ *
+ * @author Oscar Stigter
+ */
+/* package */ class SeatState {
+
+    /** The player's name. */
+    /* package */ final String name;
+
+    /** The amount of cash. */
+    /* package */ int cash;
+
+    /** The current bet. */
+    /* package */ int bet;
+
+    /** The opcode of the most recent action. */
+    /* package */ int actionOpcode = Protocol.NO_ACTION;
+
+    /** The amount of the most recent action. */
+    /* package */ int actionAmount;
+
+    /** Whether the player has hole cards. */
+    /* package */ boolean hasCards;
+
+    /** The known hole cards as a card set. */
+    /* package */ long cards;
+
+    /**
+     * Constructor.
+     *
+     * @param name
+     *            The player's name.
+     */
+    /* package */ SeatState(String name) {
+        this.name = name;
+    }
+
+}
@@ -38,12 +38,25 @@ public abstract class PokerUtils {
         if (cards.length != 2) {
             throw new IllegalArgumentException("Invalid number of cards: " + cards.length);
         }
-        
+        return getChenScore(cards[0], cards[1]);
+    }
+    
+    /**
+     * Returns the value of two hole cards based on the Chen formula.
+     * 
+     * @param card1
+     *            The first hole card.
+     * @param card2
+     *            The second hole card.
+     * 
+     * @return The score based on the Chen formula.
+     */
+    public static double getChenScore(Card card1, Card card2) {
         // Analyze hole cards.
-        int rank1 = cards[0].getRank();
-        int suit1 = cards[0].getSuit();
-        int rank2 = cards[1].getRank();
-        int suit2 = cards[1].getSuit();
+        int rank1 = card1.getRank();
+        int suit1 = card1.getSuit();
+        int rank2 = card2.getRank();
+        int suit2 = card2.getSuit();
         int highRank = Math.max(rank1, rank2);
         int lowRank = Math.min(rank1, rank2);
         int rankDiff = highRank - lowRank;
@@ -0,0 +1,102 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.ozsoft.texasholdem.util;
+
+import java.util.Random;
+
+/**
+ * Fast, seedable random number generator for simulations (SplitMix64, the
+ * algorithm of <code>java.util.SplittableRandom</code>). <br />
+ * <br />
+ *
+ * Extends {@link Random}, so it can be used wherever a <code>Random</code> is
+ * expected (e.g. in a {@link org.ozsoft.texasholdem.Deck}), but without the
+ * atomic seed update: an instance must not be shared between threads. The
+ * same seed always produces the same sequence. <br />
+ * <br />
+ *
+ * <b>NOTE:</b> Not suitable for real-money play; use a
+ * <code>SecureRandom</code> instead.
+ *
+ * @author Oscar Stigter
+ */
+public class SplitMixRandom extends Random {
+
+    /** Serial version UID. */
+    private static final long serialVersionUID = 1L;
+
+    /** The increment of the state (the golden ratio). */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /** The state (not initialized here, since the super constructor sets it). */
+    private long state;
+
+    /**
+     * Constructor with a random seed.
+     */
+    public SplitMixRandom() {
+        this(System.nanoTime() ^ mix(System.currentTimeMillis()));
+    }
+
+    /**
+     * Constructor with a specific seed.
+     *
+     * @param seed
+     *            The seed.
+     */
+    public SplitMixRandom(long seed) {
+        super(seed);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setSeed(long seed) {
+        state = seed;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix(state);
+    }
+
+    /**
+     * Returns the SplitMix64 mix of a value, which is a good hash of it. Also
+     * useful to derive independent seeds, e.g. per hand from a base seed.
+     *
+     * @param value
+     *            The value.
+     *
+     * @return The mixed value.
+     */
+    public static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+}
@@ -0,0 +1,281 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.ozsoft.texasholdem;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.ozsoft.texasholdem.bots.DummyBot;
+import org.ozsoft.texasholdem.net.ClientConnector;
+import org.ozsoft.texasholdem.net.NetServer;
+import org.ozsoft.texasholdem.net.RemoteClient;
+
+/**
+ * Test suite for the {@link GameServer} class.
+ *
+ * @author Oscar Stigter
+ */
+public class GameServerTest {
+
+    /** The maximum time to wait for the server in milliseconds. */
+    private static final long TIMEOUT = 10000L;
+
+    /** The size of the big blind. */
+    private static final int BIG_BLIND = 10;
+
+    /** The starting cash of the players that should not bust. */
+    private static final int CASH = 1000000;
+
+    /** The server. */
+    private GameServer server;
+
+    /**
+     * Starts the server.
+     */
+    @Before
+    public void setUp() {
+        server = new GameServer(2);
+        server.setHandsPerSlice(10);
+    }
+
+    /**
+     * Shuts down the server and checks that no table failed.
+     */
+    @After
+    public void tearDown() {
+        Assert.assertTrue(server.shutdown(TIMEOUT));
+        Assert.assertEquals(0, server.getNoOfTables());
+        Assert.assertEquals(0, server.getNoOfFailedTables());
+    }
+
+    /**
+     * Tests creating tables.
+     */
+    @Test
+    public void createTable() {
+        int tableId1 = server.createTable(TableType.NO_LIMIT, BIG_BLIND);
+        int tableId2 = server.createTable(TableType.FIXED_LIMIT, BIG_BLIND);
+        Assert.assertTrue(tableId1 != tableId2);
+        Assert.assertTrue(server.isTableOpen(tableId1));
+        Assert.assertTrue(server.isTableOpen(tableId2));
+        Assert.assertEquals(2, server.getNoOfTables());
+        Assert.assertEquals(0, server.getNoOfPlayers(tableId1));
+        Assert.assertEquals(0L, server.getNoOfHands());
+        try {
+            server.createTable(null, BIG_BLIND);
+            Assert.fail("Null table type accepted");
+        } catch (IllegalArgumentException e) {
+            // Expected.
+        }
+        try {
+            server.createTable(TableType.NO_LIMIT, 1);
+            Assert.fail("Invalid big blind accepted");
+        } catch (IllegalArgumentException e) {
+            // Expected.
+        }
+        try {
+            server.getNoOfPlayers(tableId2 + 1);
+            Assert.fail("Invalid table ID accepted");
+        } catch (IllegalArgumentException e) {
+            // Expected.
+        }
+    }
+
+    /**
+     * Tests seating and unseating a player while hands are being played.
+     */
+    @Test
+    public void seatAndUnseat() {
+        int tableId = server.createTable(TableType.NO_LIMIT, BIG_BLIND);
+        for (int i = 0; i < 3; i++) {
+            server.seatPlayer(tableId, "Player " + i, CASH, new DummyBot());
+        }
+        awaitHands(1L);
+
+        CountingBot bot = new CountingBot();
+        Player player = server.seatPlayer(tableId, "Joining", CASH, bot);
+        bot.awaitHands(1);
+
+        server.unseatPlayer(tableId, player);
+        // The player leaves after the current hand.
+        awaitHands(server.getNoOfHands() + 20L);
+        int noOfHands = bot.getNoOfHands();
+        awaitHands(server.getNoOfHands() + 20L);
+        Assert.assertEquals(noOfHands, bot.getNoOfHands());
+        Assert.assertEquals(3, server.getNoOfPlayers(tableId));
+        Assert.assertTrue(server.getNoOfHands() > 0L);
+    }
+
+    /**
+     * Tests that busted players are removed, and that a table stops playing
+     * with a single player left.
+     */
+    @Test
+    public void bustedPlayers() {
+        int tableId = server.createTable(TableType.NO_LIMIT, BIG_BLIND);
+        // Calling down for the big blind, the loser of a hand is busted.
+        Player player1 = server.seatPlayer(tableId, "Player 1", 15, new DummyBot());
+        Player player2 = server.seatPlayer(tableId, "Player 2", 15, new DummyBot());
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (server.getNoOfPlayers(tableId) != 1) {
+            Assert.assertTrue("Timeout while waiting for a player to bust", System.currentTimeMillis() < deadline);
+            sleep();
+        }
+        Assert.assertTrue(server.getNoOfHands() > 0L);
+        Assert.assertEquals(30, player1.getCash() + player2.getCash());
+        Assert.assertTrue(player1.getCash() < BIG_BLIND || player2.getCash() < BIG_BLIND);
+
+        // No more hands with a single player.
+        long noOfHands = server.getNoOfHands();
+        sleep();
+        Assert.assertEquals(noOfHands, server.getNoOfHands());
+        Assert.assertTrue(server.isTableOpen(tableId));
+    }
+
+    /**
+     * Tests closing a table while hands are being played.
+     */
+    @Test
+    public void closeTable() {
+        int tableId1 = server.createTable(TableType.NO_LIMIT, BIG_BLIND);
+        int tableId2 = server.createTable(TableType.NO_LIMIT, BIG_BLIND);
+        for (int i = 0; i < 2; i++) {
+            server.seatPlayer(tableId1, "Player " + i, CASH, new DummyBot());
+            server.seatPlayer(tableId2, "Player " + i, CASH, new DummyBot());
+        }
+        awaitHands(1L);
+
+        server.closeTable(tableId1);
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (server.isTableOpen(tableId1)) {
+            Assert.assertTrue("Timeout while waiting for the table to close", System.currentTimeMillis() < deadline);
+            sleep();
+        }
+        Assert.assertEquals(1, server.getNoOfTables());
+        Assert.assertTrue(server.isTableOpen(tableId2));
+        try {
+            server.seatPlayer(tableId1, "Late", CASH, new DummyBot());
+            Assert.fail("Player seated at a closed table");
+        } catch (IllegalArgumentException e) {
+            // Expected.
+        }
+
+        // The other table keeps playing.
+        awaitHands(server.getNoOfHands() + 20L);
+    }
+
+    /**
+     * Tests a remote player connected through the network.
+     *
+     * @throws IOException
+     *             If the connection failed.
+     */
+    @Test
+    public void remotePlayer() throws IOException {
+        NetServer netServer = new NetServer(0);
+        CountingBot bot = new CountingBot();
+        ClientConnector connector = new ClientConnector(bot);
+        try {
+            connector.connect("localhost", netServer.getPort(), "Remote");
+            RemoteClient client = netServer.accept(TIMEOUT);
+            Assert.assertNotNull(client);
+            int tableId = server.createTable(TableType.NO_LIMIT, BIG_BLIND);
+            server.seatPlayer(tableId, "Local", CASH, new DummyBot());
+            Player player = server.seatPlayer(tableId, "Remote", CASH, client);
+            bot.awaitHands(5);
+            // The server counts the hands per slice.
+            awaitHands(1L);
+            server.unseatPlayer(tableId, player);
+            server.closeTable(tableId);
+        } finally {
+            connector.close();
+            netServer.close();
+        }
+    }
+
+    /**
+     * Waits until the server has played a number of hands.
+     *
+     * @param noOfHands
+     *            The number of hands.
+     */
+    private void awaitHands(long noOfHands) {
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (server.getNoOfHands() < noOfHands) {
+            Assert.assertTrue("Timeout while waiting for hands", System.currentTimeMillis() < deadline);
+            sleep();
+        }
+    }
+
+    /**
+     * Waits a little while for the server.
+     */
+    private static void sleep() {
+        try {
+            Thread.sleep(10L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Assert.fail("Interrupted");
+        }
+    }
+
+    /**
+     * Bot counting the hands it was dealt in.
+     */
+    private static class CountingBot extends DummyBot {
+
+        /** The number of hands started. */
+        private final AtomicInteger noOfHands = new AtomicInteger();
+
+        /** {@inheritDoc} */
+        @Override
+        public void handStarted(Player dealer) {
+            noOfHands.incrementAndGet();
+        }
+
+        /**
+         * Returns the number of hands started.
+         *
+         * @return The number of hands.
+         */
+        public int getNoOfHands() {
+            return noOfHands.get();
+        }
+
+        /**
+         * Waits until a number of hands has started.
+         *
+         * @param noOfHands
+         *            The number of hands.
+         */
+        public void awaitHands(int noOfHands) {
+            long deadline = System.currentTimeMillis() + TIMEOUT;
+            while (getNoOfHands() < noOfHands) {
+                Assert.assertTrue("Timeout while waiting for hands", System.currentTimeMillis() < deadline);
+                sleep();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,182 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.ozsoft.texasholdem.actions.ActionType;
+import org.ozsoft.texasholdem.bots.AiBot;
+
+/**
+ * Test suite for the {@link GameState} passed to {@link Client#act(GameState)}.
+ *
+ * @author Oscar Stigter
+ */
+public class GameStateTest {
+
+    /** The number of hands to play. */
+    private static final int NO_OF_HANDS = 2000;
+
+    /** The seed of the deck. */
+    private static final long SEED = 42L;
+
+    /**
+     * Tests the live view of the table, used without a time limit.
+     */
+    @Test
+    public void liveView() {
+        play(0L);
+    }
+
+    /**
+     * Tests the detached copy, used with a time limit.
+     */
+    @Test
+    public void detachedCopy() {
+        play(60000L);
+    }
+
+    /**
+     * Tests that the live view and the detached copy lead to the same game.
+     */
+    @Test
+    public void sameGame() {
+        ArenaResult liveResult = play(0L);
+        ArenaResult copyResult = play(60000L);
+        for (int i = 0; i < liveResult.getNoOfPlayers(); i++) {
+            Assert.assertEquals(liveResult.getBigBlindsPer100(i), copyResult.getBigBlindsPer100(i), 0.0);
+        }
+    }
+
+    /**
+     * Plays a seeded arena between checking bots.
+     *
+     * @param actionTimeout
+     *            The time limit per decision in milliseconds (0 for none).
+     *
+     * @return The result.
+     */
+    private static ArenaResult play(long actionTimeout) {
+        Arena arena = new Arena(TableType.NO_LIMIT, 10, 1000);
+        arena.setSeed(SEED);
+        arena.setTimeLimits(actionTimeout, actionTimeout);
+        CheckingBot[] bots = new CheckingBot[4];
+        for (int i = 0; i < bots.length; i++) {
+            bots[i] = new CheckingBot(i, 25 * i, 25 * (3 - i));
+            arena.addBot(bots[i].name, bots[i]);
+        }
+        ArenaResult result = arena.run(NO_OF_HANDS);
+        int noOfChecks = 0;
+        int noOfFolds = 0;
+        for (CheckingBot bot : bots) {
+            noOfChecks += bot.noOfChecks;
+            noOfFolds += bot.noOfFolds;
+            Assert.assertEquals(0, result.getNoOfTimeouts(bot.index));
+        }
+        Assert.assertTrue(noOfChecks > 0);
+        // Folded players must have been seen, to check that they are inactive.
+        Assert.assertTrue(noOfFolds > 0);
+        return result;
+    }
+
+    /**
+     * AI bot checking the consistency of the game state at each decision.
+     */
+    private static class CheckingBot extends AiBot {
+
+        /** The name. */
+        private final String name;
+
+        /** The index in the arena. */
+        private final int index;
+
+        /** The number of decisions checked. */
+        private int noOfChecks = 0;
+
+        /** The number of folded players checked. */
+        private int noOfFolds = 0;
+
+        /**
+         * Constructor.
+         *
+         * @param index
+         *            The index in the arena.
+         * @param tightness
+         *            The tightness.
+         * @param aggression
+         *            The aggression.
+         */
+        public CheckingBot(int index, int tightness, int aggression) {
+            super(tightness, aggression);
+            this.index = index;
+            name = "Bot" + index;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long act(GameState state) {
+            int seat = state.getActorSeat();
+            Assert.assertEquals(name, state.getName(seat));
+            Assert.assertTrue(state.isActive(seat));
+            Assert.assertTrue(state.getAllowedActions() != 0);
+
+            // Cards.
+            Assert.assertEquals(2, CardSet.size(state.getHoleCards()));
+            Assert.assertEquals(CardSet.of(state.getBoard()), state.getBoardCards());
+            Assert.assertEquals(0L, state.getHoleCards() & state.getBoardCards());
+            Assert.assertEquals(Street.of(state.getBoard().size()), state.getStreet());
+
+            // Pots.
+            int pot = 0;
+            for (int i = 0; i < state.getNoOfPots(); i++) {
+                pot += state.getPot(i);
+            }
+            Assert.assertEquals(pot, state.getPot());
+
+            // Players who folded are out of the hand; the others who acted
+            // are still in it.
+            int noOfPlayers = state.getNoOfPlayers();
+            boolean[] folded = new boolean[noOfPlayers];
+            boolean[] acted = new boolean[noOfPlayers];
+            Street street = Street.PRE_FLOP;
+            for (int i = 0; i < state.getNoOfActions(); i++) {
+                int actionSeat = state.getActionSeat(i);
+                Assert.assertFalse(folded[actionSeat]);
+                Assert.assertTrue(state.getActionStreet(i).compareTo(street) >= 0);
+                street = state.getActionStreet(i);
+                if (ActionType.of(state.getAction(i)) == ActionType.FOLD) {
+                    folded[actionSeat] = true;
+                } else {
+                    acted[actionSeat] = true;
+                }
+            }
+            for (int i = 0; i < noOfPlayers; i++) {
+                if (folded[i]) {
+                    Assert.assertFalse(state.isActive(i));
+                    noOfFolds++;
+                } else if (acted[i]) {
+                    Assert.assertTrue(state.isActive(i));
+                }
+            }
+            noOfChecks++;
+            return super.act(state);
+        }
+
+    }
+
+}
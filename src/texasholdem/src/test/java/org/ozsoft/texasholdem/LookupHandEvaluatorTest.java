@@ -0,0 +1,138 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test suite for the {@link LookupHandEvaluator} class, using the
+ * {@link HandEvaluator} as the reference.
+ *
+ * @author Oscar Stigter
+ */
+public class LookupHandEvaluatorTest {
+
+    /** The number of random hands per hand size. */
+    private static final int NO_OF_HANDS = 200000;
+
+    /**
+     * Tests random hands of 5 to 7 cards against the reference evaluator.
+     */
+    @Test
+    public void randomHands() {
+        Random random = new Random(1L);
+        for (int noOfCards = 5; noOfCards <= 7; noOfCards++) {
+            for (int i = 0; i < NO_OF_HANDS; i++) {
+                Card[] cards = deal(random, noOfCards);
+                int expected = new HandEvaluator(new Hand(cards)).getValue();
+                Assert.assertEquals(CardSet.toString(CardSet.of(cards)), expected, LookupHandEvaluator.evaluate(cards));
+                Assert.assertEquals(expected, LookupHandEvaluator.evaluate(CardSet.of(cards)));
+            }
+        }
+    }
+
+    /**
+     * Tests hands of each type against the reference evaluator, including the
+     * Ace-low Straight and Straight Flush.
+     */
+    @Test
+    public void handTypes() {
+        assertType("Ah Kh Qh Jh Th 2c 3d", HandValueType.ROYAL_FLUSH);
+        assertType("5d 4d 3d 2d Ad Ks Kc", HandValueType.STRAIGHT_FLUSH);
+        assertType("9s 9h 9d 9c 2h 3h 4h", HandValueType.FOUR_OF_A_KIND);
+        assertType("Js Jh Jd 2c 2h 2d 4h", HandValueType.FULL_HOUSE);
+        assertType("As 9s 7s 4s 2s Ah Ad", HandValueType.FLUSH);
+        assertType("5c 4d 3h 2s Ad Kd Qc", HandValueType.STRAIGHT);
+        assertType("7c 7d 7h Ks 2d 9d Qc", HandValueType.THREE_OF_A_KIND);
+        assertType("7c 7d 8h 8s 2d 2h Qc", HandValueType.TWO_PAIRS);
+        assertType("7c 7d 8h Ts 2d 3h Qc", HandValueType.ONE_PAIR);
+        assertType("7c 9d 8h Ts 2d 3h Qc", HandValueType.HIGH_CARD);
+    }
+
+    /**
+     * Tests that the best cards of a hand have the same value as the hand.
+     */
+    @Test
+    public void bestCards() {
+        Random random = new Random(2L);
+        for (int i = 0; i < NO_OF_HANDS / 10; i++) {
+            long cards = CardSet.of(deal(random, 7));
+            Card[] bestCards = LookupHandEvaluator.getBestCards(cards);
+            Assert.assertEquals(5, bestCards.length);
+            Assert.assertEquals(LookupHandEvaluator.evaluate(cards), LookupHandEvaluator.evaluate(bestCards));
+        }
+    }
+
+    /**
+     * Tests that more than 7 cards are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyCards() {
+        LookupHandEvaluator.evaluate(deal(new Random(3L), 8));
+    }
+
+    /**
+     * Asserts the type of a hand, and that its value equals the reference
+     * value.
+     *
+     * @param hand
+     *            The cards, separated by spaces.
+     * @param type
+     *            The expected hand value type.
+     */
+    private static void assertType(String hand, HandValueType type) {
+        String[] symbols = hand.split(" ");
+        Card[] cards = new Card[symbols.length];
+        for (int i = 0; i < symbols.length; i++) {
+            cards[i] = Card.parse(symbols[i]);
+        }
+        HandEvaluator evaluator = new HandEvaluator(new Hand(cards));
+        int value = LookupHandEvaluator.evaluate(CardSet.of(cards));
+        Assert.assertEquals(hand, type, evaluator.getType());
+        Assert.assertEquals(hand, type, LookupHandEvaluator.getType(value));
+        Assert.assertEquals(hand, evaluator.getValue(), value);
+    }
+
+    /**
+     * Deals distinct random cards.
+     *
+     * @param random
+     *            The random number generator.
+     * @param noOfCards
+     *            The number of cards.
+     *
+     * @return The cards.
+     */
+    private static Card[] deal(Random random, int noOfCards) {
+        boolean[] dealt = new boolean[52];
+        Card[] cards = new Card[noOfCards];
+        for (int i = 0; i < noOfCards; i++) {
+            int index;
+            do {
+                index = random.nextInt(52);
+            } while (dealt[index]);
+            dealt[index] = true;
+            cards[i] = Card.of(index);
+        }
+        return cards;
+    }
+
+}
@@ -0,0 +1,240 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.ozsoft.texasholdem.actions.ActionType;
+import org.ozsoft.texasholdem.bots.DummyBot;
+
+/**
+ * Test suite for the handling of the actions returned by clients in the
+ * {@link Table} class.
+ *
+ * @author Oscar Stigter
+ */
+public class TableTest {
+
+    /** The big blind. */
+    private static final int BIG_BLIND = 10;
+
+    /** The starting cash per player. */
+    private static final int CASH = 100;
+
+    /** The name of the player whose actions are recorded. */
+    private static final String BETTOR = "Bettor";
+
+    /**
+     * Tests that a No Limit bet of more than the player's cash is capped to
+     * an all-in.
+     */
+    @Test
+    public void betMoreThanCash() {
+        ScriptedBot bettor = new ScriptedBot(ActionType.BET.toCode(1000));
+        Player bettorPlayer = new Player(BETTOR, CASH, bettor);
+        Player caller = new Player("Caller", CASH, new DummyBot());
+        Table table = createTable(bettorPlayer, caller);
+        table.playHand();
+        // Both players called the big blind before the Flop.
+        Assert.assertEquals(ActionType.BET, bettor.actionType);
+        Assert.assertEquals(CASH - BIG_BLIND, bettor.actionAmount);
+        Assert.assertEquals(2 * CASH, bettorPlayer.getCash() + caller.getCash());
+    }
+
+    /**
+     * Tests that actions that can never be allowed (all-in, blinds and
+     * continue) are rejected.
+     */
+    @Test
+    public void invalidActions() {
+        ActionType[] invalidTypes = { ActionType.ALL_IN, ActionType.SMALL_BLIND, ActionType.BIG_BLIND,
+                ActionType.CONTINUE, };
+        for (ActionType type : invalidTypes) {
+            Table table = createTable(new Player("Cheater", CASH, new ScriptedBot(type.toCode())),
+                    new Player("Caller", CASH, new DummyBot()));
+            try {
+                table.playHand();
+                Assert.fail("No exception for " + type);
+            } catch (IllegalStateException e) {
+                Assert.assertTrue(e.getMessage(), e.getMessage().contains(type.getName()));
+            }
+        }
+    }
+
+    /**
+     * Tests that a bet is rejected when it is not allowed.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void betNotAllowed() {
+        ScriptedBot bot = new ScriptedBot(ActionType.BET.toCode(BIG_BLIND));
+        bot.always = true;
+        createTable(new Player("Cheater", CASH, bot), new Player("Caller", CASH, new DummyBot())).playHand();
+    }
+
+    /**
+     * Tests that only the player's own client gets the player itself, and
+     * all other clients get read-only snapshots without the hole cards
+     * (except at the showdown), also when seated between hands.
+     */
+    @Test
+    public void snapshots() {
+        RecordingBot bot1 = new RecordingBot();
+        RecordingBot bot2 = new RecordingBot();
+        Player player1 = new Player("Player 1", CASH, bot1);
+        Player player2 = new Player("Player 2", CASH, bot2);
+        Table table = createTable(player1, player2);
+        assertSnapshots(bot1.joinedPlayers, player1);
+        assertSnapshots(bot2.joinedPlayers, player2);
+        for (int i = 0; i < 10; i++) {
+            table.playHand();
+        }
+        Assert.assertFalse(bot1.updatedPlayers.isEmpty());
+        assertSnapshots(bot1.updatedPlayers, player1);
+        assertSnapshots(bot2.updatedPlayers, player2);
+
+        // A player seated between hands, while the others still hold the
+        // cards of the previous hand.
+        RecordingBot bot3 = new RecordingBot();
+        Player player3 = new Player("Player 3", CASH, bot3);
+        table.seatPlayer(player3);
+        Assert.assertEquals(3, bot3.joinedPlayers.size());
+        assertSnapshots(bot3.joinedPlayers, player3);
+        for (Player player : bot3.joinedPlayers) {
+            if (player != player3) {
+                Assert.assertEquals(0, player.getCards().length);
+            }
+        }
+    }
+
+    /**
+     * Asserts that a client only received its own player, and read-only
+     * snapshots of the other players.
+     *
+     * @param players
+     *            The players received by the client.
+     * @param ownPlayer
+     *            The client's own player.
+     */
+    private static void assertSnapshots(List<Player> players, Player ownPlayer) {
+        for (Player player : players) {
+            if (player.getName().equals(ownPlayer.getName())) {
+                Assert.assertSame(ownPlayer, player);
+            } else {
+                Assert.assertTrue(player.isSnapshot());
+                Assert.assertNull(player.getClient());
+            }
+        }
+    }
+
+    /**
+     * Creates a No Limit table with two players, ready to play a hand.
+     *
+     * @param player1
+     *            The first player.
+     * @param player2
+     *            The second player.
+     *
+     * @return The table.
+     */
+    private static Table createTable(Player player1, Player player2) {
+        Table table = new Table(TableType.NO_LIMIT, BIG_BLIND);
+        table.setSeed(1L);
+        table.addPlayer(player1);
+        table.addPlayer(player2);
+        table.start(null);
+        return table;
+    }
+
+    /**
+     * Bot recording the players it receives.
+     */
+    private static class RecordingBot extends DummyBot {
+
+        /** The players received when joining the table. */
+        private List<Player> joinedPlayers;
+
+        /** The players received as updates. */
+        private final List<Player> updatedPlayers = new ArrayList<Player>();
+
+        /** {@inheritDoc} */
+        @Override
+        public void joinedTable(TableType type, int bigBlind, List<Player> players) {
+            joinedPlayers = players;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void playerUpdated(Player player) {
+            updatedPlayers.add(player);
+        }
+
+    }
+
+    /**
+     * Bot responding with a preset action whenever it may bet (or always),
+     * and otherwise checking or calling.
+     */
+    private static class ScriptedBot extends DummyBot {
+
+        /** The action code to respond with. */
+        private final long action;
+
+        /** Whether to respond with the action even if no bet is allowed. */
+        private boolean always;
+
+        /** The kind of the last action of this bot. */
+        private ActionType actionType;
+
+        /** The amount of the last action of this bot. */
+        private int actionAmount;
+
+        /**
+         * Constructor.
+         *
+         * @param action
+         *            The action code to respond with.
+         */
+        public ScriptedBot(long action) {
+            this.action = action;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void playerActed(Player player) {
+            if (player.getName().equals(BETTOR)) {
+                actionType = player.getActionType();
+                actionAmount = player.getActionAmount();
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long act(GameState state) {
+            if (always || ActionType.BET.isIn(state.getAllowedActions())) {
+                return action;
+            } else {
+                return super.act(state);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,82 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.ozsoft.texasholdem.bots.AiBot;
+import org.ozsoft.texasholdem.bots.DummyBot;
+
+/**
+ * Test suite for the {@link Tournament} class.
+ *
+ * @author Oscar Stigter
+ */
+public class TournamentTest {
+
+    /** The number of tournaments per table type and number of players. */
+    private static final int NO_OF_RUNS = 5;
+
+    /**
+     * Tests tournaments with short stacks where the blinds go up every hand,
+     * so whole tables may be unable to post the new big blind.
+     */
+    @Test
+    public void fastBlindIncreases() {
+        for (TableType tableType : TableType.values()) {
+            for (int noOfPlayers = 23; noOfPlayers <= 36; noOfPlayers++) {
+                for (int run = 0; run < NO_OF_RUNS; run++) {
+                    playTournament(tableType, noOfPlayers);
+                }
+            }
+        }
+    }
+
+    /**
+     * Plays a tournament with the blinds doubling every hand and checks the
+     * finishing positions.
+     *
+     * @param tableType
+     *            The table type.
+     * @param noOfPlayers
+     *            The number of players.
+     */
+    private static void playTournament(TableType tableType, int noOfPlayers) {
+        Tournament tournament = new Tournament(tableType, 10, 20, 9, 2);
+        tournament.setHandsPerRound(1);
+        tournament.setRoundsPerLevel(1);
+        for (int i = 0; i < noOfPlayers; i++) {
+            if (i % 2 == 0) {
+                tournament.addBot("Ai" + i, new AiBot(25, 25));
+            } else {
+                tournament.addBot("Dummy" + i, new DummyBot());
+            }
+        }
+        TournamentResult result = tournament.run();
+        Assert.assertEquals(noOfPlayers, result.getNoOfPlayers());
+        // Every position is taken exactly once.
+        boolean[] taken = new boolean[noOfPlayers + 1];
+        for (int i = 0; i < noOfPlayers; i++) {
+            int position = result.getPosition(i);
+            Assert.assertTrue(position >= 1 && position <= noOfPlayers);
+            Assert.assertFalse(taken[position]);
+            taken[position] = true;
+        }
+    }
+
+}
@@ -0,0 +1,300 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.equity;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.Hand;
+import org.ozsoft.texasholdem.HandEvaluator;
+
+/**
+ * Test suite for the {@link EquityCalculator} and
+ * {@link MonteCarloEquityCalculator} classes.
+ *
+ * @author Oscar Stigter
+ */
+public class EquityCalculatorTest {
+
+    /** The maximum difference between exact equities. */
+    private static final double DELTA = 1e-12;
+
+    /** The calculator under test, using the common pool. */
+    private static final EquityCalculator calculator = new EquityCalculator();
+
+    /**
+     * Closes the calculator.
+     */
+    @AfterClass
+    public static void tearDown() {
+        calculator.close();
+    }
+
+    /**
+     * Tests a known board: the river decides.
+     */
+    @Test
+    public void completeBoard() {
+        EquityResult result = calculator.calculate(cards("Ah Kh", "Qs Qd"), cards("2h 7h Jc 3s 9h")[0]);
+        Assert.assertEquals(1L, result.getNoOfBoards());
+        Assert.assertEquals(1.0, result.getEquity(0), DELTA);
+        Assert.assertEquals(0.0, result.getEquity(1), DELTA);
+    }
+
+    /**
+     * Tests a flush and overcards draw on the turn: 9 hearts, 3 aces and 3
+     * kings out of 44 rivers.
+     */
+    @Test
+    public void drawOnTurn() {
+        EquityResult result = calculator.calculate(cards("Ah Kh", "Qs Qd"), cards("2h 7h Jc 3s")[0]);
+        Assert.assertEquals(44L, result.getNoOfBoards());
+        Assert.assertEquals(15.0 / 44.0, result.getEquity(0), DELTA);
+        Assert.assertEquals(29.0 / 44.0, result.getEquity(1), DELTA);
+    }
+
+    /**
+     * Tests a player drawing dead on the turn.
+     */
+    @Test
+    public void drawingDead() {
+        EquityResult result = calculator.calculate(cards("As Ks", "2c 2d"), cards("Ah Ad Ac Kd")[0]);
+        Assert.assertEquals(1.0, result.getEquity(0), DELTA);
+        Assert.assertEquals(0.0, result.getEquity(1), DELTA);
+    }
+
+    /**
+     * Tests suit-symmetric hands preflop, which always split the pot or win
+     * equally often.
+     */
+    @Test
+    public void symmetricPreflop() {
+        EquityResult result = calculator.calculate(cards("Ah Kh", "As Ks"), new Card[0]);
+        Assert.assertEquals(1712304L, result.getNoOfBoards());
+        Assert.assertEquals(0.5, result.getEquity(0), DELTA);
+        Assert.assertEquals(0.5, result.getEquity(1), DELTA);
+    }
+
+    /**
+     * Tests random multiway flops against a brute force enumeration with the
+     * {@link HandEvaluator}.
+     */
+    @Test
+    public void randomFlops() {
+        Random random = new Random(1L);
+        for (int i = 0; i < 20; i++) {
+            int noOfPlayers = 2 + random.nextInt(3);
+            Card[] cards = deal(random, noOfPlayers * 2 + 3);
+            Card[][] holeCards = new Card[noOfPlayers][];
+            for (int p = 0; p < noOfPlayers; p++) {
+                holeCards[p] = new Card[] { cards[p * 2], cards[p * 2 + 1] };
+            }
+            Card[] board = { cards[noOfPlayers * 2], cards[noOfPlayers * 2 + 1], cards[noOfPlayers * 2 + 2] };
+            EquityResult result = calculator.calculate(holeCards, board);
+            double[] expected = bruteForce(holeCards, board);
+            for (int p = 0; p < noOfPlayers; p++) {
+                Assert.assertEquals(expected[p], result.getEquity(p), DELTA);
+            }
+        }
+    }
+
+    /**
+     * Tests that the Monte Carlo estimate is close to the exact equity.
+     */
+    @Test
+    public void monteCarlo() {
+        Card[][] holeCards = cards("Ah Kh", "Qs Qd", "7c 6c");
+        Card[] board = cards("2h 7h Jc")[0];
+        double[] expected = bruteForce(holeCards, board);
+        MonteCarloEquityCalculator monteCarlo = new MonteCarloEquityCalculator(1, 1L);
+        try {
+            EquityResult result = monteCarlo.calculate(holeCards, board, new Card[0], 0.002, 0L);
+            for (int p = 0; p < holeCards.length; p++) {
+                Assert.assertTrue(result.getStandardError(p) <= 0.002);
+                Assert.assertEquals(expected[p], result.getEquity(p), 5 * 0.002);
+            }
+        } finally {
+            monteCarlo.close();
+        }
+    }
+
+    /**
+     * Tests that a blocked listener does not keep the other threads from
+     * reporting their results.
+     */
+    @Test
+    public void blockedListener() {
+        final CountDownLatch reported = new CountDownLatch(1);
+        final AtomicInteger noOfUpdates = new AtomicInteger();
+        final AtomicBoolean isConcurrent = new AtomicBoolean();
+        MonteCarloEquityCalculator monteCarlo = new MonteCarloEquityCalculator(2, 1L);
+        monteCarlo.setListener(new EquityListener() {
+
+            /** {@inheritDoc} */
+            @Override
+            public void equityUpdated(EquityResult result) {
+                if (noOfUpdates.getAndIncrement() == 0) {
+                    // Block the first update until another thread reports.
+                    try {
+                        isConcurrent.set(reported.await(10L, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                } else {
+                    reported.countDown();
+                }
+            }
+
+        });
+        try {
+            EquityResult result = monteCarlo.calculate(cards("Ah Kh", "Qs Qd"), new Card[0], new Card[0], 0.001, 0L);
+            Assert.assertTrue(isConcurrent.get());
+            Assert.assertTrue(result.getStandardError(0) <= 0.001);
+        } finally {
+            monteCarlo.close();
+        }
+    }
+
+    /**
+     * Tests the validation of the cards.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateCards() {
+        calculator.calculate(cards("Ah Kh", "Ah Qd"), new Card[0]);
+    }
+
+    /**
+     * Tests that unknown hole cards are only allowed by the Monte Carlo
+     * calculator.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownHoleCards() {
+        calculator.calculate(new Card[][] { cards("Ah Kh")[0], null }, new Card[0]);
+    }
+
+    /**
+     * Returns the equity of each player by evaluating every possible runout
+     * with the reference evaluator.
+     *
+     * @param holeCards
+     *            The hole cards per player.
+     * @param board
+     *            The flop.
+     *
+     * @return The equity per player.
+     */
+    private static double[] bruteForce(Card[][] holeCards, Card[] board) {
+        int noOfPlayers = holeCards.length;
+        boolean[] used = new boolean[52];
+        for (Card[] cards : holeCards) {
+            for (Card card : cards) {
+                used[card.hashCode()] = true;
+            }
+        }
+        for (Card card : board) {
+            used[card.hashCode()] = true;
+        }
+        double[] shares = new double[noOfPlayers];
+        int noOfBoards = 0;
+        for (int turn = 0; turn < 52; turn++) {
+            for (int river = turn + 1; river < 52; river++) {
+                if (used[turn] || used[river]) {
+                    continue;
+                }
+                int[] values = new int[noOfPlayers];
+                int best = -1;
+                int noOfWinners = 0;
+                for (int p = 0; p < noOfPlayers; p++) {
+                    Hand hand = new Hand(board);
+                    hand.addCards(holeCards[p]);
+                    hand.addCard(Card.of(turn));
+                    hand.addCard(Card.of(river));
+                    values[p] = new HandEvaluator(hand).getValue();
+                    if (values[p] > best) {
+                        best = values[p];
+                        noOfWinners = 1;
+                    } else if (values[p] == best) {
+                        noOfWinners++;
+                    }
+                }
+                for (int p = 0; p < noOfPlayers; p++) {
+                    if (values[p] == best) {
+                        shares[p] += 1.0 / noOfWinners;
+                    }
+                }
+                noOfBoards++;
+            }
+        }
+        for (int p = 0; p < noOfPlayers; p++) {
+            shares[p] /= noOfBoards;
+        }
+        return shares;
+    }
+
+    /**
+     * Deals distinct random cards.
+     *
+     * @param random
+     *            The random number generator.
+     * @param noOfCards
+     *            The number of cards.
+     *
+     * @return The cards.
+     */
+    private static Card[] deal(Random random, int noOfCards) {
+        boolean[] dealt = new boolean[52];
+        Card[] cards = new Card[noOfCards];
+        for (int i = 0; i < noOfCards; i++) {
+            int index;
+            do {
+                index = random.nextInt(52);
+            } while (dealt[index]);
+            dealt[index] = true;
+            cards[i] = Card.of(index);
+        }
+        return cards;
+    }
+
+    /**
+     * Parses groups of cards, e.g. <code>cards("Ah Kh", "Qs Qd")</code>.
+     *
+     * @param groups
+     *            The groups, with the cards separated by spaces.
+     *
+     * @return The cards per group.
+     */
+    private static Card[][] cards(String... groups) {
+        Card[][] cards = new Card[groups.length][];
+        for (int i = 0; i < groups.length; i++) {
+            String[] symbols = groups[i].split(" ");
+            cards[i] = new Card[symbols.length];
+            for (int j = 0; j < symbols.length; j++) {
+                cards[i][j] = Card.parse(symbols[j]);
+            }
+        }
+        return cards;
+    }
+
+}
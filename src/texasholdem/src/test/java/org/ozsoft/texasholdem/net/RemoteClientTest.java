@@ -0,0 +1,170 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.net;
+
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.actions.ActionType;
+import org.ozsoft.texasholdem.bots.DummyBot;
+
+/**
+ * Test suite for the validation of the responses of a {@link RemoteClient}.
+ *
+ * @author Oscar Stigter
+ */
+public class RemoteClientTest {
+
+    /** The maximum time to wait for the remote client in milliseconds. */
+    private static final long TIMEOUT = 10000L;
+
+    /** The minimum bet of the act requests. */
+    private static final int MIN_BET = 10;
+
+    /** The allowed actions when there is no bet. */
+    private static final int NO_BET = ActionType.CHECK.getMask() | ActionType.BET.getMask()
+            | ActionType.FOLD.getMask();
+
+    /** The allowed actions when there is a bet. */
+    private static final int BET = ActionType.CALL.getMask() | ActionType.RAISE.getMask()
+            | ActionType.FOLD.getMask();
+
+    /** The bot on the remote side. */
+    private ScriptedBot bot;
+
+    /** The server. */
+    private NetServer server;
+
+    /** The remote side. */
+    private ClientConnector connector;
+
+    /** The remote client on the server side. */
+    private RemoteClient client;
+
+    /**
+     * Connects the bot to the server.
+     *
+     * @throws IOException
+     *             If the connection failed.
+     */
+    @Before
+    public void setUp() throws IOException {
+        bot = new ScriptedBot();
+        server = new NetServer(0);
+        connector = new ClientConnector(bot);
+        connector.connect("localhost", server.getPort(), "Bob");
+        client = server.accept(TIMEOUT);
+        Assert.assertNotNull(client);
+    }
+
+    /**
+     * Closes the connection and the server.
+     */
+    @After
+    public void tearDown() {
+        connector.close();
+        server.close();
+    }
+
+    /**
+     * Tests that valid actions are passed on unchanged.
+     */
+    @Test
+    public void validActions() {
+        assertResponse(ActionType.CHECK.toCode(), NO_BET, ActionType.CHECK.toCode());
+        assertResponse(ActionType.BET.toCode(25), NO_BET, ActionType.BET.toCode(25));
+        assertResponse(ActionType.CALL.toCode(), BET, ActionType.CALL.toCode());
+        assertResponse(ActionType.RAISE.toCode(MIN_BET), BET, ActionType.RAISE.toCode(MIN_BET));
+        assertResponse(ActionType.FOLD.toCode(), BET, ActionType.FOLD.toCode());
+    }
+
+    /**
+     * Tests that actions that are not allowed are replaced by check or fold.
+     */
+    @Test
+    public void actionsNotAllowed() {
+        assertResponse(ActionType.RAISE.toCode(20), NO_BET, ActionType.CHECK.toCode());
+        assertResponse(ActionType.CHECK.toCode(), BET, ActionType.FOLD.toCode());
+        assertResponse(ActionType.BET.toCode(20), BET, ActionType.FOLD.toCode());
+        assertResponse(ActionType.ALL_IN.toCode(), BET, ActionType.FOLD.toCode());
+        assertResponse(ActionType.SMALL_BLIND.toCode(), NO_BET, ActionType.CHECK.toCode());
+        assertResponse(ActionType.BIG_BLIND.toCode(), BET, ActionType.FOLD.toCode());
+        assertResponse(ActionType.CONTINUE.toCode(), NO_BET, ActionType.CHECK.toCode());
+    }
+
+    /**
+     * Tests that invalid amounts are rejected or raised to the minimum bet.
+     */
+    @Test
+    public void invalidAmounts() {
+        assertResponse(ActionType.BET.toCode(-20), NO_BET, ActionType.CHECK.toCode());
+        assertResponse(ActionType.RAISE.toCode(-20), BET, ActionType.FOLD.toCode());
+        assertResponse(ActionType.BET.toCode(1), NO_BET, ActionType.BET.toCode(MIN_BET));
+        assertResponse(ActionType.RAISE.toCode(0), BET, ActionType.RAISE.toCode(MIN_BET));
+    }
+
+    /**
+     * Tests that the connection stays usable after an invalid response.
+     */
+    @Test
+    public void stillConnected() {
+        assertResponse(ActionType.ALL_IN.toCode(), BET, ActionType.FOLD.toCode());
+        Assert.assertTrue(client.isConnected());
+        Assert.assertTrue(connector.isConnected());
+        assertResponse(ActionType.CALL.toCode(), BET, ActionType.CALL.toCode());
+    }
+
+    /**
+     * Lets the remote bot respond with an action, and asserts the action
+     * returned by the remote client.
+     *
+     * @param response
+     *            The action code sent by the remote bot.
+     * @param allowedActions
+     *            The allowed actions.
+     * @param expected
+     *            The expected action code.
+     */
+    private void assertResponse(long response, int allowedActions, long expected) {
+        bot.response = response;
+        long action = client.act(MIN_BET, 0, allowedActions, new Card[0], 100, false);
+        Assert.assertEquals(ActionType.of(expected), ActionType.of(action));
+        Assert.assertEquals(ActionType.getAmount(expected), ActionType.getAmount(action));
+    }
+
+    /**
+     * Bot responding with a preset action, whether allowed or not.
+     */
+    private static class ScriptedBot extends DummyBot {
+
+        /** The action code to respond with. */
+        private volatile long response;
+
+        /** {@inheritDoc} */
+        @Override
+        public long act(int minBet, int currentBet, int allowedActions, Card[] cards, int pot, boolean dealer) {
+            return response;
+        }
+
+    }
+
+}